@@ -3,10 +3,12 @@ package com.oshapp.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 @org.springframework.context.annotation.ComponentScan(basePackages = "com.oshapp.backend")
 public class OshappBackendApplication {
     public static void main(String[] args) {
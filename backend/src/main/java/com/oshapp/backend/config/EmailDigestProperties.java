@@ -0,0 +1,30 @@
+package com.oshapp.backend.config;
+
+import com.oshapp.backend.model.enums.RoleName;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Mode récapitulatif des emails de rendez-vous (préfixe app.mail.digest).
+ * Désactivé par défaut. Une fois activé, les rôles listés reçoivent un récapitulatif par défaut ;
+ * chaque utilisateur peut surcharger ce choix.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mail.digest")
+public class EmailDigestProperties {
+
+    private boolean enabled = false;
+
+    // Durée pendant laquelle les événements d'un destinataire sont regroupés
+    private int windowMinutes = 30;
+
+    // Au-delà, le récapitulatif est envoyé sans attendre la fin de la fenêtre
+    private int maxEntries = 50;
+
+    private Set<RoleName> roles = EnumSet.of(RoleName.ROLE_RH, RoleName.ROLE_NURSE, RoleName.ROLE_DOCTOR);
+}
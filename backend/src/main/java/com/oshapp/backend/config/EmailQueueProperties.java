@@ -0,0 +1,44 @@
+package com.oshapp.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * File d'envoi persistante des emails (préfixe app.mail.queue).
+ * Les messages sont stockés en base puis envoyés par un pool de workers borné, avec reprise exponentielle.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mail.queue")
+public class EmailQueueProperties {
+
+    // Désactivé : les messages restent en file sans être envoyés
+    private boolean enabled = true;
+
+    private int workers = 4;
+
+    // Nombre maximal de messages réservés par passage du dispatcher
+    private int batchSize = 50;
+
+    // Messages envoyés par un worker sur une même connexion SMTP
+    private int sendBatchSize = 20;
+
+    private long pollIntervalMs = 2000;
+
+    // Au-delà, le message part dans la table des lettres mortes
+    private int maxAttempts = 6;
+
+    private long initialBackoffSeconds = 30;
+
+    private long maxBackoffSeconds = 3600;
+
+    // Un message resté en cours d'envoi plus longtemps est remis en file (arrêt brutal)
+    private int staleProcessingMinutes = 10;
+
+    // Contenu identique pour plusieurs destinataires : un seul message en copie cachée
+    private boolean bccGroupingEnabled = true;
+
+    // Nombre maximal de destinataires en copie cachée par message
+    private int bccMaxGroupSize = 50;
+}
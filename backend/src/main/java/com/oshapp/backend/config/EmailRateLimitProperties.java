@@ -0,0 +1,47 @@
+package com.oshapp.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Quotas d'envoi du relais SMTP (préfixe app.mail.rate-limit).
+ * Le fournisseur est choisi d'après spring.mail.host ; à défaut, les quotas "defaults" s'appliquent.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mail.rate-limit")
+public class EmailRateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Quota defaults = new Quota(null, 60, 10000);
+
+    // Clé : nom du fournisseur, host : suffixe comparé à spring.mail.host
+    private Map<String, Quota> providers = new LinkedHashMap<>(Map.of(
+            "gmail", new Quota("smtp.gmail.com", 20, 500),
+            "office365", new Quota("smtp.office365.com", 30, 10000)));
+
+    // Part des jetons réservée aux voies plus prioritaires (en %)
+    private int criticalReservePercent = 20;
+    private int normalReservePercent = 20;
+
+    @Data
+    public static class Quota {
+        private String host;
+        private int perMinute;
+        private int perDay;
+
+        public Quota() {
+        }
+
+        public Quota(String host, int perMinute, int perDay) {
+            this.host = host;
+            this.perMinute = perMinute;
+            this.perDay = perDay;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.oshapp.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dénominateur des taux HSE (préfixe app.hse.kpi) : heures travaillées par an.
+ * Entreprise : annual-hours-worked si renseigné, sinon effectif (profil entreprise, à défaut employés
+ * enregistrés) x annual-hours-per-employee. Départements : mêmes règles, surchargeables par département.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.hse.kpi")
+public class HseKpiProperties {
+
+    // 44 h / semaine x 52 semaines
+    private double annualHoursPerEmployee = 2288;
+
+    private Double annualHoursWorked;
+
+    // Nombre de mois de la tendance (chaque point : mois et cumul glissant sur 12 mois)
+    private int trendMonths = 12;
+
+    // Jours d'arrêt et taux de gravité : désactivés tant qu'aucun écran ne saisit les jours d'arrêt
+    private boolean severityRateEnabled = false;
+
+    // Clé : libellé du département tel que saisi sur l'employé
+    private Map<String, Denominator> departments = new LinkedHashMap<>();
+
+    @Data
+    public static class Denominator {
+        private Double annualHoursPerEmployee;
+        private Double annualHoursWorked;
+    }
+}
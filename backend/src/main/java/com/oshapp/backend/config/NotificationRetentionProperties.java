@@ -0,0 +1,53 @@
+package com.oshapp.backend.config;
+
+import com.oshapp.backend.model.enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Politiques de rétention des notifications (préfixe app.notifications.retention).
+ * Une durée nulle hérite de la politique par défaut, une durée <= 0 désactive la purge.
+ * La purge des notifications non lues est désactivée par défaut et s'active type par type (unread-days).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.notifications.retention")
+public class NotificationRetentionProperties {
+
+    private boolean enabled = true;
+
+    private String cron = "0 30 3 * * *";
+
+    // Nombre de lignes supprimées par transaction
+    private int batchSize = 500;
+
+    private Policy defaults = new Policy(90, null);
+
+    private Map<NotificationType, Policy> types = new EnumMap<>(NotificationType.class);
+
+    public int readRetentionDays(NotificationType type) {
+        Policy policy = types.get(type);
+        if (policy != null && policy.getReadDays() != null) return policy.getReadDays();
+        return defaults.getReadDays() != null ? defaults.getReadDays() : 0;
+    }
+
+    public int unreadRetentionDays(NotificationType type) {
+        Policy policy = types.get(type);
+        if (policy != null && policy.getUnreadDays() != null) return policy.getUnreadDays();
+        return defaults.getUnreadDays() != null ? defaults.getUnreadDays() : 0;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        private Integer readDays;
+        private Integer unreadDays;
+    }
+}
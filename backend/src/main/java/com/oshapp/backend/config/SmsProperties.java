@@ -0,0 +1,72 @@
+package com.oshapp.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Canal SMS (préfixe app.sms). Les messages sont stockés dans sms_outbox puis soumis par lots
+ * à la passerelle choisie par {@code gateway}, sur un thread dédié indépendant de la file email.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sms")
+public class SmsProperties {
+
+    // Désactivé : les SMS restent en file sans être soumis
+    private boolean enabled = true;
+
+    // Passerelle active : "log" (simulation) ou "http"
+    private String gateway = "log";
+
+    // Nombre maximal de SMS réservés par passage du dispatcher
+    private int batchSize = 50;
+
+    private long pollIntervalMs = 1000;
+
+    private int maxAttempts = 5;
+
+    private long initialBackoffSeconds = 15;
+
+    private long maxBackoffSeconds = 900;
+
+    // Un SMS resté en cours de soumission plus longtemps est remis en file
+    private int staleProcessingMinutes = 5;
+
+    // SMS envoyés, remis ou en échec conservés pour les accusés de réception puis purgés
+    private int retentionDays = 30;
+
+    // Débit par minute, clé : nom de la passerelle
+    private Map<String, Integer> rateLimits = new LinkedHashMap<>(Map.of("log", 600, "http", 60));
+
+    private int defaultRatePerMinute = 60;
+
+    // Jeton attendu dans l'en-tête X-Sms-Callback-Token des accusés de réception ; vide = callbacks refusés
+    private String callbackToken = "";
+
+    // URL publique de /api/v1/sms/callback transmise à la passerelle
+    private String callbackUrl = "";
+
+    private Http http = new Http();
+
+    private Stub stub = new Stub();
+
+    @Data
+    public static class Http {
+        private String url = "";
+        private String apiKey = "";
+        private int maxBatchSize = 100;
+        private int connectTimeoutMs = 2000;
+        private int readTimeoutMs = 5000;
+    }
+
+    // Passerelle HTTP locale (/api/v1/sms-stub) pour les tests et le développement
+    @Data
+    public static class Stub {
+        private boolean enabled = false;
+        private int maxStoredMessages = 500;
+    }
+}
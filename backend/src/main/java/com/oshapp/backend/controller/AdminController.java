@@ -26,7 +26,15 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.Set;
 import com.oshapp.backend.dto.AdminDashboardData;
+import com.oshapp.backend.dto.AuthActivityDTO;
+import com.oshapp.backend.dto.NotificationRetentionReportDTO;
+import com.oshapp.backend.dto.EmailDeadLetterDTO;
+import com.oshapp.backend.dto.EmailQueueStatsDTO;
+import com.oshapp.backend.service.EmailQueueService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import com.oshapp.backend.service.AdminDashboardService;
+import com.oshapp.backend.service.NotificationRetentionService;
 import com.oshapp.backend.service.StatisticsService;
 
 import java.util.stream.Collectors;
@@ -43,6 +51,8 @@ public class AdminController {
     private final AdminDashboardService adminDashboardService;
     private final StatisticsService statisticsService;
     private final EmployeeService employeeService;
+    private final NotificationRetentionService notificationRetentionService;
+    private final EmailQueueService emailQueueService;
 
 
 
@@ -141,6 +151,13 @@ public class AdminController {
         return ResponseEntity.ok(dashboardData);
     }
 
+    // Login activity: in-memory sliding windows plus persisted hourly history
+    @GetMapping("/auth-activity")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuthActivityDTO> getAuthActivity(@RequestParam(value = "hours", defaultValue = "24") int hours) {
+        return ResponseEntity.ok(adminDashboardService.getAuthActivity(hours));
+    }
+
     // Alias endpoint for admin statistics to maintain compatibility with older frontend paths
     // Maps to: GET /api/v1/admin/statistics
     // Delegates to the same statistics service used by StatisticsController (/api/v1/statistics/admin)
@@ -151,6 +168,46 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    // --- Notification retention ---
+    @GetMapping("/notifications/retention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<NotificationRetentionReportDTO> getNotificationRetentionReport() {
+        NotificationRetentionReportDTO report = notificationRetentionService.getLastReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/notifications/retention/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<NotificationRetentionReportDTO> runNotificationRetention() {
+        return ResponseEntity.ok(notificationRetentionService.runRetention());
+    }
+
+    // --- Email queue ---
+    @GetMapping("/emails/queue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EmailQueueStatsDTO> getEmailQueueStats() {
+        return ResponseEntity.ok(emailQueueService.getStats());
+    }
+
+    @GetMapping("/emails/dead-letters")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<EmailDeadLetterDTO>> getEmailDeadLetters(Pageable pageable) {
+        return ResponseEntity.ok(emailQueueService.getDeadLetters(pageable));
+    }
+
+    @PostMapping("/emails/dead-letters/{id}/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> replayEmailDeadLetter(@PathVariable Long id) {
+        emailQueueService.replayDeadLetter(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/emails/dead-letters/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> replayAllEmailDeadLetters() {
+        return ResponseEntity.ok(emailQueueService.replayAllDeadLetters());
+    }
+
     private UserResponseDTO convertToDto(User user) {
         UserResponseDTO dto = new UserResponseDTO();
         dto.setId(user.getId());
@@ -13,6 +13,7 @@ import com.oshapp.backend.model.enums.RoleName;
 import com.oshapp.backend.repository.UserRepository;
 import com.oshapp.backend.service.UserService;
 import com.oshapp.backend.service.EmployeeService;
+import com.oshapp.backend.service.activity.LoginActivityTracker;
 import com.oshapp.backend.exception.InvalidTokenException;
 import com.oshapp.backend.security.JwtTokenProvider;
 import com.oshapp.backend.security.UserPrincipal;
@@ -51,6 +52,7 @@ public class AuthController {
     private final UserService userService;
     private final EmployeeService employeeService;
     private final PasswordEncoder passwordEncoder;
+    private final LoginActivityTracker loginActivityTracker;
 
     @Value("${app.google.clientId:}")
     private String googleClientId;
@@ -63,6 +65,7 @@ public class AuthController {
             boolean isAdmin = user.getRoles().stream()
                     .anyMatch(role -> role.getName() == RoleName.ROLE_ADMIN);
             if (!isAdmin) {
+                loginActivityTracker.recordFailure();
                 userService.createAndSendActivationToken(user);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "ACCOUNT_NOT_ACTIVATED"));
@@ -74,12 +77,15 @@ public class AuthController {
             authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
         } catch (DisabledException ex) {
+            loginActivityTracker.recordFailure();
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "ACCOUNT_NOT_ACTIVATED"));
         } catch (BadCredentialsException ex) {
+            loginActivityTracker.recordFailure();
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "UNAUTHORIZED"));
         } catch (AuthenticationException ex) {
+            loginActivityTracker.recordFailure();
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "UNAUTHORIZED"));
         }
@@ -89,6 +95,7 @@ public class AuthController {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         String jwt = jwtTokenProvider.generateToken(authentication);
         UserResponseDTO userResponseDTO = userService.createDtoFromPrincipal(userPrincipal);
+        loginActivityTracker.recordSuccess(userPrincipal.getId());
 
         return ResponseEntity.ok(new LoginResponseDTO(jwt, userResponseDTO));
     }
@@ -113,6 +120,7 @@ public class AuthController {
 
             GoogleIdToken idToken = verifier.verify(request.getIdToken());
             if (idToken == null) {
+                loginActivityTracker.recordFailure();
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "UNAUTHORIZED"));
             }
@@ -120,12 +128,14 @@ public class AuthController {
             GoogleIdToken.Payload payload = idToken.getPayload();
             String email = payload.getEmail();
             if (email == null || email.isBlank()) {
+                loginActivityTracker.recordFailure();
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "UNAUTHORIZED"));
             }
 
             Boolean emailVerified = (Boolean) payload.get("email_verified");
             if (emailVerified != null && !emailVerified) {
+                loginActivityTracker.recordFailure();
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "UNAUTHORIZED"));
             }
@@ -157,6 +167,7 @@ public class AuthController {
                 boolean isAdmin = user.getRoles().stream()
                         .anyMatch(role -> role.getName() == RoleName.ROLE_ADMIN);
                 if (!isAdmin) {
+                    loginActivityTracker.recordFailure();
                     userService.createAndSendActivationToken(user);
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body(Map.of("error", "ACCOUNT_NOT_ACTIVATED"));
@@ -170,8 +181,10 @@ public class AuthController {
 
             String jwt = jwtTokenProvider.generateToken(authentication);
             UserResponseDTO userResponseDTO = userService.createDtoFromPrincipal(userPrincipal);
+            loginActivityTracker.recordSuccess(user.getId());
             return ResponseEntity.ok(new LoginResponseDTO(jwt, userResponseDTO));
         } catch (Exception e) {
+            loginActivityTracker.recordFailure();
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "UNAUTHORIZED"));
         }
@@ -1,9 +1,11 @@
 package com.oshapp.backend.controller;
 
+import com.oshapp.backend.dto.DepartmentReportDTO;
 import com.oshapp.backend.dto.MandatoryVisitRequestDTO;
 import com.oshapp.backend.dto.MedicalCertificateDTO;
 import com.oshapp.backend.dto.UploadedMedicalCertificateDTO;
 import com.oshapp.backend.dto.WorkAccidentDTO;
+import com.oshapp.backend.service.DepartmentReportService;
 import com.oshapp.backend.service.HrService;
 import com.oshapp.backend.model.MedicalCertificate;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,7 @@ import java.util.List;
 public class HrController {
 
     private final HrService hrService;
+    private final DepartmentReportService departmentReportService;
 
     @GetMapping("/medical-certificates")
     public ResponseEntity<List<MedicalCertificateDTO>> getMedicalCertificates() {
@@ -40,6 +43,12 @@ public class HrController {
         return ResponseEntity.ok(hrService.getAllWorkAccidents());
     }
 
+    @GetMapping("/reports/departments")
+    public ResponseEntity<DepartmentReportDTO> getDepartmentReport(
+            @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
+        return ResponseEntity.ok(departmentReportService.getReport(refresh));
+    }
+
     @PostMapping("/mandatory-visits")
     public ResponseEntity<Void> requestMandatoryVisits(@RequestBody MandatoryVisitRequestDTO request) {
                 List<Long> employeeIdsAsLong = request.getEmployeeIds().stream().map(Integer::longValue).toList();
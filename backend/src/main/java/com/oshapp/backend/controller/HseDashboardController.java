@@ -1,7 +1,9 @@
 package com.oshapp.backend.controller;
 
 import com.oshapp.backend.dto.HseDashboardDTO;
+import com.oshapp.backend.dto.HseKpiDTO;
 import com.oshapp.backend.service.HseDashboardService;
+import com.oshapp.backend.service.HseKpiService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,10 +18,16 @@ import org.springframework.web.bind.annotation.RestController;
 public class HseDashboardController {
 
     private final HseDashboardService hseDashboardService;
+    private final HseKpiService hseKpiService;
 
     @GetMapping
     public ResponseEntity<HseDashboardDTO> getDashboardData() {
         HseDashboardDTO dto = hseDashboardService.getDashboardData();
         return ResponseEntity.ok(dto);
     }
+
+    @GetMapping("/kpis")
+    public ResponseEntity<HseKpiDTO> getKpis() {
+        return ResponseEntity.ok(hseKpiService.getKpis());
+    }
 }
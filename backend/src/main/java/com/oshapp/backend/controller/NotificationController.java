@@ -7,6 +7,7 @@ import com.oshapp.backend.service.NotificationService;
 import com.oshapp.backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -67,6 +68,28 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    @PatchMapping("/broadcasts/{id}/read")
+    @Operation(summary = "Mark broadcast as read", description = "Mark a role broadcast notification as read for current user")
+    public ResponseEntity<Void> markBroadcastAsRead(
+            @PathVariable Long id,
+            Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + authentication.getName()));
+        notificationService.markBroadcastAsRead(id, currentUser);
+        return ResponseEntity.ok().build();
+    }
+
+    @PatchMapping("/read")
+    @Operation(summary = "Mark notifications as read", description = "Mark a list of the current user's notifications as read")
+    public ResponseEntity<Integer> markAsRead(
+            @Valid @RequestBody NotificationIdsRequestDTO request,
+            Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + authentication.getName()));
+        int updated = notificationService.markAsRead(request.getIds(), request.getBroadcastIds(), currentUser);
+        return ResponseEntity.ok(updated);
+    }
+
     @PatchMapping("/read-all")
     @Operation(summary = "Mark all notifications as read", description = "Mark all notifications as read for current user")
     public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
@@ -76,6 +99,17 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    @DeleteMapping
+    @Operation(summary = "Delete notifications", description = "Delete a list of the current user's notifications")
+    public ResponseEntity<Integer> deleteNotifications(
+            @Valid @RequestBody NotificationIdsRequestDTO request,
+            Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + authentication.getName()));
+        int deleted = notificationService.deleteNotifications(request.getIds(), request.getBroadcastIds(), currentUser);
+        return ResponseEntity.ok(deleted);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete notification", description = "Delete a specific notification")
     public ResponseEntity<Void> deleteNotification(
@@ -87,6 +121,17 @@ public class NotificationController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping("/broadcasts/{id}")
+    @Operation(summary = "Dismiss broadcast", description = "Hide a role broadcast notification for current user")
+    public ResponseEntity<Void> dismissBroadcast(
+            @PathVariable Long id,
+            Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + authentication.getName()));
+        notificationService.dismissBroadcast(id, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/reset-all")
     @Operation(summary = "Reset all notifications", description = "Delete all notifications for testing purposes.")
     public ResponseEntity<Void> resetAllNotifications() {
@@ -0,0 +1,38 @@
+package com.oshapp.backend.controller;
+
+import com.oshapp.backend.config.SmsProperties;
+import com.oshapp.backend.dto.SmsDeliveryReportDTO;
+import com.oshapp.backend.service.SmsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@RestController
+@RequestMapping("/api/v1/sms")
+@RequiredArgsConstructor
+@Tag(name = "SMS", description = "SMS gateway delivery reports")
+public class SmsController {
+
+    private final SmsService smsService;
+    private final SmsProperties properties;
+
+    @PostMapping("/callback")
+    @Operation(summary = "SMS delivery report", description = "Delivery status pushed by the SMS gateway (X-Sms-Callback-Token required)")
+    public ResponseEntity<Void> deliveryReport(
+            @RequestHeader(value = "X-Sms-Callback-Token", required = false) String token,
+            @RequestBody SmsDeliveryReportDTO report) {
+        String expected = properties.getCallbackToken();
+        if (expected == null || expected.isBlank() || token == null
+                || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        smsService.handleDeliveryReport(report);
+        return ResponseEntity.noContent().build();
+    }
+}
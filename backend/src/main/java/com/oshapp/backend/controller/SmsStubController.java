@@ -0,0 +1,95 @@
+package com.oshapp.backend.controller;
+
+import com.oshapp.backend.config.SmsProperties;
+import com.oshapp.backend.dto.SmsDeliveryReportDTO;
+import com.oshapp.backend.dto.SmsGatewayRequestDTO;
+import com.oshapp.backend.dto.SmsGatewayResponseDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Passerelle SMS locale (app.sms.stub.enabled=true) pour les tests : accepte les lots de {@link
+ * com.oshapp.backend.service.sms.HttpSmsGateway}, garde les derniers messages en mémoire et renvoie
+ * un accusé DELIVERED sur l'URL de callback configurée (app.sms.callback-url, jamais celle de la requête).
+ * Réservée aux administrateurs : app.sms.http.api-key doit alors contenir le jeton d'un compte ADMIN.
+ * Les numéros commençant par "+000" sont refusés définitivement.
+ */
+@RestController
+@RequestMapping("/api/v1/sms-stub")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.sms.stub.enabled", havingValue = "true")
+@Tag(name = "SMS stub", description = "Local stand-in SMS gateway for tests")
+public class SmsStubController {
+
+    private final SmsProperties properties;
+
+    private final ConcurrentLinkedDeque<SmsGatewayRequestDTO.Message> received = new ConcurrentLinkedDeque<>();
+
+    @PostMapping("/messages")
+    @Operation(summary = "Submit SMS batch", description = "Accepts a batch like a real HTTP SMS gateway")
+    public ResponseEntity<SmsGatewayResponseDTO> submit(@RequestBody SmsGatewayRequestDTO request) {
+        SmsGatewayResponseDTO response = new SmsGatewayResponseDTO();
+        List<SmsDeliveryReportDTO> reports = new ArrayList<>();
+        for (SmsGatewayRequestDTO.Message message : request.getMessages()) {
+            if (message.getTo() == null || message.getTo().startsWith("+000")) {
+                response.getResults().add(new SmsGatewayResponseDTO.Result(message.getReference(), null, false, "Invalid number", true));
+                continue;
+            }
+            String messageId = "stub-" + UUID.randomUUID();
+            received.addLast(message);
+            response.getResults().add(new SmsGatewayResponseDTO.Result(message.getReference(), messageId, true, null, false));
+            reports.add(new SmsDeliveryReportDTO(messageId, "DELIVERED", null));
+        }
+        while (received.size() > Math.max(1, properties.getStub().getMaxStoredMessages())) {
+            received.pollFirst();
+        }
+        // Le jeton de callback n'est envoyé qu'à l'URL configurée, pas à celle fournie par l'appelant
+        String callbackUrl = properties.getCallbackUrl();
+        if (callbackUrl != null && !callbackUrl.isBlank() && !reports.isEmpty()) {
+            // Accusés envoyés après la réponse, comme une vraie passerelle
+            CompletableFuture.runAsync(() -> sendReports(callbackUrl, reports));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/messages")
+    @Operation(summary = "List received SMS", description = "Messages accepted by the stub, oldest first")
+    public ResponseEntity<List<SmsGatewayRequestDTO.Message>> list() {
+        return ResponseEntity.ok(new ArrayList<>(received));
+    }
+
+    @DeleteMapping("/messages")
+    @Operation(summary = "Clear received SMS")
+    public ResponseEntity<Void> clear() {
+        received.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private void sendReports(String callbackUrl, List<SmsDeliveryReportDTO> reports) {
+        RestClient client = RestClient.create();
+        for (SmsDeliveryReportDTO report : reports) {
+            try {
+                client.post().uri(callbackUrl)
+                        .header("X-Sms-Callback-Token", properties.getCallbackToken())
+                        .body(report)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                log.warn("SMS stub callback to {} failed: {}", callbackUrl, e.getMessage());
+            }
+        }
+    }
+}
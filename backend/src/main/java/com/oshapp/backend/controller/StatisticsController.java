@@ -1,16 +1,24 @@
 package com.oshapp.backend.controller;
 
+import com.oshapp.backend.dto.StatisticsTimeSeriesDTO;
+import com.oshapp.backend.dto.enums.TimeSeriesGranularity;
+import com.oshapp.backend.model.enums.AppointmentType;
 import com.oshapp.backend.service.StatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.oshapp.backend.dto.ActivityDTO;
 import com.oshapp.backend.dto.AlertDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +26,8 @@ import java.util.Map;
 @RequestMapping("/api/v1/statistics")
 public class StatisticsController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private StatisticsService statisticsService;
 
@@ -48,4 +58,34 @@ public class StatisticsController {
         List<ActivityDTO> activities = statisticsService.getRhDashboardActivities();
         return ResponseEntity.ok(activities);
     }
+
+    // Certificats expirant dans les 30 prochains jours, paginés ; tri fixe (expiration la plus proche),
+    // un tri demandé par le client est ignoré
+    @GetMapping("/rh/expiring-certificates")
+    @PreAuthorize("hasRole('ROLE_RH')")
+    public ResponseEntity<Page<AlertDTO>> getExpiringCertificates(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(statisticsService.getExpiringCertificateAlerts(
+                PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE))));
+    }
+
+    // Séries servies depuis les agrégats journaliers ; granularity : day, week, month (défaut) ou quarter
+    @GetMapping("/timeseries")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RH', 'HSE')")
+    public ResponseEntity<StatisticsTimeSeriesDTO> getTimeSeries(
+            @RequestParam(value = "granularity", defaultValue = "month") String granularity,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "department", required = false) String department,
+            @RequestParam(value = "type", required = false) AppointmentType type,
+            @RequestParam(value = "practitionerId", required = false) Long practitionerId) {
+        TimeSeriesGranularity unit;
+        try {
+            unit = TimeSeriesGranularity.valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularité invalide : " + granularity);
+        }
+        return ResponseEntity.ok(statisticsService.getTimeSeries(unit, from, to, department, type, practitionerId));
+    }
 }
@@ -1,11 +1,17 @@
 package com.oshapp.backend.controller;
 
+import com.oshapp.backend.dto.EmailDigestPreferenceDTO;
 import com.oshapp.backend.dto.UserResponseDTO;
+import com.oshapp.backend.exception.ResourceNotFoundException;
+import com.oshapp.backend.model.User;
 import com.oshapp.backend.service.UserService;
+import com.oshapp.backend.service.mail.EmailDigestBuffer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import com.oshapp.backend.security.UserPrincipal;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final UserService userService;
+    private final EmailDigestBuffer emailDigestBuffer;
 
     @GetMapping("/me")
     public ResponseEntity<UserResponseDTO> getMyProfile(Authentication authentication) {
@@ -26,4 +33,22 @@ public class UserController {
         UserResponseDTO userResponseDTO = userService.createDtoFromPrincipal(userPrincipal);
         return ResponseEntity.ok(userResponseDTO);
     }
+
+    @GetMapping("/me/email-digest")
+    public ResponseEntity<EmailDigestPreferenceDTO> getEmailDigestPreference(Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + authentication.getName()));
+        return ResponseEntity.ok(new EmailDigestPreferenceDTO(currentUser.getEmailDigest(), emailDigestBuffer.isDigestRecipient(currentUser)));
+    }
+
+    @PutMapping("/me/email-digest")
+    public ResponseEntity<EmailDigestPreferenceDTO> updateEmailDigestPreference(
+            @RequestBody EmailDigestPreferenceDTO request,
+            Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + authentication.getName()));
+        currentUser.setEmailDigest(request.getEnabled());
+        User saved = userService.save(currentUser);
+        return ResponseEntity.ok(new EmailDigestPreferenceDTO(saved.getEmailDigest(), emailDigestBuffer.isDigestRecipient(saved)));
+    }
 }
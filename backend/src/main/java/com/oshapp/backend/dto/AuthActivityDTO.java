@@ -0,0 +1,35 @@
+package com.oshapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class AuthActivityDTO {
+    // Fenêtres glissantes en mémoire de l'instance, depuis trackingSince
+    private LocalDateTime trackingSince;
+    private long successesLastMinute;
+    private long successesLastHour;
+    private long successesLastDay;
+    private long failuresLastMinute;
+    private long failuresLastHour;
+    private long failuresLastDay;
+    private long uniqueUsersLastHour; // Estimation (≈ 6,5 % d'erreur)
+    private long uniqueUsersLastDay;
+    // Historique horaire persisté (minutes déjà versées en base)
+    private List<HourlyPoint> hourly = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourlyPoint {
+        private LocalDateTime hourStart;
+        private long successes;
+        private long failures;
+        private long uniqueUsers;
+    }
+}
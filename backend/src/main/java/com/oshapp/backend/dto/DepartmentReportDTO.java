@@ -0,0 +1,31 @@
+package com.oshapp.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class DepartmentReportDTO {
+    private LocalDateTime generatedAt;      // Dernier recalcul complet
+    private int periodMonths;               // Fenêtre des visites, taux et délais
+    private int certificateWindowDays;      // Fenêtre des certificats arrivant à expiration
+    private List<DepartmentStats> departments = new ArrayList<>();
+
+    @Data
+    public static class DepartmentStats {
+        private String department;          // null : employés sans département
+        private long headcount;
+        private long employeesDueForPeriodicVisit; // Aucune visite périodique réalisée sur la période
+        private long appointments;
+        private long completedAppointments;
+        private long cancelledAppointments;
+        private Double completionRate;      // Réalisés / rendez-vous de la période (null sans rendez-vous)
+        private Double averageConfirmationHours; // Demande -> première confirmation (null sans mesure)
+        private long confirmationsMeasured;
+        private long openAccidents;
+        private long expiringCertificates;
+        private LocalDateTime refreshedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.oshapp.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class EmailDeadLetterDTO {
+    private Long id;
+    private String toEmail;
+    // 1 pour un envoi unitaire, nombre de destinataires en copie cachée pour un envoi groupé
+    private int recipientCount;
+    private String subject;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,15 @@
+package com.oshapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDigestPreferenceDTO {
+    // null = revenir à la valeur par défaut du rôle
+    private Boolean enabled;
+    // Valeur effectivement appliquée (préférence ou défaut du rôle)
+    private boolean effective;
+}
@@ -0,0 +1,29 @@
+package com.oshapp.backend.dto;
+
+import com.oshapp.backend.model.enums.EmailPriority;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+public class EmailQueueStatsDTO {
+    private long pending;
+    private Map<EmailPriority, Long> pendingByPriority = new EnumMap<>(EmailPriority.class);
+    private long processing;
+    private long deadLetters;
+    private LocalDateTime oldestPendingCreatedAt;
+    private long oldestPendingAgeSeconds;
+    // Débit et erreurs depuis le démarrage de l'application
+    private long sentLastMinute;
+    private long sentSinceStartup;
+    private long retriesSinceStartup;
+    private long deadLetteredSinceStartup;
+    private int workers;
+    private int inFlight;
+    // Limiteur de débit du relais SMTP
+    private String rateLimitProvider;
+    private long rateLimitMinuteTokens;
+    private long rateLimitDayTokens;
+}
@@ -13,4 +13,5 @@ public class HseDashboardDTO {
     private HseStatsDTO stats;
     private List<AlertDTO> alerts;
     private List<ActivityDTO> activities;
+    private HseKpiDTO kpis; // Taux de fréquence / gravité, servis depuis l'instantané du moteur KPI
 }
@@ -0,0 +1,50 @@
+package com.oshapp.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Taux de fréquence (accidents x 1 000 000 / heures travaillées) et de gravité
+ * (jours d'arrêt x 1 000 / heures travaillées) ; null lorsque les heures travaillées sont inconnues.
+ * Jours d'arrêt et taux de gravité sont null lorsqu'aucun accident de la période n'a de jours d'arrêt renseignés
+ * ou tant que app.hse.kpi.severity-rate-enabled est désactivé.
+ */
+@Data
+public class HseKpiDTO {
+    private LocalDateTime computedAt;
+    private LocalDate periodStart;          // Cumul glissant sur 12 mois : [periodStart, periodEnd]
+    private LocalDate periodEnd;
+    private Rates company;
+    private long openAccidents;
+    private List<MonthPoint> trend = new ArrayList<>();
+    private List<DepartmentRates> departments = new ArrayList<>();
+
+    @Data
+    public static class Rates {
+        private long accidents;
+        private long severeAccidents;
+        private Long lostWorkDays;
+        private double hoursWorked;
+        private Double frequencyRate;
+        private Double severityRate;
+    }
+
+    @Data
+    public static class MonthPoint {
+        private LocalDate month;
+        private Rates monthly;
+        private Rates rolling12Months;
+    }
+
+    @Data
+    public static class DepartmentRates {
+        private String department;          // null : employés sans département
+        private long headcount;
+        private long openAccidents;
+        private Rates rolling12Months;
+    }
+}
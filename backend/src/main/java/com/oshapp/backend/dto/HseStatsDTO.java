@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,4 +14,5 @@ public class HseStatsDTO {
     private long totalAccidents;
     private long riskAnalyses;    // Using INVESTIGATING accidents as proxy for analyses in progress
     private long completedTasks;  // Using CLOSED accidents as proxy for completed tasks
+    private Map<String, Long> recentSeverityCounts; // Accidents of the last 30 days by severity
 }
@@ -0,0 +1,25 @@
+package com.oshapp.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class NotificationIdsRequestDTO {
+
+    @Size(max = 1000, message = "At most 1000 notification ids per request")
+    private List<Long> ids;
+
+    // Ids des diffusions par rôle (NotificationResponseDTO.broadcast = true)
+    @Size(max = 1000, message = "At most 1000 broadcast ids per request")
+    private List<Long> broadcastIds;
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one notification id is required")
+    public boolean isAnyId() {
+        return (ids != null && !ids.isEmpty()) || (broadcastIds != null && !broadcastIds.isEmpty());
+    }
+}
@@ -26,6 +26,8 @@ public class NotificationResponseDTO {
     
     private LocalDateTime createdAt;
 
+    private boolean broadcast;
+
     // Méthodes getter/setter explicites pour résoudre les erreurs de compilation
     public Long getId() {
         return id;
@@ -98,4 +100,12 @@ public class NotificationResponseDTO {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+
+    public boolean isBroadcast() {
+        return broadcast;
+    }
+
+    public void setBroadcast(boolean broadcast) {
+        this.broadcast = broadcast;
+    }
+}
@@ -0,0 +1,21 @@
+package com.oshapp.backend.dto;
+
+import com.oshapp.backend.model.enums.NotificationType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+public class NotificationRetentionReportDTO {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long durationMs;
+    private long totalDeleted;
+    private int batches;
+    private Map<NotificationType, Long> deletedByType = new EnumMap<>(NotificationType.class);
+    // Cumul depuis le démarrage de l'application
+    private long totalDeletedSinceStartup;
+    private int runsSinceStartup;
+}
@@ -0,0 +1,16 @@
+package com.oshapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Accusé de réception envoyé par la passerelle sur /api/v1/sms/callback
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsDeliveryReportDTO {
+    private String messageId;
+    // DELIVERED ou FAILED
+    private String status;
+    private String error;
+}
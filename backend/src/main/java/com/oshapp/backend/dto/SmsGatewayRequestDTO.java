@@ -0,0 +1,24 @@
+package com.oshapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Lot soumis à la passerelle SMS HTTP (et à la passerelle locale /api/v1/sms-stub)
+@Data
+public class SmsGatewayRequestDTO {
+    private String callbackUrl;
+    private List<Message> messages = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Message {
+        private String reference;
+        private String to;
+        private String text;
+    }
+}
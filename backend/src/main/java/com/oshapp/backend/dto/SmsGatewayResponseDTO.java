@@ -0,0 +1,25 @@
+package com.oshapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SmsGatewayResponseDTO {
+    private List<Result> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String reference;
+        private String messageId;
+        private boolean accepted;
+        private String error;
+        // Refus définitif (numéro invalide) : pas de nouvelle tentative
+        private boolean permanent;
+    }
+}
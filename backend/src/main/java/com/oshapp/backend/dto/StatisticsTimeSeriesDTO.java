@@ -0,0 +1,35 @@
+package com.oshapp.backend.dto;
+
+import com.oshapp.backend.dto.enums.TimeSeriesGranularity;
+import com.oshapp.backend.model.enums.AppointmentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StatisticsTimeSeriesDTO {
+    private TimeSeriesGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    // Filtres appliqués (null : tous)
+    private String department;
+    private AppointmentType appointmentType;
+    private Long practitionerId;
+    // Une période par unité sur [from, to], périodes vides incluses
+    private List<Point> points = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private LocalDate periodStart;
+        private long appointments;
+        private long cancellations;
+        private long completions;
+        private long accidents; // Filtré par département uniquement (ni type ni praticien pour un accident)
+    }
+}
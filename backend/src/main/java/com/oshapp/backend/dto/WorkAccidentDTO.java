@@ -13,6 +13,7 @@ public class WorkAccidentDTO {
     private String description;
     private String severity;
     private String status;
+    private Integer lostWorkDays;
     private String reportFilePath;
 
     public WorkAccidentDTO(WorkAccident accident) {
@@ -22,6 +23,7 @@ public class WorkAccidentDTO {
         this.description = accident.getDescription();
         this.severity = accident.getSeverity() != null ? accident.getSeverity().name() : null;
         this.status = accident.getStatus() != null ? accident.getStatus().name() : null;
+        this.lostWorkDays = accident.getLostWorkDays();
         this.reportFilePath = accident.getReportFilePath();
     }
 }
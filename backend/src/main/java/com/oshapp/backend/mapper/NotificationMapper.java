@@ -20,11 +20,14 @@ import org.mapstruct.Mapper;
         comments = "version: 1.4.2.Final, compiler: javac, environment: Java 11.0.15 (Oracle Corporation)"
 )
 public interface NotificationMapper {
+    @Mapping(target = "broadcast", ignore = true)
     NotificationResponseDTO toDto(Notification notification);
 
     @Mapping(target = "type", ignore = true)
     @Mapping(target = "relatedEntityType", ignore = true)
     @Mapping(target = "relatedEntityId", ignore = true)
     @Mapping(target = "user", ignore = true)
+    @Mapping(target = "templateKey", ignore = true)
+    @Mapping(target = "params", ignore = true)
     Notification toEntity(NotificationResponseDTO notificationDTO);
 }
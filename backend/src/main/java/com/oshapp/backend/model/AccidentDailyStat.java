@@ -0,0 +1,35 @@
+package com.oshapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Agrégat journalier des accidents du travail par (date de l'accident, département de l'employé).
+ * Département absent : ''.
+ */
+@Entity
+@Table(name = "accident_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_accident_daily_stats_bucket",
+                columnNames = {"stat_date", "department"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccidentDailyStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private String department;
+
+    @Column(name = "accident_count", nullable = false)
+    private long accidentCount;
+}
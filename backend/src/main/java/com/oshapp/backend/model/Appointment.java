@@ -1,9 +1,13 @@
 package com.oshapp.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.oshapp.backend.model.enums.AppointmentStatus;
 import com.oshapp.backend.model.enums.AppointmentType;
 import com.oshapp.backend.model.enums.Priority;
 import com.oshapp.backend.model.enums.VisitMode;
+import com.oshapp.backend.model.listener.DashboardChangeListener;
+import com.oshapp.backend.model.listener.AppointmentRollupListener;
+import com.oshapp.backend.model.listener.AppointmentStatKey;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,11 +29,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "appointments")
+@EntityListeners({DashboardChangeListener.class, AppointmentRollupListener.class})
+@Table(name = "appointments",
+        indexes = @Index(name = "idx_appointments_employee_type_status", columnList = "employee_id, type, status"))
 @Getter
 @Setter
-@ToString(exclude = {"employee", "nurse", "doctor", "comments", "createdBy", "updatedBy"})
-@EqualsAndHashCode(exclude = {"employee", "nurse", "doctor", "comments", "createdBy", "updatedBy"})
+@ToString(exclude = {"employee", "nurse", "doctor", "comments", "createdBy", "updatedBy", "rollupSnapshot"})
+@EqualsAndHashCode(exclude = {"employee", "nurse", "doctor", "comments", "createdBy", "updatedBy", "rollupSnapshot"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -120,6 +126,9 @@ public class Appointment {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Première confirmation (délai demande -> confirmation des rapports par département)
+    private LocalDateTime confirmedAt;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "appointment_notification_channels", joinColumns = @JoinColumn(name = "appointment_id"))
     @Column(name = "channel")
@@ -130,6 +139,24 @@ public class Appointment {
     @Column(name = "proposed_date_slot")
     private List<LocalDateTime> proposedDateSlots;
 
+    // Département sous lequel le rendez-vous est compté dans appointment_daily_stats ; écrit uniquement par l'agrégation
+    @Column(name = "stat_department", insertable = false, updatable = false)
+    @JsonIgnore
+    private String statDepartment;
+
+    // Case d'agrégat statistique telle que chargée ou dernièrement écrite (voir AppointmentRollupListener)
+    @Transient
+    @JsonIgnore
+    private AppointmentStatKey rollupSnapshot;
+
+    @PrePersist
+    @PreUpdate
+    void markConfirmation() {
+        if (status == AppointmentStatus.CONFIRMED && confirmedAt == null) {
+            confirmedAt = LocalDateTime.now();
+        }
+    }
+
     // Ensure comments is never null at access time
     public List<AppointmentComment> getComments() {
         if (this.comments == null) {
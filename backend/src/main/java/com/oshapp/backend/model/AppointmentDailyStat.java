@@ -0,0 +1,60 @@
+package com.oshapp.backend.model;
+
+import com.oshapp.backend.model.enums.AppointmentStatus;
+import com.oshapp.backend.model.enums.AppointmentType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Agrégat journalier des rendez-vous par (date, type, statut, département, praticien, mode de visite, planifié).
+ * Date : jour de la visite planifiée, sinon jour de création. Praticien : médecin, sinon infirmier.
+ * Département et mode absents valent '', praticien absent vaut 0
+ * (les NULL ne participent pas à la contrainte d'unicité utilisée par les mises à jour incrémentales).
+ */
+@Entity
+@Table(name = "appointment_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_daily_stats_bucket",
+                columnNames = {"stat_date", "type", "status", "department", "practitioner_id", "visit_mode", "scheduled"}),
+        indexes = {
+                @Index(name = "idx_appointment_daily_stats_status", columnList = "status, type"),
+                @Index(name = "idx_appointment_daily_stats_date", columnList = "stat_date")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppointmentDailyStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private AppointmentType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private AppointmentStatus status;
+
+    @Column(nullable = false)
+    private String department;
+
+    @Column(name = "practitioner_id", nullable = false)
+    private long practitionerId;
+
+    @Column(name = "visit_mode", nullable = false, length = 20)
+    private String visitMode;
+
+    @Column(nullable = false)
+    private boolean scheduled;
+
+    @Column(name = "appointment_count", nullable = false)
+    private long appointmentCount;
+}
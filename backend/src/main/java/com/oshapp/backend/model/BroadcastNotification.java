@@ -0,0 +1,47 @@
+package com.oshapp.backend.model;
+
+import com.oshapp.backend.model.enums.NotificationType;
+import com.oshapp.backend.model.enums.RoleName;
+import com.oshapp.backend.model.listener.DashboardChangeListener;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification destinée à tous les membres d'un rôle, stockée une seule fois.
+ * Les lectures et suppressions par utilisateur sont portées par {@link BroadcastNotificationReceipt}.
+ */
+@Entity
+@EntityListeners(DashboardChangeListener.class)
+@Table(name = "broadcast_notifications", indexes = {
+        @Index(name = "idx_broadcast_role_created", columnList = "target_role, created_at"),
+        @Index(name = "idx_broadcast_role_entity", columnList = "target_role, related_entity_type, related_entity_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BroadcastNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_role", nullable = false, length = 60)
+    private RoleName targetRole;
+
+    private String title;
+    private String message;
+    private LocalDateTime createdAt;
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+    private String relatedEntityType;
+    private Long relatedEntityId;
+    private String actionUrl;
+    // Clé du catalogue de messages et paramètres JSON : titre, message et lien rendus à la lecture (NULL = texte libre)
+    @Column(name = "template_key", length = 64)
+    private String templateKey;
+    @Column(length = 1000)
+    private String params;
+}
@@ -0,0 +1,34 @@
+package com.oshapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marqueur de lecture / suppression d'une notification diffusée, écrit uniquement
+ * lorsque l'utilisateur agit dessus.
+ */
+@Entity
+@Table(name = "broadcast_notification_receipts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_broadcast_receipt_user", columnNames = {"broadcast_id", "user_id"}),
+        indexes = @Index(name = "idx_broadcast_receipt_user", columnList = "user_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BroadcastNotificationReceipt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "broadcast_id", nullable = false)
+    private Long broadcastId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private LocalDateTime readAt;
+
+    private boolean dismissed;
+}
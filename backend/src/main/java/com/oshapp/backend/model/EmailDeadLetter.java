@@ -0,0 +1,55 @@
+package com.oshapp.backend.model;
+
+import com.oshapp.backend.model.enums.EmailPriority;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email définitivement en échec, conservé pour diagnostic et renvoi manuel.
+ */
+@Entity
+@Table(name = "email_dead_letters", indexes = {
+        @Index(name = "idx_email_dead_letter_failed", columnList = "failed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    // Envoi groupé : destinataires en copie cachée séparés par des virgules (toEmail n'est alors qu'un libellé)
+    @Column(name = "bcc_emails", columnDefinition = "TEXT")
+    private String bccEmails;
+
+    @Column(length = 998)
+    private String subject;
+
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @Column(name = "inline_logo", nullable = false)
+    private boolean inlineLogo;
+
+    @Enumerated(EnumType.ORDINAL)
+    private EmailPriority priority;
+
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Date de mise en file de l'email d'origine
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
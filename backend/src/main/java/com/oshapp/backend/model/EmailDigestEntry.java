@@ -0,0 +1,51 @@
+package com.oshapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement en attente d'un récapitulatif email. Les lignes sont supprimées
+ * dans la transaction qui place le récapitulatif dans la file d'envoi.
+ */
+@Entity
+@Table(name = "email_digest_entries", indexes = {
+        @Index(name = "idx_email_digest_entries_to_created", columnList = "to_email, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailDigestEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    @Column(name = "recipient_name")
+    private String recipientName;
+
+    @Column(length = 998)
+    private String subject;
+
+    @Column(name = "status_label")
+    private String statusLabel;
+
+    @Column(name = "when_label")
+    private String whenLabel;
+
+    @Column(name = "action_url", length = 1000)
+    private String actionUrl;
+
+    @Column(name = "action_label")
+    private String actionLabel;
+
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,72 @@
+package com.oshapp.backend.model;
+
+import com.oshapp.backend.model.enums.EmailOutboxStatus;
+import com.oshapp.backend.model.enums.EmailPriority;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email rendu en attente d'envoi. La ligne est supprimée après un envoi réussi,
+ * ou déplacée vers {@link EmailDeadLetter} après épuisement des tentatives.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next", columnList = "status, priority, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    // Envoi groupé : destinataires en copie cachée séparés par des virgules (toEmail n'est alors qu'un libellé)
+    @Column(name = "bcc_emails", columnDefinition = "TEXT")
+    private String bccEmails;
+
+    // Nombre d'adresses servies par ce message : jetons consommés auprès du limiteur
+    @Builder.Default
+    @Column(name = "recipient_count", nullable = false, columnDefinition = "integer not null default 1")
+    private int recipientCount = 1;
+
+    @Column(length = 998)
+    private String subject;
+
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+
+    // Logo de l'en-tête joint en pièce inline (cid:logo)
+    @Column(name = "inline_logo", nullable = false)
+    private boolean inlineLogo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status;
+
+    // Ordinal : 0 = CRITICAL, servi en premier
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false, columnDefinition = "integer not null default 1")
+    private EmailPriority priority;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,11 +1,15 @@
 package com.oshapp.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.oshapp.backend.model.listener.EmployeeChangeListener;
+import com.oshapp.backend.model.listener.EmployeeSnapshot;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
@@ -14,6 +18,7 @@ import org.hibernate.annotations.NotFound;
 import org.hibernate.annotations.NotFoundAction;
 
 @Entity
+@EntityListeners(EmployeeChangeListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -68,6 +73,12 @@ public class Employee {
 
     private boolean profileCompleted;
 
+    // Rattachement tel que chargé ou dernièrement écrit (voir EmployeeChangeListener)
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private EmployeeSnapshot changeSnapshot;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
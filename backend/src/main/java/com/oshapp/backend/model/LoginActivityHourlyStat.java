@@ -0,0 +1,37 @@
+package com.oshapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Connexions agrégées par heure, alimentées périodiquement par LoginActivityTracker
+ * (utilisateurs distincts : estimation probabiliste).
+ */
+@Entity
+@Table(name = "login_activity_hourly_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_login_activity_hour", columnNames = "hour_start"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class LoginActivityHourlyStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(nullable = false)
+    private long successes;
+
+    @Column(nullable = false)
+    private long failures;
+
+    @Column(name = "unique_users", nullable = false)
+    private long uniqueUsers;
+}
@@ -9,7 +9,8 @@ import lombok.Setter;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "medical_certificates")
+@Table(name = "medical_certificates",
+        indexes = @Index(name = "idx_medical_certificates_expiration", columnList = "expiration_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,10 +1,20 @@
 package com.oshapp.backend.model;
 
 import com.oshapp.backend.model.enums.*;
+import com.oshapp.backend.model.listener.DashboardChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(DashboardChangeListener.class)
+@Table(indexes = {
+        // Listing / comptage par utilisateur et purge des notifications lues
+        @Index(name = "idx_notification_user_read_created", columnList = "user_id, read, created_at"),
+        // Parcours de rétention par type, indépendamment de l'utilisateur
+        @Index(name = "idx_notification_type_read_created", columnList = "type, read, created_at"),
+        // Masquage des diffusions remplacées par une notification personnelle plus récente
+        @Index(name = "idx_notification_user_entity", columnList = "user_id, related_entity_type, related_entity_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +33,11 @@ public class Notification {
     private String relatedEntityType;
     private Long relatedEntityId;
     private String actionUrl;
+    // Clé du catalogue de messages et paramètres JSON : titre, message et lien rendus à la lecture (NULL = texte libre)
+    @Column(name = "template_key", length = 64)
+    private String templateKey;
+    @Column(length = 1000)
+    private String params;
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
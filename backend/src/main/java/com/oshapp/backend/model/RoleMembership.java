@@ -0,0 +1,38 @@
+package com.oshapp.backend.model;
+
+import com.oshapp.backend.model.enums.RoleName;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Période d'appartenance d'un utilisateur à un rôle, tenue par les triggers de user_roles
+ * (voir add_role_memberships.sql). Une diffusion n'est visible que pour les membres du rôle à sa date de création.
+ */
+@Entity
+@Table(name = "role_memberships",
+        indexes = @Index(name = "idx_role_membership_user_role", columnList = "user_id, role_name"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoleMembership {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role_name", nullable = false, length = 60)
+    private RoleName roleName;
+
+    @Column(name = "granted_at", nullable = false)
+    private LocalDateTime grantedAt;
+
+    // Nulle tant que l'utilisateur possède le rôle
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,67 @@
+package com.oshapp.backend.model;
+
+import com.oshapp.backend.model.enums.SmsStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * SMS en file d'envoi. La ligne est conservée après soumission pour rattacher l'accusé de réception
+ * de la passerelle (providerMessageId), puis purgée après app.sms.retention-days.
+ */
+@Entity
+@Table(name = "sms_outbox", indexes = {
+        @Index(name = "idx_sms_outbox_status_next", columnList = "status, urgent, next_attempt_at"),
+        @Index(name = "idx_sms_outbox_provider_id", columnList = "provider_message_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SmsOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "phone_number", nullable = false, length = 32)
+    private String phoneNumber;
+
+    @Column(nullable = false, length = 1000)
+    private String text;
+
+    // Visites urgentes : servies avant les autres SMS
+    @Column(nullable = false)
+    private boolean urgent;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SmsStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(length = 50)
+    private String gateway;
+
+    @Column(name = "provider_message_id", length = 100)
+    private String providerMessageId;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -81,6 +81,10 @@ public class User implements UserDetails {
     @Column
     private String phoneNumber;
 
+    // Préférence de récapitulatif email : null = valeur par défaut du rôle
+    @Column(name = "email_digest")
+    private Boolean emailDigest;
+
     public String getFullName() {
         return firstName + " " + lastName;
     }
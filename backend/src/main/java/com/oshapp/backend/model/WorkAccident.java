@@ -1,15 +1,21 @@
 package com.oshapp.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.oshapp.backend.model.listener.DashboardChangeListener;
+import com.oshapp.backend.model.listener.AccidentRollupListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "work_accidents")
+@EntityListeners({DashboardChangeListener.class, AccidentRollupListener.class})
+@Table(name = "work_accidents",
+        indexes = @Index(name = "idx_work_accidents_accident_date", columnList = "accident_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,9 +44,18 @@ public class WorkAccident {
     @Column
     private AccidentStatus status;
 
+    // Jours d'arrêt de travail (taux de gravité) ; null : non renseigné
+    @Column(name = "lost_work_days")
+    private Integer lostWorkDays;
+
     @Column
     private String reportFilePath; // Path to the accident report in MinIO
 
+    // Jour d'agrégat lu au chargement (voir AccidentRollupListener)
+    @Transient
+    @JsonIgnore
+    private LocalDate rollupDate;
+
     public enum AccidentStatus {
         REPORTED, INVESTIGATING, CLOSED
     }
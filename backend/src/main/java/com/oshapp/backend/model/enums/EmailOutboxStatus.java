@@ -0,0 +1,6 @@
+package com.oshapp.backend.model.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    PROCESSING
+}
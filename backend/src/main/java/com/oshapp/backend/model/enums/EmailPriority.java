@@ -0,0 +1,14 @@
+package com.oshapp.backend.model.enums;
+
+/**
+ * Voies de priorité de la file d'envoi, de la plus prioritaire à la moins prioritaire.
+ * Stockée par ordinal : ne pas réordonner.
+ */
+public enum EmailPriority {
+    // Activation de compte, réinitialisation de mot de passe
+    CRITICAL,
+    // Notifications de rendez-vous unitaires
+    NORMAL,
+    // Campagnes (visites obligatoires, diffusions RH, récapitulatifs)
+    BULK
+}
@@ -0,0 +1,10 @@
+package com.oshapp.backend.model.enums;
+
+public enum SmsStatus {
+    PENDING,
+    PROCESSING,
+    // Accepté par la passerelle, en attente d'accusé de réception
+    SENT,
+    DELIVERED,
+    FAILED
+}
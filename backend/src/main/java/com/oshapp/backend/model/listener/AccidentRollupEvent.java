@@ -0,0 +1,16 @@
+package com.oshapp.backend.model.listener;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Jours d'agrégat des accidents à recalculer après commit (ancienne et nouvelle date de l'accident),
+ * et employé concerné (null si inconnu).
+ */
+@Value
+public class AccidentRollupEvent {
+    Set<LocalDate> dates;
+    Long employeeId;
+}
@@ -0,0 +1,48 @@
+package com.oshapp.backend.model.listener;
+
+import com.oshapp.backend.model.WorkAccident;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Écouteur JPA des accidents : publie les jours (date lue au chargement et date écrite) dont l'agrégat doit être recalculé.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccidentRollupListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    void onLoad(WorkAccident accident) {
+        accident.setRollupDate(day(accident));
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onWrite(WorkAccident accident) {
+        Set<LocalDate> dates = new HashSet<>(2);
+        if (accident.getRollupDate() != null) dates.add(accident.getRollupDate());
+        LocalDate current = day(accident);
+        if (current != null) dates.add(current);
+        accident.setRollupDate(current);
+        if (!dates.isEmpty()) {
+            Long employeeId = accident.getEmployee() != null ? accident.getEmployee().getId() : null;
+            eventPublisher.publishEvent(new AccidentRollupEvent(dates, employeeId));
+        }
+    }
+
+    private static LocalDate day(WorkAccident accident) {
+        return accident.getAccidentDate() != null ? accident.getAccidentDate().toLocalDate() : null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.oshapp.backend.model.listener;
+
+import lombok.Value;
+
+/**
+ * Mouvement d'un rendez-vous entre deux cases d'agrégat (null : création ou suppression), appliqué après commit.
+ */
+@Value
+public class AppointmentRollupEvent {
+    AppointmentStatKey removed;
+    AppointmentStatKey added;
+}
@@ -0,0 +1,48 @@
+package com.oshapp.backend.model.listener;
+
+import com.oshapp.backend.model.Appointment;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Écouteur JPA maintenant les agrégats journaliers : la case lue au chargement est comparée
+ * à celle après écriture, et seul un changement de case publie un {@link AppointmentRollupEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentRollupListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    void onLoad(Appointment appointment) {
+        appointment.setRollupSnapshot(AppointmentStatKey.of(appointment));
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(Appointment appointment) {
+        AppointmentStatKey previous = appointment.getRollupSnapshot();
+        AppointmentStatKey current = AppointmentStatKey.of(appointment);
+        if (AppointmentStatKey.sameBucket(previous, current)) return;
+        // Plusieurs flush dans une même transaction : la case courante devient la référence ;
+        // son département sera celui enregistré lors de l'application du delta
+        appointment.setRollupSnapshot(current != null ? current.withDepartment(null) : null);
+        eventPublisher.publishEvent(new AppointmentRollupEvent(previous, current));
+    }
+
+    @PostRemove
+    void onRemove(Appointment appointment) {
+        AppointmentStatKey previous = appointment.getRollupSnapshot() != null
+                ? appointment.getRollupSnapshot() : AppointmentStatKey.of(appointment);
+        appointment.setRollupSnapshot(null);
+        if (previous != null) {
+            eventPublisher.publishEvent(new AppointmentRollupEvent(previous, null));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.oshapp.backend.model.listener;
+
+import com.oshapp.backend.model.Appointment;
+import com.oshapp.backend.model.enums.AppointmentStatus;
+import com.oshapp.backend.model.enums.AppointmentType;
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Case d'agrégat d'un rendez-vous dans appointment_daily_stats. Le département est celui sous lequel
+ * le rendez-vous a été compté (colonne appointments.stat_department, lue au chargement) ; null tant
+ * qu'il n'a pas encore été compté. Jamais lu depuis le proxy de l'employé en cours de flush.
+ */
+@Value
+public class AppointmentStatKey {
+    LocalDate statDate;
+    AppointmentType type;
+    AppointmentStatus status;
+    long practitionerId;
+    String visitMode;
+    boolean scheduled;
+    Long employeeId;
+    Long appointmentId;
+    @With
+    String department;
+
+    public static AppointmentStatKey of(Appointment appointment) {
+        if (appointment.getType() == null || appointment.getStatus() == null) return null;
+        // Même ordre que la reconstruction SQL : date planifiée, création, demande, sinon aujourd'hui
+        LocalDateTime reference = appointment.getScheduledTime() != null ? appointment.getScheduledTime()
+                : appointment.getCreatedAt() != null ? appointment.getCreatedAt()
+                : appointment.getRequestedDateEmployee();
+        return new AppointmentStatKey(
+                reference != null ? reference.toLocalDate() : LocalDate.now(),
+                appointment.getType(),
+                appointment.getStatus(),
+                practitionerId(appointment),
+                appointment.getVisitMode() != null ? appointment.getVisitMode().name() : "",
+                appointment.getScheduledTime() != null,
+                appointment.getEmployee() != null ? appointment.getEmployee().getId() : null,
+                appointment.getId(),
+                appointment.getStatDepartment());
+    }
+
+    // Même case d'agrégat, au département près (celui-ci n'est connu qu'une fois le delta appliqué)
+    public static boolean sameBucket(AppointmentStatKey a, AppointmentStatKey b) {
+        if (a == null || b == null) return a == b;
+        return a.statDate.equals(b.statDate) && a.type == b.type && a.status == b.status
+                && a.practitionerId == b.practitionerId && a.visitMode.equals(b.visitMode)
+                && a.scheduled == b.scheduled && Objects.equals(a.employeeId, b.employeeId);
+    }
+
+    // Médecin, sinon infirmier ; identifiant lu sans initialiser le proxy
+    private static long practitionerId(Appointment appointment) {
+        if (appointment.getDoctor() != null && appointment.getDoctor().getId() != null) return appointment.getDoctor().getId();
+        if (appointment.getNurse() != null && appointment.getNurse().getId() != null) return appointment.getNurse().getId();
+        return 0L;
+    }
+}
@@ -0,0 +1,35 @@
+package com.oshapp.backend.model.listener;
+
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Modification de données affichées par les tableaux de bord, traitée après commit.
+ * {@code userIds} vide : utilisateurs concernés inconnus ou multiples (invalidation globale du type).
+ */
+@Value
+public class DashboardChangeEvent {
+
+    public enum Source {
+        APPOINTMENT,
+        NOTIFICATION,
+        ACCIDENT
+    }
+
+    Source source;
+    Set<Long> userIds;
+
+    public static DashboardChangeEvent of(Source source, Collection<Long> userIds) {
+        Set<Long> ids = userIds == null ? Set.of()
+                : userIds.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+        return new DashboardChangeEvent(source, ids);
+    }
+
+    public static DashboardChangeEvent global(Source source) {
+        return new DashboardChangeEvent(source, Set.of());
+    }
+}
@@ -0,0 +1,49 @@
+package com.oshapp.backend.model.listener;
+
+import com.oshapp.backend.model.Appointment;
+import com.oshapp.backend.model.BroadcastNotification;
+import com.oshapp.backend.model.Notification;
+import com.oshapp.backend.model.WorkAccident;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Écouteur JPA des entités affichées par les tableaux de bord (instancié par Spring via le conteneur de beans Hibernate).
+ * Couvre toutes les écritures passant par l'EntityManager ; les mises à jour JPQL en masse publient
+ * leur {@link DashboardChangeEvent} explicitement.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Object entity) {
+        if (entity instanceof Appointment appointment) {
+            // Médecin et infirmier référencés par leur utilisateur ; l'identifiant est lu sans charger le proxy
+            List<Long> userIds = new ArrayList<>(2);
+            if (appointment.getDoctor() != null) userIds.add(appointment.getDoctor().getId());
+            if (appointment.getNurse() != null) userIds.add(appointment.getNurse().getId());
+            eventPublisher.publishEvent(DashboardChangeEvent.of(DashboardChangeEvent.Source.APPOINTMENT, userIds));
+        } else if (entity instanceof Notification notification) {
+            Long userId = notification.getUser() != null ? notification.getUser().getId() : null;
+            eventPublisher.publishEvent(userId != null
+                    ? DashboardChangeEvent.of(DashboardChangeEvent.Source.NOTIFICATION, List.of(userId))
+                    : DashboardChangeEvent.global(DashboardChangeEvent.Source.NOTIFICATION));
+        } else if (entity instanceof BroadcastNotification) {
+            eventPublisher.publishEvent(DashboardChangeEvent.global(DashboardChangeEvent.Source.NOTIFICATION));
+        } else if (entity instanceof WorkAccident) {
+            eventPublisher.publishEvent(DashboardChangeEvent.global(DashboardChangeEvent.Source.ACCIDENT));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.oshapp.backend.model.listener;
+
+import lombok.Value;
+
+/**
+ * Rattachement d'un employé modifié : état avant (null pour une création) et après (null pour une suppression).
+ */
+@Value
+public class EmployeeChangeEvent {
+    EmployeeSnapshot previous;
+    EmployeeSnapshot current;
+}
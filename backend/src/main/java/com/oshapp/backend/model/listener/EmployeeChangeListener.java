@@ -0,0 +1,45 @@
+package com.oshapp.backend.model.listener;
+
+import com.oshapp.backend.model.Employee;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Écouteur JPA des rattachements d'employés : l'état lu au chargement est comparé à celui après écriture,
+ * et seule une création, une suppression ou un changement de département publie un {@link EmployeeChangeEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    void onLoad(Employee employee) {
+        employee.setChangeSnapshot(EmployeeSnapshot.of(employee));
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(Employee employee) {
+        EmployeeSnapshot previous = employee.getChangeSnapshot();
+        EmployeeSnapshot current = EmployeeSnapshot.of(employee);
+        // Plusieurs flush dans une même transaction : l'état écrit devient la référence
+        employee.setChangeSnapshot(current);
+        if (previous != null && EmployeeSnapshot.sameDepartment(previous, current)) return;
+        eventPublisher.publishEvent(new EmployeeChangeEvent(previous, current));
+    }
+
+    @PostRemove
+    void onRemove(Employee employee) {
+        EmployeeSnapshot previous = employee.getChangeSnapshot() != null
+                ? employee.getChangeSnapshot() : EmployeeSnapshot.of(employee);
+        employee.setChangeSnapshot(null);
+        eventPublisher.publishEvent(new EmployeeChangeEvent(previous, null));
+    }
+}
@@ -0,0 +1,32 @@
+package com.oshapp.backend.model.listener;
+
+import com.oshapp.backend.model.Employee;
+import lombok.Value;
+
+import java.util.Objects;
+
+/**
+ * Rattachement d'un employé tel que chargé ou dernièrement écrit (voir {@link EmployeeChangeListener}) :
+ * utilisateur, département et managers (ids des employés managers). Département absent : ''.
+ */
+@Value
+public class EmployeeSnapshot {
+    Long employeeId;
+    Long userId;
+    String department;
+    Long manager1Id;
+    Long manager2Id;
+
+    public static EmployeeSnapshot of(Employee employee) {
+        return new EmployeeSnapshot(employee.getId(),
+                employee.getUser() != null ? employee.getUser().getId() : null,
+                employee.getDepartment() != null ? employee.getDepartment() : "",
+                employee.getManager1() != null ? employee.getManager1().getId() : null,
+                employee.getManager2() != null ? employee.getManager2().getId() : null);
+    }
+
+    public static boolean sameDepartment(EmployeeSnapshot a, EmployeeSnapshot b) {
+        if (a == null || b == null) return a == b;
+        return Objects.equals(a.department, b.department);
+    }
+}
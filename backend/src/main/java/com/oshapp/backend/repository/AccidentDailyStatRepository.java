@@ -0,0 +1,51 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.AccidentDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccidentDailyStatRepository extends JpaRepository<AccidentDailyStat, Long> {
+
+    @Modifying
+    @Query(value = "DELETE FROM accident_daily_stats WHERE stat_date IN (:dates)", nativeQuery = true)
+    int deleteDays(@Param("dates") Collection<LocalDate> dates);
+
+    // Recalcul des jours touchés (idempotent, peu d'accidents par jour)
+    @Modifying
+    @Query(value = "INSERT INTO accident_daily_stats (stat_date, department, accident_count) " +
+            "SELECT CAST(w.accident_date AS DATE), COALESCE(e.department, ''), COUNT(*) " +
+            "FROM work_accidents w LEFT JOIN employee e ON e.id = w.employee_id " +
+            "WHERE CAST(w.accident_date AS DATE) IN (:dates) " +
+            "GROUP BY 1, 2",
+            nativeQuery = true)
+    int rebuildDays(@Param("dates") Collection<LocalDate> dates);
+
+    @Modifying
+    @Query(value = "DELETE FROM accident_daily_stats", nativeQuery = true)
+    int deleteAllBuckets();
+
+    @Modifying
+    @Query(value = "INSERT INTO accident_daily_stats (stat_date, department, accident_count) " +
+            "SELECT CAST(w.accident_date AS DATE), COALESCE(e.department, ''), COUNT(*) " +
+            "FROM work_accidents w LEFT JOIN employee e ON e.id = w.employee_id " +
+            "GROUP BY 1, 2",
+            nativeQuery = true)
+    int rebuildBuckets();
+
+    @Query(value = "SELECT CAST(date_trunc(:unit, s.stat_date) AS DATE), SUM(s.accident_count) " +
+            "FROM accident_daily_stats s " +
+            "WHERE s.stat_date BETWEEN :from AND :to " +
+            "AND (CAST(:department AS VARCHAR) IS NULL OR s.department = CAST(:department AS VARCHAR)) " +
+            "GROUP BY 1 ORDER BY 1",
+            nativeQuery = true)
+    List<Object[]> sumSeries(@Param("unit") String unit, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                             @Param("department") String department);
+}
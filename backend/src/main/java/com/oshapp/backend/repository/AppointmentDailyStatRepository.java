@@ -0,0 +1,101 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.AppointmentDailyStat;
+import com.oshapp.backend.model.enums.AppointmentStatus;
+import com.oshapp.backend.model.enums.AppointmentType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AppointmentDailyStatRepository extends JpaRepository<AppointmentDailyStat, Long> {
+
+    // Mise à jour incrémentale d'une case (delta +1 / -1), créée au besoin
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_stats (stat_date, type, status, department, practitioner_id, visit_mode, scheduled, appointment_count) " +
+            "VALUES (:statDate, :type, :status, :department, :practitionerId, :visitMode, :scheduled, :delta) " +
+            "ON CONFLICT (stat_date, type, status, department, practitioner_id, visit_mode, scheduled) " +
+            "DO UPDATE SET appointment_count = appointment_daily_stats.appointment_count + EXCLUDED.appointment_count",
+            nativeQuery = true)
+    int addToBucket(@Param("statDate") LocalDate statDate, @Param("type") String type, @Param("status") String status,
+                    @Param("department") String department, @Param("practitionerId") long practitionerId,
+                    @Param("visitMode") String visitMode,
+                    @Param("scheduled") boolean scheduled, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "DELETE FROM appointment_daily_stats", nativeQuery = true)
+    int deleteAllBuckets();
+
+    // Département sous lequel chaque rendez-vous est actuellement compté (id, stat_department)
+    @Query(value = "SELECT id, stat_department FROM appointments WHERE id IN (:ids)", nativeQuery = true)
+    List<Object[]> findCountedDepartments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE appointments SET stat_department = :department WHERE id = :id", nativeQuery = true)
+    int setCountedDepartment(@Param("id") Long id, @Param("department") String department);
+
+    // Après reconstruction : chaque rendez-vous est compté sous le département actuel de son employé
+    @Modifying
+    @Query(value = "UPDATE appointments a SET stat_department = COALESCE(e.department, '') " +
+            "FROM employee e WHERE e.id = a.employee_id AND a.type IS NOT NULL AND a.status IS NOT NULL",
+            nativeQuery = true)
+    int syncCountedDepartments();
+
+    // Reconstruction complète depuis appointments (mêmes règles que AppointmentStatKey)
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_stats (stat_date, type, status, department, practitioner_id, visit_mode, scheduled, appointment_count) " +
+            "SELECT CAST(COALESCE(a.scheduled_time, a.created_at, a.requested_date_employee, CURRENT_TIMESTAMP) AS DATE), " +
+            "a.type, a.status, COALESCE(e.department, ''), COALESCE(a.doctor_id, a.nurse_id, 0), COALESCE(a.visit_mode, ''), " +
+            "(a.scheduled_time IS NOT NULL), COUNT(*) " +
+            "FROM appointments a LEFT JOIN employee e ON e.id = a.employee_id " +
+            "WHERE a.type IS NOT NULL AND a.status IS NOT NULL " +
+            "GROUP BY 1, 2, 3, 4, 5, 6, 7",
+            nativeQuery = true)
+    int rebuildBuckets();
+
+    @Query("SELECT COALESCE(SUM(s.appointmentCount), 0) FROM AppointmentDailyStat s WHERE s.status = :status")
+    long sumByStatus(@Param("status") AppointmentStatus status);
+
+    @Query("SELECT COALESCE(SUM(s.appointmentCount), 0) FROM AppointmentDailyStat s WHERE s.type = :type AND s.status = :status")
+    long sumByTypeAndStatus(@Param("type") AppointmentType type, @Param("status") AppointmentStatus status);
+
+    // Rendez-vous planifiés par mois (date de visite)
+    @Query(value = "SELECT CAST(EXTRACT(YEAR FROM s.stat_date) AS INTEGER), CAST(EXTRACT(MONTH FROM s.stat_date) AS INTEGER), SUM(s.appointment_count) " +
+            "FROM appointment_daily_stats s WHERE s.scheduled = true " +
+            "GROUP BY 1, 2 HAVING SUM(s.appointment_count) > 0 ORDER BY 1, 2",
+            nativeQuery = true)
+    List<Object[]> sumScheduledByMonth();
+
+    // Série temporelle : cases tronquées à l'unité demandée (day, week, month, quarter) sur [from, to] ;
+    // le filtre sur stat_date borne le parcours à la plage demandée (index idx_appointment_daily_stats_date)
+    @Query(value = "SELECT CAST(date_trunc(:unit, s.stat_date) AS DATE), " +
+            "SUM(s.appointment_count), " +
+            "SUM(CASE WHEN s.status = 'CANCELLED' THEN s.appointment_count ELSE 0 END), " +
+            "SUM(CASE WHEN s.status = 'COMPLETED' THEN s.appointment_count ELSE 0 END) " +
+            "FROM appointment_daily_stats s " +
+            "WHERE s.stat_date BETWEEN :from AND :to " +
+            "AND (CAST(:department AS VARCHAR) IS NULL OR s.department = CAST(:department AS VARCHAR)) " +
+            "AND (CAST(:type AS VARCHAR) IS NULL OR s.type = CAST(:type AS VARCHAR)) " +
+            "AND (CAST(:practitionerId AS BIGINT) IS NULL OR s.practitioner_id = CAST(:practitionerId AS BIGINT)) " +
+            "GROUP BY 1 ORDER BY 1",
+            nativeQuery = true)
+    List<Object[]> sumSeries(@Param("unit") String unit, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                             @Param("department") String department, @Param("type") String type,
+                             @Param("practitionerId") Long practitionerId);
+
+    // Rendez-vous par département et statut depuis :from (rapport par département)
+    @Query(value = "SELECT s.department, s.status, SUM(s.appointment_count) FROM appointment_daily_stats s " +
+            "WHERE s.stat_date >= :from " +
+            "AND (:allDepartments = TRUE OR s.department IN (:departments)) " +
+            "GROUP BY 1, 2",
+            nativeQuery = true)
+    List<Object[]> sumByDepartmentAndStatusSince(@Param("from") LocalDate from,
+                                                 @Param("allDepartments") boolean allDepartments,
+                                                 @Param("departments") Collection<String> departments);
+}
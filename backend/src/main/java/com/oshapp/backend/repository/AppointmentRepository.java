@@ -4,12 +4,14 @@ import com.oshapp.backend.model.Appointment;
 import com.oshapp.backend.model.enums.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.oshapp.backend.model.User ;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -109,6 +111,25 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.status IN :statuses")
     long countByStatusIn(@Param("statuses") List<AppointmentStatus> statuses);
 
+    // Compteurs par statut d'un infirmier en une seule requête (tableau de bord)
+    @Query("SELECT a.status, COUNT(a) FROM Appointment a WHERE a.nurse.id = :nurseId AND a.status IN :statuses GROUP BY a.status")
+    List<Object[]> countByStatusForNurse(@Param("nurseId") Long nurseId, @Param("statuses") List<AppointmentStatus> statuses);
+
+    // Compteurs par statut d'un médecin (identifiant utilisateur) en une seule requête
+    @Query("SELECT a.status, COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId GROUP BY a.status")
+    List<Object[]> countByStatusForDoctor(@Param("doctorId") Long doctorId);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.employee WHERE a.doctor.id = :doctorId AND a.status = :status ORDER BY a.createdAt DESC")
+    List<Appointment> findRecentByDoctorIdAndStatus(@Param("doctorId") Long doctorId, @Param("status") AppointmentStatus status, Pageable pageable);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.employee WHERE a.doctor.id = :doctorId AND a.updatedAt > :since ORDER BY a.updatedAt DESC")
+    List<Appointment> findRecentlyUpdatedByDoctorId(@Param("doctorId") Long doctorId, @Param("since") LocalDateTime since, Pageable pageable);
+
+    // Premiers éléments d'une file (sans requête de comptage), employé chargé avec la page
+    @EntityGraph(attributePaths = {"employee", "employee.user"})
+    @Query("SELECT a FROM Appointment a WHERE a.status IN :statuses")
+    List<Appointment> findTopByStatusIn(@Param("statuses") List<AppointmentStatus> statuses, Pageable pageable);
+
     
     @Query("SELECT a FROM Appointment a WHERE a.status IN :statuses AND a.scheduledTime >= :now ORDER BY a.scheduledTime ASC")
     List<Appointment> findUpcomingByStatuses(@Param("statuses") List<AppointmentStatus> statuses, @Param("now") LocalDateTime now);
@@ -133,4 +154,15 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Aggregate counts by appointment type for a set of statuses (e.g., pending-like entries)
     @Query("SELECT a.type as type, COUNT(a) as cnt FROM Appointment a WHERE a.status IN :statuses GROUP BY a.type")
     List<Object[]> countByTypeForStatuses(@Param("statuses") List<AppointmentStatus> statuses);
-}
\ No newline at end of file
+
+    // Délai moyen demande -> première confirmation (heures) par département, confirmations depuis :since
+    @Query(value = "SELECT COALESCE(e.department, ''), AVG(EXTRACT(EPOCH FROM (a.confirmed_at - a.created_at))) / 3600.0, COUNT(*) " +
+            "FROM appointments a JOIN employee e ON e.id = a.employee_id " +
+            "WHERE a.confirmed_at >= :since AND a.created_at IS NOT NULL " +
+            "AND (:allDepartments = TRUE OR COALESCE(e.department, '') IN (:departments)) " +
+            "GROUP BY 1",
+            nativeQuery = true)
+    List<Object[]> averageConfirmationHoursByDepartment(@Param("since") LocalDateTime since,
+                                                        @Param("allDepartments") boolean allDepartments,
+                                                        @Param("departments") Collection<String> departments);
+}
@@ -0,0 +1,104 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.BroadcastNotification;
+import com.oshapp.backend.model.enums.NotificationType;
+import com.oshapp.backend.model.enums.RoleName;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    // Diffusion visible si l'utilisateur appartenait au rôle ciblé à sa création (périodes tenues par role_memberships) :
+    // un nouveau membre ne reçoit pas l'historique du rôle, un ancien membre conserve les diffusions reçues
+    String VISIBLE_TO_USER =
+            "EXISTS (SELECT 1 FROM role_memberships m WHERE m.user_id = :userId AND m.role_name = b.target_role " +
+            "AND m.granted_at <= b.created_at AND (m.revoked_at IS NULL OR b.created_at < m.revoked_at))";
+
+    // Fil fusionné : notifications personnelles + diffusions visibles pour l'utilisateur, distinguées par la colonne broadcast.
+    // Une diffusion est masquée si l'utilisateur l'a supprimée ou possède une notification personnelle plus récente sur la même entité.
+    String FEED_UNION =
+            "SELECT n.id AS id, n.title AS title, n.message AS message, n.type AS type, n.read AS is_read, " +
+            "n.related_entity_type AS related_entity_type, n.related_entity_id AS related_entity_id, " +
+            "n.action_url AS action_url, n.created_at AS created_at, false AS broadcast, " +
+            "n.template_key AS template_key, n.params AS params " +
+            "FROM notification n WHERE n.user_id = :userId AND (:unreadOnly = false OR n.read = false) " +
+            "UNION ALL " +
+            "SELECT b.id, b.title, b.message, b.type, (r.read_at IS NOT NULL), " +
+            "b.related_entity_type, b.related_entity_id, b.action_url, b.created_at, true, b.template_key, b.params " +
+            "FROM broadcast_notifications b " +
+            "LEFT JOIN broadcast_notification_receipts r ON r.broadcast_id = b.id AND r.user_id = :userId " +
+            "WHERE " + VISIBLE_TO_USER + " AND (r.id IS NULL OR r.dismissed = false) " +
+            "AND (:unreadOnly = false OR r.read_at IS NULL) " +
+            "AND NOT EXISTS (SELECT 1 FROM notification p WHERE p.user_id = :userId " +
+            "AND p.related_entity_type = b.related_entity_type AND p.related_entity_id = b.related_entity_id " +
+            "AND p.created_at >= b.created_at)";
+
+    @Query(value = "SELECT * FROM (" + FEED_UNION + ") feed ORDER BY created_at DESC",
+           countQuery = "SELECT COUNT(*) FROM (" + FEED_UNION + ") feed",
+           nativeQuery = true)
+    Page<Object[]> findFeed(@Param("userId") Long userId, @Param("unreadOnly") boolean unreadOnly, Pageable pageable);
+
+    @Query(value = "SELECT * FROM (" + FEED_UNION + ") feed ORDER BY created_at DESC", nativeQuery = true)
+    List<Object[]> findFeed(@Param("userId") Long userId, @Param("unreadOnly") boolean unreadOnly);
+
+    @Query(value = "SELECT COUNT(*) FROM (" + FEED_UNION + ") feed", nativeQuery = true)
+    Long countFeed(@Param("userId") Long userId, @Param("unreadOnly") boolean unreadOnly);
+
+    @Query("SELECT b FROM BroadcastNotification b WHERE b.targetRole = :role AND b.relatedEntityType = :entityType AND b.relatedEntityId = :entityId ORDER BY b.createdAt DESC")
+    List<BroadcastNotification> findByTargetRoleAndRelatedEntity(@Param("role") RoleName role, @Param("entityType") String relatedEntityType,
+                                                                 @Param("entityId") Long relatedEntityId);
+
+    // Marqueurs par utilisateur : un seul INSERT ... ON CONFLICT, limité aux diffusions visibles par l'utilisateur
+    @Modifying
+    @Query(value = "INSERT INTO broadcast_notification_receipts (broadcast_id, user_id, read_at, dismissed) " +
+            "SELECT b.id, :userId, CURRENT_TIMESTAMP, false FROM broadcast_notifications b " +
+            "WHERE b.id IN (:ids) AND " + VISIBLE_TO_USER + " " +
+            "ON CONFLICT (broadcast_id, user_id) DO UPDATE SET read_at = COALESCE(broadcast_notification_receipts.read_at, EXCLUDED.read_at)",
+            nativeQuery = true)
+    int markAsRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO broadcast_notification_receipts (broadcast_id, user_id, read_at, dismissed) " +
+            "SELECT b.id, :userId, CURRENT_TIMESTAMP, false FROM broadcast_notifications b " +
+            "WHERE " + VISIBLE_TO_USER + " AND NOT EXISTS (SELECT 1 FROM broadcast_notification_receipts r " +
+            "WHERE r.broadcast_id = b.id AND r.user_id = :userId AND r.read_at IS NOT NULL) " +
+            "ON CONFLICT (broadcast_id, user_id) DO UPDATE SET read_at = COALESCE(broadcast_notification_receipts.read_at, EXCLUDED.read_at)",
+            nativeQuery = true)
+    int markAllAsRead(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO broadcast_notification_receipts (broadcast_id, user_id, read_at, dismissed) " +
+            "SELECT b.id, :userId, CURRENT_TIMESTAMP, true FROM broadcast_notifications b " +
+            "WHERE b.id IN (:ids) AND " + VISIBLE_TO_USER + " " +
+            "ON CONFLICT (broadcast_id, user_id) DO UPDATE SET dismissed = true, " +
+            "read_at = COALESCE(broadcast_notification_receipts.read_at, EXCLUDED.read_at)",
+            nativeQuery = true)
+    int dismiss(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Redonne le statut non lu à une diffusion mise à jour
+    @Modifying
+    @Query(value = "DELETE FROM broadcast_notification_receipts WHERE broadcast_id IN (:ids)", nativeQuery = true)
+    int deleteReceiptsByBroadcastIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM broadcast_notification_receipts", nativeQuery = true)
+    int deleteAllReceipts();
+
+    // Rétention
+    @Query("SELECT b.id FROM BroadcastNotification b WHERE b.type = :type AND b.createdAt < :cutoff ORDER BY b.createdAt ASC")
+    List<Long> findIdsForRetention(@Param("type") NotificationType type, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM BroadcastNotification b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,13 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.EmailDeadLetter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+
+    Page<EmailDeadLetter> findAllByOrderByFailedAtDesc(Pageable pageable);
+}
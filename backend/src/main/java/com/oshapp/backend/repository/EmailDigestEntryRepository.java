@@ -0,0 +1,30 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.EmailDigestEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailDigestEntryRepository extends JpaRepository<EmailDigestEntry, Long> {
+
+    // Destinataires dont la fenêtre est écoulée ou dont le récapitulatif a atteint la taille maximale
+    @Query("SELECT e.toEmail FROM EmailDigestEntry e GROUP BY e.toEmail " +
+           "HAVING MIN(e.createdAt) <= :windowStart OR COUNT(e) >= :maxEntries")
+    List<String> findDueRecipients(@Param("windowStart") LocalDateTime windowStart, @Param("maxEntries") long maxEntries);
+
+    // Verrouille les entrées d'un destinataire sans bloquer les autres instances (SKIP LOCKED)
+    @Query(value = "SELECT * FROM email_digest_entries WHERE to_email = :toEmail ORDER BY id FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EmailDigestEntry> lockByToEmail(@Param("toEmail") String toEmail);
+
+    @Modifying
+    @Query("DELETE FROM EmailDigestEntry e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
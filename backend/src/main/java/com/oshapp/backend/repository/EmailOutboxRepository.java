@@ -0,0 +1,40 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.EmailOutboxMessage;
+import com.oshapp.backend.model.enums.EmailOutboxStatus;
+import com.oshapp.backend.model.enums.EmailPriority;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Verrouille les messages dus sans bloquer les autres instances (SKIP LOCKED) : lignes (id, recipient_count)
+    @Query(value = "SELECT id, recipient_count FROM email_outbox WHERE status = 'PENDING' AND priority = :priority AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Object[]> lockDueRecipients(@Param("priority") int priority, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.lockedAt = :now WHERE m.id IN :ids")
+    int markStatus(@Param("ids") Collection<Long> ids, @Param("status") EmailOutboxStatus status, @Param("now") LocalDateTime now);
+
+    // Messages restés en cours d'envoi après un arrêt brutal
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.oshapp.backend.model.enums.EmailOutboxStatus.PENDING, m.lockedAt = null " +
+           "WHERE m.status = com.oshapp.backend.model.enums.EmailOutboxStatus.PROCESSING AND m.lockedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    long countByStatusAndPriority(EmailOutboxStatus status, EmailPriority priority);
+
+    @Query("SELECT MIN(m.createdAt) FROM EmailOutboxMessage m WHERE m.status = com.oshapp.backend.model.enums.EmailOutboxStatus.PENDING")
+    LocalDateTime findOldestPendingCreatedAt();
+}
@@ -9,6 +9,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,4 +38,35 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     List<Employee> findByManager2(Employee manager);
 
     List<Employee> findByManager1IdOrManager2Id(@Param("manager1Id") Long manager1Id, @Param("manager2Id") Long manager2Id);
-}
\ No newline at end of file
+
+    // Profils destinataires : [userId, employeeId]
+    @Query("SELECT e.user.id, e.id FROM Employee e WHERE e.user.id IN :userIds")
+    List<Object[]> findEmployeeIdsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // Profils destinataires : utilisateurs des employés donnés (managers anciens et nouveaux)
+    @Query("SELECT e.user.id FROM Employee e WHERE e.id IN :ids AND e.user IS NOT NULL")
+    List<Long> findUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Profils destinataires : [manager1 userId, manager2 userId, employeeId] des employés encadrés
+    @Query("SELECT m1.user.id, m2.user.id, e.id FROM Employee e LEFT JOIN e.manager1 m1 LEFT JOIN e.manager2 m2 " +
+           "WHERE m1.user.id IN :userIds OR m2.user.id IN :userIds")
+    List<Object[]> findManagedEmployeeIdsByManagerUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT e.id, e.department FROM Employee e WHERE e.id IN :ids")
+    List<Object[]> findDepartmentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rapport par département : effectif et employés sans visite périodique réalisée depuis :since
+    @Query(value = "SELECT COALESCE(e.department, ''), COUNT(*), " +
+            "SUM(CASE WHEN NOT EXISTS (SELECT 1 FROM appointments a WHERE a.employee_id = e.id " +
+            "AND a.type = 'PERIODIC' AND a.status = 'COMPLETED' AND a.scheduled_time >= :since) THEN 1 ELSE 0 END) " +
+            "FROM employee e WHERE 1 = 1 " +
+            "AND (:allDepartments = TRUE OR COALESCE(e.department, '') IN (:departments)) " +
+            "GROUP BY 1",
+            nativeQuery = true)
+    List<Object[]> countHeadcountAndPeriodicDueByDepartment(@Param("since") LocalDateTime since,
+                                                             @Param("allDepartments") boolean allDepartments,
+                                                             @Param("departments") Collection<String> departments);
+
+    @Query("SELECT COALESCE(e.department, ''), COUNT(e) FROM Employee e GROUP BY COALESCE(e.department, '')")
+    List<Object[]> countByDepartment();
+}
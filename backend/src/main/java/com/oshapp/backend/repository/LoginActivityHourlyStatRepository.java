@@ -0,0 +1,29 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.LoginActivityHourlyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoginActivityHourlyStatRepository extends JpaRepository<LoginActivityHourlyStat, Long> {
+
+    // Les minutes sont versées une seule fois : les compteurs s'additionnent, l'estimation garde le maximum
+    @Modifying
+    @Query(value = "INSERT INTO login_activity_hourly_stats (hour_start, successes, failures, unique_users) " +
+            "VALUES (:hourStart, :successes, :failures, :uniqueUsers) " +
+            "ON CONFLICT (hour_start) DO UPDATE SET " +
+            "successes = login_activity_hourly_stats.successes + EXCLUDED.successes, " +
+            "failures = login_activity_hourly_stats.failures + EXCLUDED.failures, " +
+            "unique_users = GREATEST(login_activity_hourly_stats.unique_users, EXCLUDED.unique_users)",
+            nativeQuery = true)
+    int addToHour(@Param("hourStart") LocalDateTime hourStart, @Param("successes") long successes,
+                  @Param("failures") long failures, @Param("uniqueUsers") long uniqueUsers);
+
+    List<LoginActivityHourlyStat> findByHourStartGreaterThanEqualOrderByHourStartAsc(LocalDateTime from);
+}
@@ -1,30 +1,45 @@
 package com.oshapp.backend.repository;
 
 import com.oshapp.backend.model.MedicalCertificate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MedicalCertificateRepository extends JpaRepository<MedicalCertificate, Long> {
 
     /**
-     * Finds all medical certificates that are due to expire on or before the given date.
-     *
-     * @param expirationDate The date to compare against.
-     * @return A list of medical certificates nearing expiration.
+     * Certificats expirant dans la fenêtre [from, to], du plus proche au plus lointain, employé chargé
+     * dans la même requête. Les certificats déjà expirés ne sont plus remontés.
      */
-    @Query("SELECT mc FROM MedicalCertificate mc WHERE mc.expirationDate <= :expirationDate")
-    List<MedicalCertificate> findByExpirationDateBeforeOrEqual(@Param("expirationDate") LocalDate expirationDate);
+    @Query(value = "SELECT mc FROM MedicalCertificate mc JOIN FETCH mc.employee " +
+            "WHERE mc.expirationDate BETWEEN :from AND :to ORDER BY mc.expirationDate ASC, mc.id ASC",
+            countQuery = "SELECT COUNT(mc) FROM MedicalCertificate mc JOIN mc.employee " +
+                    "WHERE mc.expirationDate BETWEEN :from AND :to")
+    Page<MedicalCertificate> findExpiringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Query("SELECT COUNT(mc) FROM MedicalCertificate mc WHERE mc.expirationDate BETWEEN :from AND :to")
+    long countExpiringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
     /**
      * Fetch all medical certificates for a given employee ID.
      */
     List<MedicalCertificate> findByEmployee_Id(Long employeeId);
 
+    @Query(value = "SELECT COALESCE(e.department, ''), COUNT(*) " +
+            "FROM medical_certificates mc JOIN employee e ON e.id = mc.employee_id " +
+            "WHERE mc.expiration_date BETWEEN :from AND :to " +
+            "AND (:allDepartments = TRUE OR COALESCE(e.department, '') IN (:departments)) " +
+            "GROUP BY 1",
+            nativeQuery = true)
+    List<Object[]> countExpiringByDepartment(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("allDepartments") boolean allDepartments,
+                                             @Param("departments") Collection<String> departments);
 }
-
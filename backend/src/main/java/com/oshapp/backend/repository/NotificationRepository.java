@@ -2,13 +2,17 @@ package com.oshapp.backend.repository;
 
 import com.oshapp.backend.model.Notification;
 import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.enums.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,4 +32,32 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     @Query("SELECT n FROM Notification n WHERE n.user = :user AND n.relatedEntityType = :entityType AND n.relatedEntityId = :entityId ORDER BY n.createdAt DESC")
     List<Notification> findByUserAndRelatedEntityTypeAndRelatedEntityId(@Param("user") User user, @Param("entityType") String relatedEntityType, @Param("entityId") Long relatedEntityId);
-} 
\ No newline at end of file
+
+    // Opérations ensemblistes : l'appartenance est vérifiée dans la clause WHERE (une seule requête)
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user = :user AND n.read = false")
+    int markAllAsReadByUser(@Param("user") User user);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user = :user AND n.read = false AND n.id IN :ids")
+    int markAsReadByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user = :user AND n.id IN :ids")
+    int deleteByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    // Rétention : sélection d'un lot d'ids puis suppression ciblée (verrous courts)
+    @Query("SELECT n.id FROM Notification n WHERE n.type = :type AND n.read = :read AND n.createdAt < :cutoff ORDER BY n.createdAt ASC")
+    List<Long> findIdsForRetention(@Param("type") NotificationType type, @Param("read") boolean read,
+                                   @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Une diffusion remplace les notifications personnelles antérieures des membres du rôle pour la même entité
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id IN :userIds AND n.relatedEntityType = :entityType AND n.relatedEntityId = :entityId")
+    int deleteByUserIdInAndRelatedEntity(@Param("userIds") Collection<Long> userIds, @Param("entityType") String relatedEntityType,
+                                         @Param("entityId") Long relatedEntityId);
+}
@@ -0,0 +1,40 @@
+package com.oshapp.backend.repository;
+
+import com.oshapp.backend.model.SmsOutboxMessage;
+import com.oshapp.backend.model.enums.SmsStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SmsOutboxRepository extends JpaRepository<SmsOutboxMessage, Long> {
+
+    // SMS urgents d'abord, sans bloquer les autres instances (SKIP LOCKED)
+    @Query(value = "SELECT id FROM sms_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY urgent DESC, next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE SmsOutboxMessage m SET m.status = :status, m.lockedAt = :now WHERE m.id IN :ids")
+    int markStatus(@Param("ids") Collection<Long> ids, @Param("status") SmsStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE SmsOutboxMessage m SET m.status = com.oshapp.backend.model.enums.SmsStatus.PENDING, m.lockedAt = null " +
+           "WHERE m.status = com.oshapp.backend.model.enums.SmsStatus.PROCESSING AND m.lockedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff);
+
+    Optional<SmsOutboxMessage> findFirstByProviderMessageId(String providerMessageId);
+
+    @Modifying
+    @Query("DELETE FROM SmsOutboxMessage m WHERE m.status IN :statuses AND m.updatedAt < :cutoff")
+    int deleteFinishedBefore(@Param("statuses") Collection<SmsStatus> statuses, @Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(SmsStatus status);
+}
@@ -41,6 +41,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Set<User> findByRoles_Name(RoleName name);
 
+    long countByRoles_Name(RoleName name);
+
     List<User> findByRolesContaining(Role role);
 
     @Query("SELECT r.name, COUNT(u) FROM User u JOIN u.roles r GROUP BY r.name")
@@ -1,10 +1,14 @@
 package com.oshapp.backend.repository;
 
 import com.oshapp.backend.model.WorkAccident;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,4 +23,47 @@ public interface WorkAccidentRepository extends JpaRepository<WorkAccident, Long
     List<WorkAccident> findByAccidentDateAfterOrderByAccidentDateDesc(LocalDateTime date);
 
     List<WorkAccident> findByEmployeeId(Long employeeId);
+
+    long countByAccidentDateAfter(LocalDateTime date);
+
+    @Query("SELECT a.status, COUNT(a) FROM WorkAccident a GROUP BY a.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT a.severity, COUNT(a) FROM WorkAccident a WHERE a.accidentDate > :since GROUP BY a.severity")
+    List<Object[]> countBySeveritySince(@Param("since") LocalDateTime since);
+
+    /**
+     * Most recent accidents since a date with their employee, bounded by the pageable (activity feed).
+     */
+    @Query("SELECT a FROM WorkAccident a JOIN FETCH a.employee WHERE a.accidentDate > :since ORDER BY a.accidentDate DESC")
+    List<WorkAccident> findRecentWithEmployee(@Param("since") LocalDateTime since, Pageable pageable);
+
+    /**
+     * Recent accidents, most severe first. Severity is stored as its name: ranked explicitly
+     * so that the order does not depend on the spelling of the enum constants.
+     */
+    @Query(value = "SELECT a.* FROM work_accidents a WHERE a.accident_date > :since " +
+            "ORDER BY CASE a.severity WHEN 'SEVERE' THEN 0 WHEN 'MODERATE' THEN 1 WHEN 'MINOR' THEN 2 ELSE 3 END, " +
+            "a.accident_date DESC",
+            nativeQuery = true)
+    List<WorkAccident> findRecentBySeverity(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query(value = "SELECT COALESCE(e.department, ''), COUNT(*) " +
+            "FROM work_accidents w JOIN employee e ON e.id = w.employee_id " +
+            "WHERE (w.status IS NULL OR w.status <> 'CLOSED') " +
+            "AND (:allDepartments = TRUE OR COALESCE(e.department, '') IN (:departments)) " +
+            "GROUP BY 1",
+            nativeQuery = true)
+    List<Object[]> countOpenByDepartment(@Param("allDepartments") boolean allDepartments,
+                                         @Param("departments") Collection<String> departments);
+
+    // Indicateurs HSE : accidents, jours d'arrêt, accidents graves et accidents dont les jours d'arrêt sont renseignés,
+    // par mois et département sur [from, to[ (jours d'arrêt null si aucun n'est renseigné)
+    @Query(value = "SELECT CAST(date_trunc('month', w.accident_date) AS DATE), COALESCE(e.department, ''), COUNT(*), " +
+            "SUM(w.lost_work_days), SUM(CASE WHEN w.severity = 'SEVERE' THEN 1 ELSE 0 END), COUNT(w.lost_work_days) " +
+            "FROM work_accidents w LEFT JOIN employee e ON e.id = w.employee_id " +
+            "WHERE w.accident_date >= :from AND w.accident_date < :to " +
+            "GROUP BY 1, 2",
+            nativeQuery = true)
+    List<Object[]> sumByMonthAndDepartment(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
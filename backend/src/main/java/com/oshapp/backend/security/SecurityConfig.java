@@ -72,6 +72,9 @@ public class SecurityConfig {
                 // Publicly serve uploaded files (e.g., company logos)
                 .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll()
                 .requestMatchers(HttpMethod.HEAD, "/uploads/**").permitAll()
+                // SMS gateway delivery reports (shared token checked by the controller) and local stand-in gateway
+                .requestMatchers(HttpMethod.POST, "/api/v1/sms/callback").permitAll()
+                .requestMatchers("/api/v1/sms-stub/**").hasRole("ADMIN")
                 .requestMatchers("/api/v1/admin/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_RH")
                 .requestMatchers("/api/v1/rh/**").hasAuthority("ROLE_RH")
                 .requestMatchers("/api/v1/employees/profile/**", "/api/v1/employees/medical-fitness", "/api/v1/employees/stats", "/api/v1/employees/manager/status", "/api/v1/employees/subordinates", "/api/v1/employees/notifications/**", "/api/v1/employees/medical-visit-request").authenticated()
@@ -181,6 +184,8 @@ public class SecurityConfig {
                     .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll()
                     .requestMatchers(HttpMethod.HEAD, "/uploads/**").permitAll()
                     .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/api-docs/**").permitAll()
+                    .requestMatchers(HttpMethod.POST, "/api/v1/sms/callback").permitAll()
+                    .requestMatchers("/api/v1/sms-stub/**").hasRole("ADMIN")
                     .requestMatchers("/api/v1/admin/**").hasAnyRole("ADMIN", "RH")
                     .requestMatchers("/api/v1/appointments/**").hasAnyRole("EMPLOYEE", "NURSE", "DOCTOR", "RH")
                     .requestMatchers("/api/v1/notifications/**").authenticated()
@@ -1,7 +1,9 @@
 package com.oshapp.backend.service;
 
 import com.oshapp.backend.dto.AdminDashboardData;
+import com.oshapp.backend.dto.AuthActivityDTO;
 
 public interface AdminDashboardService {
     AdminDashboardData getDashboardData();
+    AuthActivityDTO getAuthActivity(int hours);
 }
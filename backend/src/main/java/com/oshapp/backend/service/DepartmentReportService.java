@@ -0,0 +1,11 @@
+package com.oshapp.backend.service;
+
+import com.oshapp.backend.dto.DepartmentReportDTO;
+
+public interface DepartmentReportService {
+    /**
+     * Rapport santé-travail par département, servi depuis le dernier calcul ; seuls les départements
+     * touchés depuis sont recalculés, sauf recalcul complet demandé ou périmé.
+     */
+    DepartmentReportDTO getReport(boolean forceRefresh);
+}
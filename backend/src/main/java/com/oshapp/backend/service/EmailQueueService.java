@@ -0,0 +1,26 @@
+package com.oshapp.backend.service;
+
+import com.oshapp.backend.dto.EmailDeadLetterDTO;
+import com.oshapp.backend.dto.EmailQueueStatsDTO;
+import com.oshapp.backend.model.enums.EmailPriority;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+
+public interface EmailQueueService {
+
+    // Met en file un email déjà rendu ; l'envoi SMTP est fait par le dispatcher
+    void enqueue(String toEmail, String subject, String htmlBody, boolean inlineLogo, EmailPriority priority);
+
+    // Même contenu pour plusieurs destinataires : messages en copie cachée, découpés selon bccMaxGroupSize
+    void enqueueGroup(Collection<String> toEmails, String subject, String htmlBody, boolean inlineLogo, EmailPriority priority);
+
+    EmailQueueStatsDTO getStats();
+
+    Page<EmailDeadLetterDTO> getDeadLetters(Pageable pageable);
+
+    void replayDeadLetter(Long id);
+
+    int replayAllDeadLetters();
+}
@@ -28,6 +28,16 @@ public interface EmailService {
                                      String actionUrl, String actionLabel,
                                      String secondaryActionUrl, String secondaryActionLabel,
                                      Map<String, Object> extraContext);
+    /**
+     * Ouvre un lot sur le thread courant : les notifications de rendez-vous sont mises en attente
+     * puis rendues à {@link #endBatch()}, une seule fois par contenu identique (envoi en copie cachée).
+     */
+    void beginBatch();
+    /**
+     * Ferme le lot ouvert par {@link #beginBatch()} et confie les notifications en attente au rendu asynchrone.
+     */
+    void endBatch();
+
     void sendObligatoryAppointmentNotification(User user, Appointment appointment);
     
     // Send a simple (raw) email with the given subject and HTML/text content
@@ -0,0 +1,14 @@
+package com.oshapp.backend.service;
+
+import com.oshapp.backend.dto.HseKpiDTO;
+
+/**
+ * Indicateurs HSE (taux de fréquence et de gravité, tendance sur 12 mois glissants) tenus en mémoire :
+ * les lectures renvoient le dernier instantané, les mois touchés par un accident sont recalculés après commit.
+ */
+public interface HseKpiService {
+    HseKpiDTO getKpis();
+
+    // Recalcul complet (effectifs, dénominateurs, tous les mois de la tendance)
+    HseKpiDTO rebuild();
+}
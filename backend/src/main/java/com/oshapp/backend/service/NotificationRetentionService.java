@@ -0,0 +1,16 @@
+package com.oshapp.backend.service;
+
+import com.oshapp.backend.dto.NotificationRetentionReportDTO;
+
+public interface NotificationRetentionService {
+
+    /**
+     * Applique les politiques de rétention et supprime les notifications expirées par lots.
+     */
+    NotificationRetentionReportDTO runRetention();
+
+    /**
+     * Rapport de la dernière exécution (null si aucune exécution depuis le démarrage).
+     */
+    NotificationRetentionReportDTO getLastReport();
+}
@@ -5,6 +5,7 @@ import com.oshapp.backend.model.Appointment;
 
 import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.NotificationType;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -18,12 +19,35 @@ public interface NotificationService {
     void sendGeneralNotification(User user, String title, String message, NotificationType type);
     void sendGeneralNotification(User user, String title, String message, NotificationType type,
                                   String actionUrl, String relatedEntityType, Long relatedEntityId);
+    /**
+     * Notification stockée par clé du catalogue et paramètres ; titre, message et lien (action) sont rendus à la lecture.
+     */
+    void sendTemplatedNotification(User user, NotificationMessage message, NotificationType type,
+                                   String action, String relatedEntityType, Long relatedEntityId);
+    /**
+     * Ouvre une diffusion sur le thread courant : les notifications générales sont mises en attente
+     * puis écrites à {@link #endFanOut()}, une seule fois par rôle lorsque tous ses membres reçoivent le même contenu.
+     */
+    void beginFanOut();
+    /**
+     * Ferme la diffusion ouverte par {@link #beginFanOut()} et écrit les notifications en attente.
+     *
+     * @return {@code false} si des écritures n'étaient pas terminées à l'expiration du délai d'attente
+     * (app.notifications.fan-out.await-timeout-seconds) ; elles restent ordonnées et se terminent en arrière-plan
+     */
+    boolean endFanOut();
     void createNotification(String title, User user, String message);
     Page<NotificationResponseDTO> getUserNotifications(User user, Pageable pageable);
     List<NotificationResponseDTO> getUnreadNotifications(User user);
     Long getUnreadCount(User user);
     void markAsRead(Long notificationId, User user);
-    void markAllAsRead(User user);
+    // Diffusion par rôle (NotificationResponseDTO.broadcast) : marqueur de lecture propre à l'utilisateur
+    void markBroadcastAsRead(Long broadcastId, User user);
+    int markAsRead(List<Long> notificationIds, List<Long> broadcastIds, User user);
+    int markAllAsRead(User user);
     void deleteNotification(Long notificationId, User user);
+    // Une diffusion n'est pas supprimée : elle est masquée pour l'utilisateur
+    void dismissBroadcast(Long broadcastId, User user);
+    int deleteNotifications(List<Long> notificationIds, List<Long> broadcastIds, User user);
     void deleteAllNotifications();
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.oshapp.backend.service;
 
+import com.oshapp.backend.dto.SmsDeliveryReportDTO;
 import com.oshapp.backend.model.Appointment;
 import com.oshapp.backend.model.User;
 
@@ -7,7 +8,12 @@ import com.oshapp.backend.model.User;
 import java.util.List;
 
 public interface SmsService {
-    // In a real application, this would integrate with an SMS gateway like Twilio.
+    // messageTemplate receives (first name, appointment id, status); urgent visits are submitted first
     void sendAppointmentNotification(List<User> recipients, Appointment appointment, String messageTemplate);
+
+    // Queues one SMS for the user's phone number (employee profile first, then account)
+    void send(User recipient, String text, boolean urgent);
+
+    // Delivery status pushed by the gateway
+    void handleDeliveryReport(SmsDeliveryReportDTO report);
 }
- 
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.oshapp.backend.service;
+
+/**
+ * Agrégats journaliers des rendez-vous (appointment_daily_stats) et des accidents (accident_daily_stats),
+ * maintenus à chaque écriture et réconciliés chaque nuit par reconstruction complète.
+ */
+public interface StatisticsRollupService {
+    /**
+     * Reconstruit les agrégats depuis les tables des rendez-vous et des accidents.
+     * @return nombre de cases écrites
+     */
+    int reconcile();
+}
@@ -2,6 +2,13 @@ package com.oshapp.backend.service;
 
 import com.oshapp.backend.dto.ActivityDTO;
 import com.oshapp.backend.dto.AlertDTO;
+import com.oshapp.backend.dto.StatisticsTimeSeriesDTO;
+import com.oshapp.backend.dto.enums.TimeSeriesGranularity;
+import com.oshapp.backend.model.enums.AppointmentType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
 
 import java.util.List;
 import java.util.Map;
@@ -11,4 +18,7 @@ public interface StatisticsService {
     Map<String, Object> getRhDashboardStatistics();
     List<AlertDTO> getRhDashboardAlerts();
     List<ActivityDTO> getRhDashboardActivities();
+    Page<AlertDTO> getExpiringCertificateAlerts(Pageable pageable);
+    StatisticsTimeSeriesDTO getTimeSeries(TimeSeriesGranularity granularity, LocalDate from, LocalDate to,
+                                          String department, AppointmentType appointmentType, Long practitionerId);
 }
@@ -0,0 +1,147 @@
+package com.oshapp.backend.service.activity;
+
+import com.oshapp.backend.repository.LoginActivityHourlyStatRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Activité de connexion en mémoire : succès et échecs par minute sur 24 h glissantes et utilisateurs
+ * distincts estimés (HyperLogLog par tranche de 5 minutes). L'enregistrement d'une connexion ne fait
+ * aucune écriture en base ; les minutes révolues sont versées périodiquement dans login_activity_hourly_stats.
+ * Les fenêtres en mémoire couvrent l'activité depuis le démarrage de l'instance.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LoginActivityTracker {
+
+    private static final int DAY_MINUTES = 24 * 60;
+    private static final int SKETCH_MINUTES = 5;
+    // Marge au-delà de 24 h pour les minutes pas encore versées en base
+    private static final int RING_MINUTES = DAY_MINUTES + 120;
+
+    private final LoginActivityHourlyStatRepository hourlyStatRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.auth-activity.enabled:true}")
+    private boolean enabled;
+
+    private final MinuteCounterRing successes = new MinuteCounterRing(RING_MINUTES);
+    private final MinuteCounterRing failures = new MinuteCounterRing(RING_MINUTES);
+    private final UniqueUserSketches users = new UniqueUserSketches(RING_MINUTES / SKETCH_MINUTES, SKETCH_MINUTES);
+    private final long startedMinute = currentMinute();
+    private long flushedThroughMinute = startedMinute - 1;
+
+    public void recordSuccess(Long userId) {
+        if (!enabled) return;
+        long minute = currentMinute();
+        successes.increment(minute);
+        if (userId != null) users.add(minute, userId);
+    }
+
+    public void recordFailure() {
+        if (!enabled) return;
+        failures.increment(currentMinute());
+    }
+
+    public Snapshot snapshot() {
+        long now = currentMinute();
+        long hourStart = now - 59;
+        long dayStart = now - DAY_MINUTES + 1;
+        return new Snapshot(
+                toLocalDateTime(startedMinute),
+                successes.get(now), successes.sum(hourStart, now), successes.sum(dayStart, now),
+                failures.get(now), failures.sum(hourStart, now), failures.sum(dayStart, now),
+                users.estimate(hourStart, now), users.estimate(dayStart, now));
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth-activity.flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        if (!enabled) return;
+        try {
+            flush(currentMinute() - 1);
+        } catch (Exception e) {
+            log.warn("Login activity flush failed: {}", e.getMessage());
+        }
+    }
+
+    // Minute en cours incluse à l'arrêt de l'application
+    @PreDestroy
+    void flushOnShutdown() {
+        if (!enabled) return;
+        try {
+            flush(currentMinute());
+        } catch (Exception e) {
+            log.warn("Login activity flush on shutdown failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Verse les minutes ]flushedThroughMinute, throughMinute] dans les lignes horaires, en une transaction.
+     */
+    public synchronized void flush(long throughMinute) {
+        long from = Math.max(flushedThroughMinute + 1, throughMinute - RING_MINUTES + 1);
+        if (from > throughMinute) return;
+
+        // Heure -> {succès, échecs, dernière minute versée}
+        Map<LocalDateTime, long[]> hours = new LinkedHashMap<>();
+        for (long minute = from; minute <= throughMinute; minute++) {
+            long ok = successes.get(minute);
+            long ko = failures.get(minute);
+            if (ok == 0 && ko == 0) continue;
+            long[] totals = hours.computeIfAbsent(toLocalDateTime(minute).truncatedTo(ChronoUnit.HOURS), h -> new long[3]);
+            totals[0] += ok;
+            totals[1] += ko;
+            totals[2] = minute;
+        }
+        if (!hours.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> hours.forEach((hour, totals) -> {
+                // Utilisateurs distincts de l'heure vus par cette instance jusqu'à la dernière minute versée
+                long uniqueUsers = totals[0] > 0 ? users.estimate(toMinute(hour), totals[2]) : 0;
+                hourlyStatRepository.addToHour(hour, totals[0], totals[1], uniqueUsers);
+            }));
+        }
+        flushedThroughMinute = throughMinute;
+    }
+
+    private static long currentMinute() {
+        return Math.floorDiv(System.currentTimeMillis(), 60_000L);
+    }
+
+    private static LocalDateTime toLocalDateTime(long minute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(minute * 60), ZoneId.systemDefault());
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return Math.floorDiv(time.atZone(ZoneId.systemDefault()).toEpochSecond(), 60L);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final LocalDateTime trackingSince;
+        private final long successesLastMinute;
+        private final long successesLastHour;
+        private final long successesLastDay;
+        private final long failuresLastMinute;
+        private final long failuresLastHour;
+        private final long failuresLastDay;
+        private final long uniqueUsersLastHour;
+        private final long uniqueUsersLastDay;
+    }
+}
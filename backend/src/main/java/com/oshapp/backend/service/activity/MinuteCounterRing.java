@@ -0,0 +1,48 @@
+package com.oshapp.backend.service.activity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteurs par minute sur une fenêtre glissante, sans verrou : chaque case contient
+ * (minute << 32 | compte) et est mise à jour par CAS ; une case d'une minute révolue est réinitialisée
+ * par le premier incrément qui la réutilise.
+ */
+final class MinuteCounterRing {
+
+    private final int size;
+    private final AtomicLongArray slots;
+
+    MinuteCounterRing(int size) {
+        this.size = size;
+        this.slots = new AtomicLongArray(size);
+    }
+
+    void increment(long minute) {
+        int index = index(minute);
+        while (true) {
+            long current = slots.get(index);
+            long stamp = current >>> 32;
+            if (stamp > minute) return; // horloge revenue en arrière : case déjà réutilisée
+            long next = stamp == minute ? current + 1 : (minute << 32) | 1L;
+            if (slots.compareAndSet(index, current, next)) return;
+        }
+    }
+
+    long get(long minute) {
+        long value = slots.get(index(minute));
+        return (value >>> 32) == minute ? value & 0xFFFFFFFFL : 0L;
+    }
+
+    // Somme des minutes [fromMinute, toMinute] encore présentes dans l'anneau
+    long sum(long fromMinute, long toMinute) {
+        long total = 0;
+        for (long minute = Math.max(fromMinute, toMinute - size + 1); minute <= toMinute; minute++) {
+            total += get(minute);
+        }
+        return total;
+    }
+
+    private int index(long minute) {
+        return (int) Math.floorMod(minute, (long) size);
+    }
+}
@@ -0,0 +1,140 @@
+package com.oshapp.backend.service.dashboard;
+
+import com.oshapp.backend.model.listener.DashboardChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache de courte durée des tableaux de bord, indexé par type, section et utilisateur (ou global).
+ * Les requêtes identiques simultanées partagent un seul calcul (single-flight) : le premier appelant
+ * calcule sur son thread, les suivants attendent son résultat. Les entrées sont invalidées après commit
+ * par les {@link DashboardChangeEvent} ; la durée de vie borne la fraîcheur des données non suivies.
+ */
+@Component
+@Slf4j
+public class DashboardCache {
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public DashboardCache(@Value("${app.dashboard.cache.enabled:true}") boolean enabled,
+                          @Value("${app.dashboard.cache.ttl-seconds:5}") long ttlSeconds,
+                          @Value("${app.dashboard.cache.max-entries:2000}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlMillis = Math.max(0, ttlSeconds) * 1000L;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(DashboardType type, String section, Long scope, Supplier<T> loader) {
+        if (!enabled || ttlMillis == 0) return loader.get();
+        Key key = new Key(type, section, scope);
+        long now = System.currentTimeMillis();
+        Entry current = entries.get(key);
+        if (current != null && !current.isExpired(now)) return (T) await(current);
+
+        Entry fresh = new Entry();
+        Entry winner = entries.compute(key, (k, existing) -> existing == null || existing.isExpired(now) ? fresh : existing);
+        if (winner != fresh) return (T) await(winner);
+
+        try {
+            T value = loader.get();
+            fresh.expiresAt = System.currentTimeMillis() + ttlMillis;
+            fresh.value.complete(value);
+            if (entries.size() > maxEntries) evictExpired();
+            return value;
+        } catch (RuntimeException | Error e) {
+            // Échec non mis en cache : les appelants en attente reçoivent la même erreur
+            entries.remove(key, fresh);
+            fresh.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(DashboardType type) {
+        entries.keySet().removeIf(k -> k.getType() == type);
+    }
+
+    public void invalidate(DashboardType type, Set<Long> scopes) {
+        if (scopes == null || scopes.isEmpty()) {
+            invalidate(type);
+            return;
+        }
+        entries.keySet().removeIf(k -> k.getType() == type && scopes.contains(k.getScope()));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(DashboardChangeEvent event) {
+        switch (event.getSource()) {
+            case APPOINTMENT -> {
+                // File d'attente infirmier et statistiques globales ; médecin ciblé par son identifiant
+                invalidate(DashboardType.NURSE);
+                invalidate(DashboardType.DOCTOR, event.getUserIds());
+                invalidate(DashboardType.RH);
+                invalidate(DashboardType.ADMIN);
+            }
+            case NOTIFICATION -> invalidate(DashboardType.NURSE, event.getUserIds());
+            case ACCIDENT -> {
+                invalidate(DashboardType.HSE);
+                invalidate(DashboardType.RH);
+            }
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.isExpired(now));
+        if (entries.size() > maxEntries) {
+            log.debug("Dashboard cache above {} entries after eviction, clearing", maxEntries);
+            entries.clear();
+        }
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final DashboardType type;
+        private final String section;
+        private final Long scope;
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> value = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        // Un calcul en cours n'expire jamais : les appelants concurrents l'attendent
+        private boolean isExpired(long now) {
+            return value.isDone() && expiresAt < now;
+        }
+    }
+}
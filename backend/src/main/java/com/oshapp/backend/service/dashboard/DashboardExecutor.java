@@ -0,0 +1,96 @@
+package com.oshapp.backend.service.dashboard;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Chargement concurrent des sections d'un tableau de bord sur un pool borné.
+ * Chaque section s'exécute dans sa propre transaction en lecture seule (les mappers
+ * peuvent parcourir des associations paresseuses) ; le contexte de sécurité n'est pas
+ * propagé : les identifiants utiles sont résolus sur le thread appelant.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DashboardExecutor {
+
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.dashboard.workers:6}")
+    private int workers;
+
+    @Value("${app.dashboard.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.dashboard.section-timeout-seconds:10}")
+    private long sectionTimeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void start() {
+        int size = Math.max(1, workers);
+        AtomicInteger index = new AtomicInteger();
+        // File bornée ; saturée, la section s'exécute sur le thread de la requête (contre-pression)
+        executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "dashboard-" + index.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> section) {
+        return CompletableFuture.supplyAsync(() -> readOnly.execute(status -> section.get()), executor);
+    }
+
+    // Calcul synchrone sur le thread appelant, dans une transaction en lecture seule
+    public <T> T inReadOnlyTransaction(Supplier<T> work) {
+        return readOnly.execute(status -> work.get());
+    }
+
+    /**
+     * Résultat d'une section ; les erreurs sont relancées telles quelles pour conserver le traitement HTTP habituel.
+     */
+    public <T> T join(CompletableFuture<T> section) {
+        try {
+            return section.get(sectionTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            section.cancel(true);
+            throw new IllegalStateException("Dashboard section timed out after " + sectionTimeoutSeconds + "s", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dashboard loading interrupted", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.oshapp.backend.service.dashboard;
+
+/**
+ * Tableaux de bord mis en cache, utilisés pour cibler les invalidations.
+ */
+public enum DashboardType {
+    NURSE,
+    DOCTOR,
+    HSE,
+    RH,
+    ADMIN
+}
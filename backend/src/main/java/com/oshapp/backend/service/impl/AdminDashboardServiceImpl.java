@@ -1,13 +1,22 @@
 package com.oshapp.backend.service.impl;
 
 import com.oshapp.backend.dto.AdminDashboardData;
+import com.oshapp.backend.dto.AuthActivityDTO;
+import com.oshapp.backend.repository.LoginActivityHourlyStatRepository;
 import com.oshapp.backend.repository.UserRepository;
 import com.oshapp.backend.service.AdminDashboardService;
 import com.oshapp.backend.service.RoleService;
 import com.oshapp.backend.service.UserService;
+import com.oshapp.backend.service.activity.LoginActivityTracker;
+import com.oshapp.backend.service.dashboard.DashboardCache;
+import com.oshapp.backend.service.dashboard.DashboardType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class AdminDashboardServiceImpl implements AdminDashboardService {
@@ -15,16 +24,22 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
     private final UserService userService;
     private final RoleService roleService;
     private final UserRepository userRepository;
+    private final DashboardCache dashboardCache;
+    private final LoginActivityTracker loginActivityTracker;
+    private final LoginActivityHourlyStatRepository loginActivityHourlyStatRepository;
 
     @Override
     public AdminDashboardData getDashboardData() {
+        return dashboardCache.get(DashboardType.ADMIN, "dashboard", null, this::loadDashboardData);
+    }
+
+    private AdminDashboardData loadDashboardData() {
         long totalUsers = userService.countUsers();
         long activeUsers = userRepository.countByActive(true);
         long inactiveUsers = userRepository.countByActive(false);
         long totalRoles = roleService.countRoles();
-        // The 'recentLogins' is a placeholder for now.
-        // A more complex implementation would involve tracking login events.
-        long recentLogins = 0; 
+        // Successful logins over the last 24 hours (in-memory sliding window)
+        long recentLogins = loginActivityTracker.snapshot().getSuccessesLastDay();
         long awaitingVerificationUsers = userRepository.countByEnabled(false);
 
         return new AdminDashboardData(
@@ -36,4 +51,27 @@ public class AdminDashboardServiceImpl implements AdminDashboardService {
                 awaitingVerificationUsers
         );
     }
+
+    @Override
+    public AuthActivityDTO getAuthActivity(int hours) {
+        int window = Math.min(Math.max(1, hours), 24 * 31);
+        LoginActivityTracker.Snapshot snapshot = loginActivityTracker.snapshot();
+        AuthActivityDTO activity = new AuthActivityDTO();
+        activity.setTrackingSince(snapshot.getTrackingSince());
+        activity.setSuccessesLastMinute(snapshot.getSuccessesLastMinute());
+        activity.setSuccessesLastHour(snapshot.getSuccessesLastHour());
+        activity.setSuccessesLastDay(snapshot.getSuccessesLastDay());
+        activity.setFailuresLastMinute(snapshot.getFailuresLastMinute());
+        activity.setFailuresLastHour(snapshot.getFailuresLastHour());
+        activity.setFailuresLastDay(snapshot.getFailuresLastDay());
+        activity.setUniqueUsersLastHour(snapshot.getUniqueUsersLastHour());
+        activity.setUniqueUsersLastDay(snapshot.getUniqueUsersLastDay());
+
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(window - 1L);
+        activity.setHourly(loginActivityHourlyStatRepository.findByHourStartGreaterThanEqualOrderByHourStartAsc(from).stream()
+                .map(stat -> new AuthActivityDTO.HourlyPoint(stat.getHourStart(), stat.getSuccesses(),
+                        stat.getFailures(), stat.getUniqueUsers()))
+                .collect(Collectors.toList()));
+        return activity;
+    }
 }
@@ -15,6 +15,7 @@ import com.oshapp.backend.repository.AppointmentRepository;
 import com.oshapp.backend.repository.EmployeeRepository;
 import com.oshapp.backend.repository.UserRepository;
 import com.oshapp.backend.service.AppointmentService;
+import com.oshapp.backend.service.EmployeeService;
 import com.oshapp.backend.service.MultiChannelNotificationService;
 import com.oshapp.backend.service.notifications.NotificationActor;
 import lombok.RequiredArgsConstructor;
@@ -43,6 +44,7 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final AppointmentMapper appointmentMapper;
     private final UserRepository userRepository;
     private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
     private final MultiChannelNotificationService multiChannelNotificationService;
 
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
@@ -424,7 +426,8 @@ public class AppointmentServiceImpl implements AppointmentService {
                     .user(currentUser)
                     .profileCompleted(false)
                     .build();
-            return employeeRepository.save(newEmployee);
+            // Via le service employé : invalide le profil destinataire mis en cache pour l'utilisateur
+            return employeeService.createEmployeeFromUser(newEmployee);
         });
 
         Appointment appointment = appointmentMapper.toEntity(appointmentRequestDTO);
@@ -0,0 +1,247 @@
+package com.oshapp.backend.service.impl;
+
+import com.oshapp.backend.dto.DepartmentReportDTO;
+import com.oshapp.backend.model.enums.AppointmentStatus;
+import com.oshapp.backend.repository.AppointmentDailyStatRepository;
+import com.oshapp.backend.repository.AppointmentRepository;
+import com.oshapp.backend.repository.EmployeeRepository;
+import com.oshapp.backend.repository.MedicalCertificateRepository;
+import com.oshapp.backend.repository.WorkAccidentRepository;
+import com.oshapp.backend.service.DepartmentReportService;
+import com.oshapp.backend.service.dashboard.DashboardExecutor;
+import com.oshapp.backend.model.listener.AccidentRollupEvent;
+import com.oshapp.backend.model.listener.AppointmentRollupEvent;
+import com.oshapp.backend.model.listener.AppointmentStatKey;
+import com.oshapp.backend.model.listener.EmployeeChangeEvent;
+import com.oshapp.backend.model.listener.EmployeeSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rapport par département. Chaque indicateur est une requête groupée par département (une seule passe pour
+ * tous les départements), les cinq requêtes s'exécutant en parallèle sur le pool des tableaux de bord.
+ * Le résultat est conservé en mémoire ; les écritures de rendez-vous et d'accidents marquent leurs employés,
+ * les écritures d'employés et les déplacements de rendez-vous leurs départements (ancien et nouveau) :
+ * seuls ces départements sont recalculés à la lecture suivante. Un recalcul complet a lieu au changement
+ * de jour (fenêtre des certificats) et au plus tard toutes les app.reports.department.full-refresh-minutes.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DepartmentReportServiceImpl implements DepartmentReportService {
+
+    private final EmployeeRepository employeeRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentDailyStatRepository appointmentDailyStatRepository;
+    private final WorkAccidentRepository workAccidentRepository;
+    private final MedicalCertificateRepository medicalCertificateRepository;
+    private final DashboardExecutor dashboardExecutor;
+
+    @Value("${app.reports.department.period-months:12}")
+    private int periodMonths;
+
+    @Value("${app.reports.department.certificate-window-days:30}")
+    private int certificateWindowDays;
+
+    @Value("${app.reports.department.full-refresh-minutes:60}")
+    private long fullRefreshMinutes;
+
+    private final Set<Long> dirtyEmployeeIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> dirtyDepartments = ConcurrentHashMap.newKeySet();
+    private volatile boolean fullRefreshRequested;
+    private volatile Snapshot current;
+
+    @Override
+    public DepartmentReportDTO getReport(boolean forceRefresh) {
+        Snapshot snapshot = current;
+        if (forceRefresh || isStale(snapshot) || !dirtyEmployeeIds.isEmpty() || !dirtyDepartments.isEmpty()) {
+            // Un seul recalcul à la fois ; les appelants en attente réutilisent son résultat
+            synchronized (this) {
+                snapshot = refresh(forceRefresh);
+            }
+        }
+        return toDto(snapshot);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentMoved(AppointmentRollupEvent event) {
+        markDirty(event.getRemoved());
+        markDirty(event.getAdded());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccidentChanged(AccidentRollupEvent event) {
+        if (event.getEmployeeId() != null) {
+            dirtyEmployeeIds.add(event.getEmployeeId());
+        } else {
+            fullRefreshRequested = true;
+        }
+    }
+
+    // Création, suppression ou changement de département d'un employé : effectifs des deux départements
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangeEvent event) {
+        markDirty(event.getPrevious());
+        markDirty(event.getCurrent());
+    }
+
+    private void markDirty(EmployeeSnapshot snapshot) {
+        if (snapshot != null) dirtyDepartments.add(snapshot.getDepartment());
+    }
+
+    private void markDirty(AppointmentStatKey key) {
+        if (key == null) return;
+        // Département sous lequel le rendez-vous a été compté : l'employé peut l'avoir quitté depuis
+        if (key.getDepartment() != null) dirtyDepartments.add(key.getDepartment());
+        if (key.getEmployeeId() != null) {
+            dirtyEmployeeIds.add(key.getEmployeeId());
+        } else {
+            fullRefreshRequested = true;
+        }
+    }
+
+    private Snapshot refresh(boolean force) {
+        Snapshot snapshot = current;
+        if (force || fullRefreshRequested || isStale(snapshot)) {
+            fullRefreshRequested = false;
+            dirtyEmployeeIds.clear();
+            dirtyDepartments.clear();
+            long start = System.currentTimeMillis();
+            Map<String, DepartmentReportDTO.DepartmentStats> rows = compute(null);
+            snapshot = new Snapshot(rows, LocalDateTime.now(), LocalDate.now());
+            log.info("Department report computed: {} departments in {} ms", rows.size(), System.currentTimeMillis() - start);
+        } else if (!dirtyEmployeeIds.isEmpty() || !dirtyDepartments.isEmpty()) {
+            Set<Long> employeeIds = new HashSet<>();
+            for (Long id : dirtyEmployeeIds) {
+                if (dirtyEmployeeIds.remove(id)) employeeIds.add(id);
+            }
+            Set<String> departments = new HashSet<>();
+            for (String department : dirtyDepartments) {
+                if (dirtyDepartments.remove(department)) departments.add(department);
+            }
+            if (!employeeIds.isEmpty()) {
+                for (Object[] row : employeeRepository.findDepartmentsByIdIn(employeeIds)) {
+                    departments.add(row[1] != null ? (String) row[1] : "");
+                }
+            }
+            if (departments.isEmpty()) return snapshot;
+            Map<String, DepartmentReportDTO.DepartmentStats> rows = new TreeMap<>(snapshot.getRows());
+            departments.forEach(rows::remove);
+            rows.putAll(compute(departments));
+            snapshot = new Snapshot(rows, snapshot.getComputedAt(), snapshot.getDay());
+            log.debug("Department report refreshed for {} departments", departments.size());
+        }
+        current = snapshot;
+        return snapshot;
+    }
+
+    private boolean isStale(Snapshot snapshot) {
+        return snapshot == null
+                || fullRefreshRequested
+                || !snapshot.getDay().equals(LocalDate.now())
+                || snapshot.getComputedAt().isBefore(LocalDateTime.now().minusMinutes(fullRefreshMinutes));
+    }
+
+    /**
+     * Calcule les indicateurs des départements donnés (null : tous). Département absent : ''.
+     */
+    private Map<String, DepartmentReportDTO.DepartmentStats> compute(Collection<String> departments) {
+        boolean all = departments == null;
+        // Liste jamais vide : IN () est invalide en SQL même lorsque le filtre est désactivé
+        Collection<String> filter = all ? List.of("") : departments;
+        LocalDate today = LocalDate.now();
+        LocalDate periodStart = today.minusMonths(periodMonths);
+        LocalDateTime since = periodStart.atStartOfDay();
+
+        CompletableFuture<List<Object[]>> headcounts = dashboardExecutor.supply(() ->
+                employeeRepository.countHeadcountAndPeriodicDueByDepartment(since, all, filter));
+        CompletableFuture<List<Object[]>> appointments = dashboardExecutor.supply(() ->
+                appointmentDailyStatRepository.sumByDepartmentAndStatusSince(periodStart, all, filter));
+        CompletableFuture<List<Object[]>> latencies = dashboardExecutor.supply(() ->
+                appointmentRepository.averageConfirmationHoursByDepartment(since, all, filter));
+        CompletableFuture<List<Object[]>> accidents = dashboardExecutor.supply(() ->
+                workAccidentRepository.countOpenByDepartment(all, filter));
+        CompletableFuture<List<Object[]>> certificates = dashboardExecutor.supply(() ->
+                medicalCertificateRepository.countExpiringByDepartment(today, today.plusDays(certificateWindowDays), all, filter));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, DepartmentReportDTO.DepartmentStats> rows = new TreeMap<>();
+        for (Object[] row : dashboardExecutor.join(headcounts)) {
+            DepartmentReportDTO.DepartmentStats stats = row(rows, row[0], now);
+            stats.setHeadcount(toLong(row[1]));
+            stats.setEmployeesDueForPeriodicVisit(toLong(row[2]));
+        }
+        for (Object[] row : dashboardExecutor.join(appointments)) {
+            DepartmentReportDTO.DepartmentStats stats = row(rows, row[0], now);
+            long count = toLong(row[2]);
+            stats.setAppointments(stats.getAppointments() + count);
+            if (AppointmentStatus.COMPLETED.name().equals(row[1])) stats.setCompletedAppointments(count);
+            if (AppointmentStatus.CANCELLED.name().equals(row[1])) stats.setCancelledAppointments(count);
+        }
+        for (Object[] row : dashboardExecutor.join(latencies)) {
+            DepartmentReportDTO.DepartmentStats stats = row(rows, row[0], now);
+            stats.setAverageConfirmationHours(row[1] != null ? Math.round(((Number) row[1]).doubleValue() * 10) / 10.0 : null);
+            stats.setConfirmationsMeasured(toLong(row[2]));
+        }
+        for (Object[] row : dashboardExecutor.join(accidents)) {
+            row(rows, row[0], now).setOpenAccidents(toLong(row[1]));
+        }
+        for (Object[] row : dashboardExecutor.join(certificates)) {
+            row(rows, row[0], now).setExpiringCertificates(toLong(row[1]));
+        }
+        rows.values().forEach(stats -> stats.setCompletionRate(stats.getAppointments() > 0
+                ? Math.round(stats.getCompletedAppointments() * 1000.0 / stats.getAppointments()) / 10.0
+                : null));
+        return rows;
+    }
+
+    private static DepartmentReportDTO.DepartmentStats row(Map<String, DepartmentReportDTO.DepartmentStats> rows,
+                                                           Object department, LocalDateTime now) {
+        String key = department != null ? (String) department : "";
+        return rows.computeIfAbsent(key, k -> {
+            DepartmentReportDTO.DepartmentStats stats = new DepartmentReportDTO.DepartmentStats();
+            stats.setDepartment(k.isEmpty() ? null : k);
+            stats.setRefreshedAt(now);
+            return stats;
+        });
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private DepartmentReportDTO toDto(Snapshot snapshot) {
+        DepartmentReportDTO report = new DepartmentReportDTO();
+        report.setGeneratedAt(snapshot.getComputedAt());
+        report.setPeriodMonths(periodMonths);
+        report.setCertificateWindowDays(certificateWindowDays);
+        report.setDepartments(new ArrayList<>(snapshot.getRows().values()));
+        return report;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Snapshot {
+        private final Map<String, DepartmentReportDTO.DepartmentStats> rows;
+        private final LocalDateTime computedAt;
+        private final LocalDate day;
+    }
+}
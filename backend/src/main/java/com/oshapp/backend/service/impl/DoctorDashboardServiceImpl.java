@@ -4,20 +4,27 @@ import com.oshapp.backend.dto.ActivityDTO;
 import com.oshapp.backend.dto.AlertDTO;
 import com.oshapp.backend.dto.DoctorDashboardDTO;
 import com.oshapp.backend.dto.StatsDTO;
-import com.oshapp.backend.model.Appointment;
-import com.oshapp.backend.model.Employee;
 import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.AppointmentStatus;
 import com.oshapp.backend.repository.AppointmentRepository;
 import com.oshapp.backend.repository.UserRepository;
-import com.oshapp.backend.service.EmployeeService;
+import com.oshapp.backend.security.UserPrincipal;
 import com.oshapp.backend.service.DoctorDashboardService;
+import com.oshapp.backend.service.dashboard.DashboardCache;
+import com.oshapp.backend.service.dashboard.DashboardExecutor;
+import com.oshapp.backend.service.dashboard.DashboardType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,44 +33,54 @@ public class DoctorDashboardServiceImpl implements DoctorDashboardService {
 
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
-    private final EmployeeService employeeService;
+    private final DashboardCache dashboardCache;
+    private final DashboardExecutor dashboardExecutor;
 
+    @Value("${app.dashboard.list-limit:20}")
+    private int listLimit;
+
+    /**
+     * Lecture seule : compteurs groupés et deux listes bornées, au plus quatre requêtes
+     * (trois lorsque l'identifiant est porté par le principal).
+     */
     @Override
     public DoctorDashboardDTO getDashboardData() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User doctor = userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new IllegalStateException("Doctor not found for username: " + username));
-
-        Employee employee = employeeService.getEmployeeByUserId(doctor.getId())
-                .orElseGet(() -> employeeService.createEmployeeFromUser(new Employee(doctor)));
-
-        List<Appointment> doctorAppointments = appointmentRepository.findByDoctorId(employee.getId());
+        Long doctorId = currentDoctorId();
+        return dashboardCache.get(DashboardType.DOCTOR, "dashboard", doctorId,
+                () -> dashboardExecutor.inReadOnlyTransaction(() -> loadDashboardData(doctorId)));
+    }
 
-        long pendingCount = doctorAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.REQUESTED_EMPLOYEE).count();
-        long proposedCount = doctorAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.PROPOSED_MEDECIN).count();
-        long confirmedCount = doctorAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED).count();
-        long completedCount = doctorAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.COMPLETED).count();
+    private DoctorDashboardDTO loadDashboardData(Long doctorId) {
+        Pageable top = PageRequest.of(0, Math.max(1, listLimit));
 
-        StatsDTO stats = new StatsDTO(pendingCount, proposedCount, confirmedCount, completedCount);
+        Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+        for (Object[] row : appointmentRepository.countByStatusForDoctor(doctorId)) {
+            if (row[0] != null) byStatus.put((AppointmentStatus) row[0], (Long) row[1]);
+        }
+        StatsDTO stats = new StatsDTO(
+                byStatus.getOrDefault(AppointmentStatus.REQUESTED_EMPLOYEE, 0L),
+                byStatus.getOrDefault(AppointmentStatus.PROPOSED_MEDECIN, 0L),
+                byStatus.getOrDefault(AppointmentStatus.CONFIRMED, 0L),
+                byStatus.getOrDefault(AppointmentStatus.COMPLETED, 0L));
 
-        List<AlertDTO> alerts = doctorAppointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.REQUESTED_EMPLOYEE)
+        List<AlertDTO> alerts = appointmentRepository
+                .findRecentByDoctorIdAndStatus(doctorId, AppointmentStatus.REQUESTED_EMPLOYEE, top).stream()
                 .map(a -> new AlertDTO(
                         String.valueOf(a.getId()),
                         "Rendez-vous en attente",
-                                                "Le rendez-vous pour " + a.getEmployee().getFirstName() + " attend votre validation.",
-                        a.getCreatedAt().toString(),
+                        "Le rendez-vous pour " + a.getEmployee().getFirstName() + " attend votre validation.",
+                        String.valueOf(a.getCreatedAt()),
                         "high",
                         "/appointments/" + a.getId()))
                 .collect(Collectors.toList());
 
-        List<ActivityDTO> activities = doctorAppointments.stream()
-                .filter(a -> a.getUpdatedAt().isAfter(LocalDateTime.now().minusDays(7)))
-                .filter(a -> a.getEmployee() != null) // Safely skip appointments with no employee
+        // Appointments without employee are excluded by the join
+        List<ActivityDTO> activities = appointmentRepository
+                .findRecentlyUpdatedByDoctorId(doctorId, LocalDateTime.now().minusDays(7), top).stream()
                 .map(a -> new ActivityDTO(
                         String.valueOf(a.getId()),
                         "Mise à jour RDV: " + a.getStatus(),
-                                                "Patient: " + a.getEmployee().getFirstName(),
+                        "Patient: " + a.getEmployee().getFirstName(),
                         a.getUpdatedAt().toString(),
                         "APPOINTMENT",
                         "/appointments/" + a.getId()))
@@ -71,4 +88,16 @@ public class DoctorDashboardServiceImpl implements DoctorDashboardService {
 
         return new DoctorDashboardDTO(stats, alerts, activities, 0);
     }
+
+    // Appointment.doctor référence l'utilisateur : aucune fiche employé n'est nécessaire (ni créée) en lecture
+    private Long currentDoctorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getId() != null) {
+            return principal.getId();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsernameOrEmail(username, username)
+                .map(User::getId)
+                .orElseThrow(() -> new IllegalStateException("Doctor not found for username: " + username));
+    }
 }
@@ -0,0 +1,419 @@
+package com.oshapp.backend.service.impl;
+
+import com.oshapp.backend.config.EmailQueueProperties;
+import com.oshapp.backend.dto.EmailDeadLetterDTO;
+import com.oshapp.backend.dto.EmailQueueStatsDTO;
+import com.oshapp.backend.exception.ResourceNotFoundException;
+import com.oshapp.backend.model.EmailDeadLetter;
+import com.oshapp.backend.model.EmailOutboxMessage;
+import com.oshapp.backend.model.enums.EmailOutboxStatus;
+import com.oshapp.backend.model.enums.EmailPriority;
+import com.oshapp.backend.repository.EmailDeadLetterRepository;
+import com.oshapp.backend.repository.EmailOutboxRepository;
+import com.oshapp.backend.service.EmailQueueService;
+import com.oshapp.backend.service.mail.EmailAssets;
+import com.oshapp.backend.service.mail.EmailRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EmailQueueServiceImpl implements EmailQueueService {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final EmailQueueProperties properties;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailRateLimiter rateLimiter;
+    private final EmailAssets assets;
+
+    // Libellé stocké dans to_email pour un envoi groupé, les adresses réelles sont dans bcc_emails
+    private static final String UNDISCLOSED_RECIPIENTS = "undisclosed-recipients:;";
+
+    @Value("${spring.mail.username:}")
+    private String mailUsername;
+
+    private ThreadPoolExecutor workers;
+
+    private final AtomicLong sentSinceStartup = new AtomicLong();
+    private final AtomicLong retriesSinceStartup = new AtomicLong();
+    private final AtomicLong deadLetteredSinceStartup = new AtomicLong();
+    // Horodatages des envois de la dernière minute (débit)
+    private final ConcurrentLinkedDeque<Long> recentSends = new ConcurrentLinkedDeque<>();
+
+    @PostConstruct
+    void startWorkers() {
+        int size = Math.max(1, properties.getWorkers());
+        AtomicInteger index = new AtomicInteger();
+        // File bornée : le dispatcher ne réserve jamais plus de messages que de places libres
+        workers = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getBatchSize())),
+                r -> {
+                    Thread t = new Thread(r, "email-worker-" + index.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                // Les messages restés en cours d'envoi seront repris via staleProcessingMinutes
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void enqueue(String toEmail, String subject, String htmlBody, boolean inlineLogo, EmailPriority priority) {
+        save(toEmail, null, subject, htmlBody, inlineLogo, priority);
+        log.debug("Email queued for {} with subject: {}", toEmail, subject);
+    }
+
+    @Override
+    public void enqueueGroup(Collection<String> toEmails, String subject, String htmlBody, boolean inlineLogo, EmailPriority priority) {
+        List<String> addresses = toEmails.stream()
+                .filter(e -> e != null && !e.isBlank())
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.toList());
+        if (addresses.isEmpty()) return;
+        if (addresses.size() == 1 || !properties.isBccGroupingEnabled()) {
+            addresses.forEach(address -> enqueue(address, subject, htmlBody, inlineLogo, priority));
+            return;
+        }
+        // Un groupe consomme un jeton par destinataire : jamais plus que ce que la voie peut obtenir
+        int groupSize = Math.max(1, Math.min(properties.getBccMaxGroupSize(), rateLimiter.maxBurst(priorityOrDefault(priority))));
+        for (int from = 0; from < addresses.size(); from += groupSize) {
+            List<String> group = addresses.subList(from, Math.min(from + groupSize, addresses.size()));
+            if (group.size() == 1) {
+                save(group.get(0), null, subject, htmlBody, inlineLogo, priority);
+            } else {
+                save(UNDISCLOSED_RECIPIENTS, String.join(",", group), subject, htmlBody, inlineLogo, priority);
+            }
+        }
+        log.debug("Email queued for {} recipients in groups of {} with subject: {}", addresses.size(), groupSize, subject);
+    }
+
+    private void save(String toEmail, String bccEmails, String subject, String htmlBody, boolean inlineLogo, EmailPriority priority) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutboxMessage message = EmailOutboxMessage.builder()
+                .toEmail(toEmail)
+                .bccEmails(bccEmails)
+                .recipientCount(bccEmails != null && !bccEmails.isBlank() ? bccEmails.split(",").length : 1)
+                .subject(subject)
+                .htmlBody(htmlBody)
+                .inlineLogo(inlineLogo)
+                .status(EmailOutboxStatus.PENDING)
+                .priority(priorityOrDefault(priority))
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        outboxRepository.save(message);
+    }
+
+    private static EmailPriority priorityOrDefault(EmailPriority priority) {
+        return priority != null ? priority : EmailPriority.NORMAL;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.queue.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!properties.isEnabled() || workers.isShutdown()) return;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.execute(status ->
+                    outboxRepository.releaseStale(now.minusMinutes(Math.max(1, properties.getStaleProcessingMinutes()))));
+
+            int sendBatchSize = Math.max(1, properties.getSendBatchSize());
+            int capacity = (int) Math.min(properties.getBatchSize(), (long) workers.getQueue().remainingCapacity() * sendBatchSize);
+            if (capacity <= 0) return;
+            List<Long> ids = new ArrayList<>();
+            int maxRecipientsPerMessage = properties.isBccGroupingEnabled() ? Math.max(1, properties.getBccMaxGroupSize()) : 1;
+            // Voies servies par ordre de priorité, dans la limite des jetons du relais ; le reste attend en file.
+            // Un jeton par destinataire : un envoi groupé en copie cachée consomme la taille du groupe.
+            for (EmailPriority priority : EmailPriority.values()) {
+                int rowsLeft = capacity - ids.size();
+                int permits = rateLimiter.acquireUpTo(priority, (int) Math.min(Integer.MAX_VALUE, (long) rowsLeft * maxRecipientsPerMessage));
+                if (permits <= 0) continue;
+                int maxBurst = rateLimiter.maxBurst(priority);
+                int[] used = new int[1];
+                List<Long> claimed = transactionTemplate.execute(status -> {
+                    List<Long> due = new ArrayList<>();
+                    for (Object[] row : outboxRepository.lockDueRecipients(priority.ordinal(), now, Math.min(rowsLeft, permits))) {
+                        // Plafonné à maxBurst : un groupe enregistré avant un changement de quota reste envoyable
+                        int cost = Math.min(Math.max(1, ((Number) row[1]).intValue()), maxBurst);
+                        // Ordre FIFO conservé : on s'arrête au premier message qui ne tient pas dans les jetons
+                        if (used[0] + cost > permits) break;
+                        used[0] += cost;
+                        due.add(((Number) row[0]).longValue());
+                    }
+                    if (!due.isEmpty()) outboxRepository.markStatus(due, EmailOutboxStatus.PROCESSING, now);
+                    return due;
+                });
+                rateLimiter.release(permits - used[0]);
+                if (claimed != null && !claimed.isEmpty()) ids.addAll(claimed);
+                if (ids.size() >= capacity) break;
+            }
+            if (ids.isEmpty()) return;
+            // Un lot par worker : une seule connexion SMTP (STARTTLS + authentification) pour tout le lot
+            List<EmailOutboxMessage> messages = outboxRepository.findAllById(ids);
+            for (int i = 0; i < messages.size(); i += sendBatchSize) {
+                List<EmailOutboxMessage> batch = messages.subList(i, Math.min(messages.size(), i + sendBatchSize));
+                workers.execute(() -> deliver(batch));
+            }
+        } catch (Exception e) {
+            log.error("Email dispatch cycle failed: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(List<EmailOutboxMessage> batch) {
+        // Rendu MIME de tout le lot avant d'ouvrir la connexion
+        Map<MimeMessage, EmailOutboxMessage> prepared = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            try {
+                prepared.put(buildMimeMessage(message), message);
+            } catch (Exception e) {
+                onFailure(message, new MailPreparationException("Could not build email", e));
+            }
+        }
+        if (prepared.isEmpty()) return;
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            // JavaMailSenderImpl réutilise le même Transport pour tout le tableau et se reconnecte s'il est coupé
+            mailSender.send(prepared.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(prepared, e) : e.getFailedMessages();
+        } catch (Exception e) {
+            // Connexion ou authentification impossible : tout le lot est à reprendre
+            failures = allFailed(prepared, e);
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : prepared.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                onFailure(entry.getValue(), failure);
+            } else {
+                sentIds.add(entry.getValue().getId());
+            }
+        }
+        if (sentIds.isEmpty()) return;
+        try {
+            outboxRepository.deleteAllByIdInBatch(sentIds);
+        } catch (Exception e) {
+            // Ligne restée PROCESSING : elle sera renvoyée après staleProcessingMinutes
+            log.error("Failed to remove {} sent emails from the queue: {}", sentIds.size(), e.getMessage());
+        }
+        sentSinceStartup.addAndGet(sentIds.size());
+        recordSends(sentIds.size());
+        log.info("Sent {} queued emails over one SMTP connection ({} failed)", sentIds.size(), failures.size());
+    }
+
+    private Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutboxMessage> prepared, Exception e) {
+        Map<Object, Exception> failures = new LinkedHashMap<>();
+        prepared.keySet().forEach(m -> failures.put(m, e));
+        return failures;
+    }
+
+    private MimeMessage buildMimeMessage(EmailOutboxMessage message) throws Exception {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isInlineLogo(), "utf-8");
+        if (message.getBccEmails() != null && !message.getBccEmails().isBlank()) {
+            // Les destinataires ne voient pas les autres adresses du groupe ; l'expéditeur reçoit la copie visible
+            if (mailUsername != null && !mailUsername.isBlank()) helper.setTo(mailUsername);
+            helper.setBcc(InternetAddress.parse(message.getBccEmails()));
+        } else {
+            helper.setTo(message.getToEmail());
+        }
+        if (mailUsername != null && !mailUsername.isBlank()) {
+            try { helper.setFrom(mailUsername); } catch (Exception ignored) {}
+        }
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getHtmlBody(), true);
+        if (message.isInlineLogo() && assets.getLogo() != null) {
+            helper.addInline(EmailAssets.LOGO_CONTENT_ID, assets.getLogo());
+        }
+        return mimeMessage;
+    }
+
+    private void onFailure(EmailOutboxMessage message, Exception e) {
+        int attempts = message.getAttempts() + 1;
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage(), 1000);
+        // Adresse ou message invalide : inutile de réessayer
+        boolean permanent = e instanceof MailParseException || e instanceof MailPreparationException;
+        try {
+            if (permanent || attempts >= properties.getMaxAttempts()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    deadLetterRepository.save(EmailDeadLetter.builder()
+                            .toEmail(message.getToEmail())
+                            .bccEmails(message.getBccEmails())
+                            .subject(message.getSubject())
+                            .htmlBody(message.getHtmlBody())
+                            .inlineLogo(message.isInlineLogo())
+                            .priority(message.getPriority())
+                            .attempts(attempts)
+                            .lastError(error)
+                            .createdAt(message.getCreatedAt())
+                            .failedAt(LocalDateTime.now())
+                            .build());
+                    outboxRepository.deleteById(message.getId());
+                });
+                deadLetteredSinceStartup.incrementAndGet();
+                log.error("Email to {} moved to dead letters after {} attempts: {}", message.getToEmail(), attempts, error);
+            } else {
+                message.setAttempts(attempts);
+                message.setLastError(error);
+                message.setStatus(EmailOutboxStatus.PENDING);
+                message.setLockedAt(null);
+                message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+                outboxRepository.save(message);
+                retriesSinceStartup.incrementAndGet();
+                log.warn("Email to {} failed (attempt {}/{}), retry at {}: {}", message.getToEmail(), attempts,
+                        properties.getMaxAttempts(), message.getNextAttemptAt(), error);
+            }
+        } catch (Exception ex) {
+            // Le message reste PROCESSING et sera repris après staleProcessingMinutes
+            log.error("Failed to record email failure for {}: {}", message.getToEmail(), ex.getMessage());
+        }
+    }
+
+    // Reprise exponentielle : initial, 2x, 4x... plafonnée
+    private long backoffSeconds(int attempts) {
+        long initial = Math.max(1, properties.getInitialBackoffSeconds());
+        long delay = initial << Math.min(attempts - 1, 20);
+        return Math.min(delay, Math.max(initial, properties.getMaxBackoffSeconds()));
+    }
+
+    private void recordSends(int count) {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) recentSends.addLast(now);
+        pruneRecentSends(now);
+    }
+
+    private void pruneRecentSends(long now) {
+        Long head;
+        while ((head = recentSends.peekFirst()) != null && head < now - 60_000) {
+            recentSends.pollFirst();
+        }
+    }
+
+    @Override
+    public EmailQueueStatsDTO getStats() {
+        EmailQueueStatsDTO stats = new EmailQueueStatsDTO();
+        stats.setPending(outboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        for (EmailPriority priority : EmailPriority.values()) {
+            stats.getPendingByPriority().put(priority, outboxRepository.countByStatusAndPriority(EmailOutboxStatus.PENDING, priority));
+        }
+        stats.setProcessing(outboxRepository.countByStatus(EmailOutboxStatus.PROCESSING));
+        stats.setDeadLetters(deadLetterRepository.count());
+        LocalDateTime oldest = outboxRepository.findOldestPendingCreatedAt();
+        stats.setOldestPendingCreatedAt(oldest);
+        stats.setOldestPendingAgeSeconds(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()) : 0);
+        pruneRecentSends(System.currentTimeMillis());
+        stats.setSentLastMinute(recentSends.size());
+        stats.setSentSinceStartup(sentSinceStartup.get());
+        stats.setRetriesSinceStartup(retriesSinceStartup.get());
+        stats.setDeadLetteredSinceStartup(deadLetteredSinceStartup.get());
+        stats.setWorkers(workers.getCorePoolSize());
+        stats.setInFlight(workers.getActiveCount() + workers.getQueue().size());
+        stats.setRateLimitProvider(rateLimiter.getProvider());
+        stats.setRateLimitMinuteTokens(rateLimiter.availablePerMinute());
+        stats.setRateLimitDayTokens(rateLimiter.availablePerDay());
+        return stats;
+    }
+
+    @Override
+    public Page<EmailDeadLetterDTO> getDeadLetters(Pageable pageable) {
+        return deadLetterRepository.findAllByOrderByFailedAtDesc(pageable).map(this::mapToDTO);
+    }
+
+    @Override
+    public void replayDeadLetter(Long id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            EmailDeadLetter deadLetter = deadLetterRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Dead letter not found with id: " + id));
+            requeue(deadLetter);
+        });
+    }
+
+    @Override
+    public int replayAllDeadLetters() {
+        int replayed = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<EmailDeadLetter> batch = deadLetterRepository.findAll(PageRequest.of(0, 500)).getContent();
+                batch.forEach(this::requeue);
+                return batch.size();
+            });
+            if (count == null || count == 0) break;
+            replayed += count;
+        }
+        log.info("Replayed {} dead-letter emails", replayed);
+        return replayed;
+    }
+
+    private void requeue(EmailDeadLetter deadLetter) {
+        save(deadLetter.getToEmail(), deadLetter.getBccEmails(), deadLetter.getSubject(), deadLetter.getHtmlBody(),
+                deadLetter.isInlineLogo(), deadLetter.getPriority());
+        deadLetterRepository.delete(deadLetter);
+    }
+
+    private EmailDeadLetterDTO mapToDTO(EmailDeadLetter deadLetter) {
+        EmailDeadLetterDTO dto = new EmailDeadLetterDTO();
+        dto.setId(deadLetter.getId());
+        dto.setToEmail(deadLetter.getToEmail());
+        dto.setRecipientCount(deadLetter.getBccEmails() != null && !deadLetter.getBccEmails().isBlank()
+                ? deadLetter.getBccEmails().split(",").length : 1);
+        dto.setSubject(deadLetter.getSubject());
+        dto.setAttempts(deadLetter.getAttempts());
+        dto.setLastError(deadLetter.getLastError());
+        dto.setCreatedAt(deadLetter.getCreatedAt());
+        dto.setFailedAt(deadLetter.getFailedAt());
+        return dto;
+    }
+
+    private String truncate(String s, int max) {
+        if (s == null) return null;
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+}
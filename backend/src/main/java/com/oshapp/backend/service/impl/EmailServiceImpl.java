@@ -2,118 +2,97 @@ package com.oshapp.backend.service.impl;
 
 import com.oshapp.backend.model.Appointment;
 import com.oshapp.backend.model.User;
-import com.oshapp.backend.model.enums.RoleName;
+import com.oshapp.backend.model.enums.EmailPriority;
+import com.oshapp.backend.service.EmailQueueService;
 import com.oshapp.backend.service.EmailService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.oshapp.backend.service.mail.AppointmentEmailPayload;
+import com.oshapp.backend.service.mail.AppointmentEmailRenderer;
+import com.oshapp.backend.service.mail.AppointmentEmailRequest;
+import com.oshapp.backend.service.mail.EmailAddressResolver;
+import com.oshapp.backend.service.mail.EmailDigest;
+import com.oshapp.backend.service.mail.EmailDigestBuffer;
+import com.oshapp.backend.service.mail.EmailRecipient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Map;
-
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Point d'entrée des emails. Les entités reçues sont copiées sur le thread appelant
+ * ({@link AppointmentEmailPayload}, {@link EmailRecipient}) avant tout traitement asynchrone ;
+ * l'envoi SMTP est assuré par la file persistante ({@link EmailQueueService}).
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
     private final Environment environment;
+    private final EmailDigestBuffer digestBuffer;
+    private final EmailQueueService emailQueue;
+    private final AppointmentEmailRenderer appointmentRenderer;
+    private final EmailAddressResolver addressResolver;
 
-    @Value("${spring.mail.username:}")
-    private String mailUsername;
-
-    @Value("${app.mail.redirect.enabled:false}")
-    private boolean redirectEnabled;
+    // Lot de notifications ouvert sur le thread courant (voir beginBatch)
+    private static final ThreadLocal<BatchScope> BATCH = new ThreadLocal<>();
 
     private boolean isDockerProfileActive() {
         return Arrays.stream(environment.getActiveProfiles()).anyMatch(p -> "docker".equalsIgnoreCase(p));
     }
 
-    private String resolveRecipientEmail(String original) {
-        if (original == null || original.isBlank()) return null;
-        if (redirectEnabled && original.toLowerCase().endsWith("@gmail.com")) {
-            if (mailUsername != null && !mailUsername.isBlank()) {
-                log.warn("[Mail Redirect] redirecting email from {} to {} (app.mail.redirect.enabled=true)", original, mailUsername);
-                return mailUsername;
-            }
-        }
-        return original;
-    }
-
-    private String getUserDisplayName(User user) {
-        if (user.getEmployee() != null && user.getEmployee().getFirstName() != null && !user.getEmployee().getFirstName().isEmpty()) {
-            return user.getEmployee().getFirstName();
-        }
-        return user.getUsername();
-    }
-
     @Override
-    @Async
     public void sendActivationEmail(User user, String token) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-
             Context context = new Context();
-            context.setVariable("name", getUserDisplayName(user));
+            context.setVariable("name", EmailRecipient.displayName(user));
             context.setVariable("token", token);
 
             String htmlContent = templateEngine.process("activation-email", context);
 
-            helper.setTo(user.getEmail());
-            helper.setSubject("Activez votre compte OSHapp");
-            helper.setText(htmlContent, true);
-
-            mailSender.send(mimeMessage);
-            log.info("Activation email sent to {}", user.getEmail());
-        } catch (MessagingException e) {
-            log.error("Failed to send activation email to {}", user.getEmail(), e);
+            emailQueue.enqueue(user.getEmail(), "Activez votre compte OSHapp", htmlContent, false, EmailPriority.CRITICAL);
+            log.info("Activation email queued for {}", user.getEmail());
+        } catch (Exception e) {
+            log.error("Failed to queue activation email to {}", user.getEmail(), e);
         }
     }
 
     @Override
-    @Async
     public void sendPasswordResetEmail(User user, String token) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-
             Context context = new Context();
-            context.setVariable("name", getUserDisplayName(user));
+            context.setVariable("name", EmailRecipient.displayName(user));
             context.setVariable("token", token);
 
             String htmlContent = templateEngine.process("password-reset-email", context);
 
-            String toEmail = resolveRecipientEmail(user.getEmail());
+            String toEmail = addressResolver.resolve(user.getEmail());
             if (toEmail == null || toEmail.isBlank()) {
                 log.warn("Skipping password reset email: unresolved recipient for username={}", user.getUsername());
                 return;
             }
-            helper.setTo(toEmail);
-            helper.setSubject("Réinitialisation de votre mot de passe OSHapp");
-            helper.setText(htmlContent, true);
-
-            mailSender.send(mimeMessage);
-            log.info("Password reset email sent to {}", user.getEmail());
-        } catch (MessagingException e) {
-            log.error("Failed to send password reset email to {}", user.getEmail(), e);
+            emailQueue.enqueue(toEmail, "Réinitialisation de votre mot de passe OSHapp", htmlContent, false, EmailPriority.CRITICAL);
+            log.info("Password reset email queued for {}", user.getEmail());
+        } catch (Exception e) {
+            log.error("Failed to queue password reset email to {}", user.getEmail(), e);
         }
     }
 
     @Override
-    @Async
     public void sendAppointmentNotification(List<User> recipients, Appointment appointment, String subject, String template) {
         if (recipients == null || recipients.isEmpty()) {
             log.warn("No recipients for appointment notification with subject: {}", subject);
@@ -124,7 +103,6 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
-    @Async
     public void sendAppointmentNotification(List<User> recipients, Appointment appointment, String subject, String template,
                                             String actionUrl, String actionLabel) {
         // Delegate to overload with potential secondary CTA, passing null for secondary
@@ -132,195 +110,123 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
-    @Async
     public void sendAppointmentNotification(List<User> recipients, Appointment appointment, String subject, String template,
                                             String actionUrl, String actionLabel,
                                             String secondaryActionUrl, String secondaryActionLabel) {
-        if (recipients == null || recipients.isEmpty()) {
-            log.warn("No recipients for appointment notification with subject: {}", subject);
-            return;
-        }
-        for (User recipient : recipients) {
-            try {
-                // Skip emailing the sender (current actor) to avoid self-emails
-                if (appointment != null) {
-                    try {
-                        Long recId = recipient.getId();
-                        Long updId = appointment.getUpdatedBy() != null ? appointment.getUpdatedBy().getId() : null;
-                        Long crtId = appointment.getCreatedBy() != null ? appointment.getCreatedBy().getId() : null;
-                        boolean isSelf = (recId != null && updId != null && recId.equals(updId)) ||
-                                         (recId != null && crtId != null && recId.equals(crtId));
-                        if (isSelf) {
-                            boolean isPrivileged = false;
-                            try {
-                                isPrivileged = recipient.getRoles() != null && recipient.getRoles().stream()
-                                    .anyMatch(r -> r.getName() == RoleName.ROLE_NURSE || r.getName() == RoleName.ROLE_DOCTOR || r.getName() == RoleName.ROLE_RH);
-                            } catch (Exception ex) {
-                                isPrivileged = false;
-                            }
-                            if (!isPrivileged) {
-                                log.info("Skipping appointment email to sender (non-privileged self): username={}, email={}", recipient.getUsername(), recipient.getEmail());
-                                continue;
-                            }
-                            // Allow self-email for medical staff and RH
-                            log.debug("Allowing self-email for privileged recipient: username={}, roles={} ", recipient.getUsername(), recipient.getRoles());
-                        }
-                    } catch (Exception ex) {
-                        log.warn("Failed to evaluate sender email skip for recipient {}: {}", recipient != null ? recipient.getId() : null, ex.getMessage());
-                    }
-                }
-                if (recipient.getEmail() == null || recipient.getEmail().isBlank()) {
-                    log.warn("Skipping email for recipient without email address: username={}", recipient.getUsername());
-                    continue;
-                }
-                MimeMessage mimeMessage = mailSender.createMimeMessage();
-                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "utf-8"); // true enables multipart for attachments
-
-                Context context = new Context();
-                context.setVariable("recipientName", getUserDisplayName(recipient));
-                context.setVariable("appointment", appointment);
-                context.setVariable("subject", subject);
-                if (actionUrl != null && !actionUrl.isBlank()) {
-                    context.setVariable("actionUrl", actionUrl);
-                    context.setVariable("actionLabel", (actionLabel != null && !actionLabel.isBlank()) ? actionLabel : "Ouvrir l'application");
-                }
-                if (secondaryActionUrl != null && !secondaryActionUrl.isBlank()) {
-                    context.setVariable("secondaryActionUrl", secondaryActionUrl);
-                    context.setVariable("secondaryActionLabel", (secondaryActionLabel != null && !secondaryActionLabel.isBlank()) ? secondaryActionLabel : "Annuler");
-                }
-
-                String htmlContent = templateEngine.process(template, context);
-
-                String toEmail = resolveRecipientEmail(recipient.getEmail());
-                if (toEmail == null || toEmail.isBlank()) {
-                    log.warn("Skipping email for recipient with unresolved email: username={}", recipient.getUsername());
-                    continue;
-                }
-                helper.setTo(toEmail);
-                if (mailUsername != null && !mailUsername.isBlank()) {
-                    try { helper.setFrom(mailUsername); } catch (Exception ignored) {}
-                }
-                helper.setSubject(subject);
-                helper.setText(htmlContent, true);
-                
-                // Add logo as inline attachment
-                try {
-                    ClassPathResource logoResource = new ClassPathResource("static/images/logo_ohse_capital.png");
-                    helper.addInline("logo", logoResource);
-                } catch (Exception e) {
-                    log.warn("Could not attach logo to email: {}", e.getMessage());
-                }
-
-                mailSender.send(mimeMessage);
-                log.info("Appointment notification sent to {} with subject: {}", recipient.getEmail(), subject);
-            } catch (MessagingException e) {
-                log.error("Failed to send appointment notification to {} with subject: {}", recipient.getEmail(), subject, e);
-            }
-        }
+        submit(recipients, appointment, subject, template, actionUrl, actionLabel, secondaryActionUrl, secondaryActionLabel, null, true);
     }
 
     // Overload with two CTAs and extra template variables
     @Override
-    @Async
     public void sendAppointmentNotification(List<User> recipients, Appointment appointment, String subject, String template,
                                             String actionUrl, String actionLabel,
                                             String secondaryActionUrl, String secondaryActionLabel,
                                             Map<String, Object> extraContext) {
+        submit(recipients, appointment, subject, template, actionUrl, actionLabel, secondaryActionUrl, secondaryActionLabel, extraContext, false);
+    }
+
+    @Override
+    public void beginBatch() {
+        BatchScope scope = BATCH.get();
+        if (scope == null) {
+            scope = new BatchScope();
+            BATCH.set(scope);
+        }
+        scope.depth++;
+    }
+
+    @Override
+    public void endBatch() {
+        BatchScope scope = BATCH.get();
+        if (scope == null) return;
+        if (--scope.depth > 0) return;
+        BATCH.remove();
+        if (!scope.requests.isEmpty()) {
+            appointmentRenderer.renderAndQueue(scope.requests);
+        }
+    }
+
+    /**
+     * Copie les entités sur le thread appelant puis confie le rendu au thread asynchrone.
+     */
+    private void submit(List<User> recipients, Appointment appointment, String subject, String template,
+                        String actionUrl, String actionLabel, String secondaryActionUrl, String secondaryActionLabel,
+                        Map<String, Object> extraContext, boolean allowPrivilegedSelf) {
         if (recipients == null || recipients.isEmpty()) {
             log.warn("No recipients for appointment notification with subject: {}", subject);
             return;
         }
-        for (User recipient : recipients) {
-            try {
-                // Skip emailing the sender (current actor) to avoid self-emails
-                if (appointment != null) {
-                    try {
-                        Long recId = recipient.getId();
-                        Long updId = appointment.getUpdatedBy() != null ? appointment.getUpdatedBy().getId() : null;
-                        Long crtId = appointment.getCreatedBy() != null ? appointment.getCreatedBy().getId() : null;
-                        if ((recId != null && updId != null && recId.equals(updId)) ||
-                            (recId != null && crtId != null && recId.equals(crtId))) {
-                            log.info("Skipping appointment email to sender (self): username={}, email={}", recipient.getUsername(), recipient.getEmail());
-                            continue;
-                        }
-                    } catch (Exception ex) {
-                        log.warn("Failed to evaluate sender email skip for recipient {}: {}", recipient != null ? recipient.getId() : null, ex.getMessage());
-                    }
-                }
-                if (recipient.getEmail() == null || recipient.getEmail().isBlank()) {
-                    log.warn("Skipping email for recipient without email address: username={}", recipient.getUsername());
-                    continue;
-                }
-                MimeMessage mimeMessage = mailSender.createMimeMessage();
-                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "utf-8"); // true enables multipart for attachments
-
-                Context context = new Context();
-                context.setVariable("recipientName", getUserDisplayName(recipient));
-                context.setVariable("appointment", appointment);
-                context.setVariable("subject", subject);
-                if (actionUrl != null && !actionUrl.isBlank()) {
-                    context.setVariable("actionUrl", actionUrl);
-                    context.setVariable("actionLabel", (actionLabel != null && !actionLabel.isBlank()) ? actionLabel : "Ouvrir l'application");
-                }
-                if (secondaryActionUrl != null && !secondaryActionUrl.isBlank()) {
-                    context.setVariable("secondaryActionUrl", secondaryActionUrl);
-                    context.setVariable("secondaryActionLabel", (secondaryActionLabel != null && !secondaryActionLabel.isBlank()) ? secondaryActionLabel : "Annuler");
-                }
-                if (extraContext != null && !extraContext.isEmpty()) {
-                    for (Map.Entry<String, Object> entry : extraContext.entrySet()) {
-                        if (entry.getKey() != null) {
-                            context.setVariable(entry.getKey(), entry.getValue());
-                        }
-                    }
-                }
-
-                String htmlContent = templateEngine.process(template, context);
-
-                String toEmail = resolveRecipientEmail(recipient.getEmail());
-                if (toEmail == null || toEmail.isBlank()) {
-                    log.warn("Skipping email for recipient with unresolved email: username={}", recipient.getUsername());
-                    continue;
-                }
-                helper.setTo(toEmail);
-                if (mailUsername != null && !mailUsername.isBlank()) {
-                    try { helper.setFrom(mailUsername); } catch (Exception ignored) {}
-                }
-                helper.setSubject(subject);
-                helper.setText(htmlContent, true);
-                
-                // Add logo as inline attachment
-                try {
-                    ClassPathResource logoResource = new ClassPathResource("static/images/logo_ohse_capital.png");
-                    helper.addInline("logo", logoResource);
-                } catch (Exception e) {
-                    log.warn("Could not attach logo to email: {}", e.getMessage());
-                }
-
-                mailSender.send(mimeMessage);
-                log.info("Appointment notification (with extra context) sent to {} with subject: {}", recipient.getEmail(), subject);
-            } catch (MessagingException e) {
-                log.error("Failed to send appointment notification (with extra context) to {} with subject: {}", recipient.getEmail(), subject, e);
-            }
+        BatchScope scope = BATCH.get();
+        AppointmentEmailRequest request;
+        try {
+            // Dans un lot, une seule copie par rendez-vous : le rendu compare les contenus par référence
+            AppointmentEmailPayload payload = scope != null
+                    ? scope.payloads.computeIfAbsent(appointment, AppointmentEmailPayload::of)
+                    : AppointmentEmailPayload.of(appointment);
+            request = AppointmentEmailRequest.builder()
+                    .recipients(recipients.stream()
+                            .filter(Objects::nonNull)
+                            .map(u -> EmailRecipient.of(u, digestBuffer.isDigestRecipient(u)))
+                            .collect(Collectors.toUnmodifiableList()))
+                    .appointment(payload)
+                    .subject(subject)
+                    .template(template)
+                    .actionUrl(actionUrl)
+                    .actionLabel(actionLabel)
+                    .secondaryActionUrl(secondaryActionUrl)
+                    .secondaryActionLabel(secondaryActionLabel)
+                    // Copie défensive ; LinkedHashMap car certaines valeurs peuvent être nulles
+                    .extraContext(extraContext != null ? Collections.unmodifiableMap(new LinkedHashMap<>(extraContext)) : null)
+                    .allowPrivilegedSelf(allowPrivilegedSelf)
+                    .build();
+        } catch (Exception e) {
+            log.error("Failed to prepare appointment notification with subject: {}", subject, e);
+            return;
         }
+        if (scope != null) {
+            scope.requests.add(request);
+            return;
+        }
+        appointmentRenderer.renderAndQueue(List.of(request));
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.digest.flush-interval-ms:60000}")
+    public void flushDueDigests() {
+        digestBuffer.flushDue(LocalDateTime.now(), this::sendDigest);
+    }
+
+    // Appelé dans la transaction du tampon : une exception annule la suppression des entrées
+    private void sendDigest(EmailDigest digest) {
+        if (digest.getEntries().isEmpty()) return;
+        String subject = digest.getEntries().size() == 1
+                ? digest.getEntries().get(0).getSubject()
+                : String.format("Récapitulatif OSHapp – %d notifications", digest.getEntries().size());
+        Context context = new Context();
+        context.setVariable("recipientName", digest.getRecipientName());
+        context.setVariable("subject", subject);
+        context.setVariable("entries", digest.getEntries());
+
+        String htmlContent = templateEngine.process("notification-digest-template", context);
+
+        emailQueue.enqueue(digest.getToEmail(), subject, htmlContent, true, EmailPriority.BULK);
+        log.info("Digest email queued for {} with {} entries", digest.getToEmail(), digest.getEntries().size());
     }
 
     @Override
-    @Async
     public void sendObligatoryAppointmentNotification(User user, Appointment appointment) {
         String subject = "Convocation à une visite médicale obligatoire";
         String content = String.format(
                 "Bonjour %s,\n\nVous êtes convoqué(e) pour une visite médicale obligatoire le %s à %s.\n\nCordialement,\nLe Service de Santé au Travail",
-                getUserDisplayName(user),
+                EmailRecipient.displayName(user),
                 appointment.getProposedDate().toLocalDate(),
                 appointment.getProposedDate().toLocalTime()
         );
-        sendEmail(user.getEmail(), subject, content);
+        sendEmail(user.getEmail(), subject, content, EmailPriority.BULK);
     }
 
     @Override
-    @Async
     public void sendSimpleEmail(String to, String subject, String text) {
-        String resolved = resolveRecipientEmail(to);
+        String resolved = addressResolver.resolve(to);
         if (resolved == null || resolved.isBlank()) {
             log.warn("Skipping simple email: unresolved or empty recipient for to={}", to);
             return;
@@ -328,23 +234,25 @@ public class EmailServiceImpl implements EmailService {
         sendEmail(resolved, subject, text);
     }
 
-    @Async
     protected void sendEmail(String to, String subject, String text) {
+        sendEmail(to, subject, text, EmailPriority.NORMAL);
+    }
+
+    private void sendEmail(String to, String subject, String text, EmailPriority priority) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-            helper.setText(text, true);
-            helper.setTo(to);
-            if (mailUsername != null && !mailUsername.isBlank()) {
-                try { helper.setFrom(mailUsername); } catch (Exception ignored) {}
-            }
-            helper.setSubject(subject);
-            mailSender.send(mimeMessage);
-            log.info("Email sent to {} with subject: {}", to, subject);
-        } catch (MessagingException e) {
-            log.error("Failed to send email to {} with subject: {}", to, subject, e);
+            emailQueue.enqueue(to, subject, text, false, priority);
+            log.info("Email queued for {} with subject: {}", to, subject);
+        } catch (Exception e) {
+            log.error("Failed to queue email to {} with subject: {}", to, subject, e);
         }
     }
+
+    private static final class BatchScope {
+        private int depth;
+        private final List<AppointmentEmailRequest> requests = new ArrayList<>();
+        // Clé par identité : un rendez-vous nul (notification sans rendez-vous) est une clé valide
+        private final Map<Appointment, AppointmentEmailPayload> payloads = new IdentityHashMap<>();
+    }
 }
 
 
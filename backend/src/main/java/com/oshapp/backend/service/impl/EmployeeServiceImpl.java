@@ -3,9 +3,11 @@ package com.oshapp.backend.service.impl;
 import com.oshapp.backend.dto.EmployeeCreationRequestDTO;
 import com.oshapp.backend.model.Employee;
 import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.listener.EmployeeSnapshot;
 import com.oshapp.backend.repository.EmployeeRepository;
 import com.oshapp.backend.repository.UserRepository;
 import com.oshapp.backend.service.EmployeeService;
+import com.oshapp.backend.service.notifications.policy.RecipientProfileCache;
 import com.oshapp.backend.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,8 +15,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +27,7 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
+    private final RecipientProfileCache recipientProfileCache;
 
     @Override
     public Optional<Employee> getEmployeeByUserId(Long id) {
@@ -80,7 +85,7 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         employee.setProfileCompleted(true);
 
-        return employeeRepository.save(employee);
+        return saveAndInvalidateProfiles(employee);
     }
 
     @Override
@@ -127,7 +132,7 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         employee.setProfileCompleted(true);
 
-        return employeeRepository.save(employee);
+        return saveAndInvalidateProfiles(employee);
     }
 
     @Override
@@ -164,7 +169,7 @@ public class EmployeeServiceImpl implements EmployeeService {
             employee.setManager2(manager2);
         }
 
-        return employeeRepository.save(employee);
+        return saveAndInvalidateProfiles(employee);
     }
 
     @Override
@@ -175,6 +180,7 @@ public class EmployeeServiceImpl implements EmployeeService {
                     .profileCompleted(false)
                     .build();
             employeeRepository.save(employee);
+            recipientProfileCache.invalidate(user.getId());
         }
     }
 
@@ -193,7 +199,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public Employee createEmployeeFromUser(Employee employee) {
-        return employeeRepository.save(employee);
+        return saveAndInvalidateProfiles(employee);
     }
 
     @Override
@@ -218,7 +224,28 @@ public class EmployeeServiceImpl implements EmployeeService {
             employee.setManager2(null);
         }
 
-        return employeeRepository.save(employee);
+        return saveAndInvalidateProfiles(employee);
     }
-}
 
+    // Lien employé/utilisateur ou managers modifiés : les profils destinataires de l'employé et de ses managers (anciens et nouveaux) sont périmés.
+    // L'éviction est différée au commit par le cache.
+    private Employee saveAndInvalidateProfiles(Employee employee) {
+        // État chargé (voir EmployeeChangeListener), lu avant que l'écriture ne le remplace
+        EmployeeSnapshot previous = employee.getChangeSnapshot();
+        Employee saved = employeeRepository.save(employee);
+        EmployeeSnapshot current = EmployeeSnapshot.of(saved);
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> managerIds = new HashSet<>();
+        for (EmployeeSnapshot snapshot : new EmployeeSnapshot[]{previous, current}) {
+            if (snapshot == null) continue;
+            if (snapshot.getUserId() != null) userIds.add(snapshot.getUserId());
+            if (snapshot.getManager1Id() != null) managerIds.add(snapshot.getManager1Id());
+            if (snapshot.getManager2Id() != null) managerIds.add(snapshot.getManager2Id());
+        }
+        if (!managerIds.isEmpty()) {
+            userIds.addAll(employeeRepository.findUserIdsByIdIn(managerIds));
+        }
+        userIds.forEach(recipientProfileCache::invalidate);
+        return saved;
+    }
+}
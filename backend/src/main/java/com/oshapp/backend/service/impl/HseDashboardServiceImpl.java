@@ -7,12 +7,22 @@ import com.oshapp.backend.dto.HseStatsDTO;
 import com.oshapp.backend.model.WorkAccident;
 import com.oshapp.backend.repository.WorkAccidentRepository;
 import com.oshapp.backend.service.HseDashboardService;
+import com.oshapp.backend.service.HseKpiService;
+import com.oshapp.backend.service.dashboard.DashboardCache;
+import com.oshapp.backend.service.dashboard.DashboardExecutor;
+import com.oshapp.backend.service.dashboard.DashboardType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,29 +30,47 @@ import java.util.stream.Collectors;
 public class HseDashboardServiceImpl implements HseDashboardService {
 
     private final WorkAccidentRepository workAccidentRepository;
+    private final DashboardCache dashboardCache;
+    private final DashboardExecutor dashboardExecutor;
+    private final HseKpiService hseKpiService;
+
+    @Value("${app.dashboard.list-limit:20}")
+    private int listLimit;
 
     @Override
     public HseDashboardDTO getDashboardData() {
-        // Load all accidents for stats
-        List<WorkAccident> allAccidents = workAccidentRepository.findAll();
-
-        long totalAccidents = allAccidents.size();
-        long totalIncidents = allAccidents.stream()
-                .filter(a -> a.getStatus() == WorkAccident.AccidentStatus.REPORTED)
-                .count();
-        long riskAnalyses = allAccidents.stream()
-                .filter(a -> a.getStatus() == WorkAccident.AccidentStatus.INVESTIGATING)
-                .count();
-        long completedTasks = allAccidents.stream()
-                .filter(a -> a.getStatus() == WorkAccident.AccidentStatus.CLOSED)
-                .count();
+        return dashboardCache.get(DashboardType.HSE, "dashboard", null,
+                () -> dashboardExecutor.inReadOnlyTransaction(this::loadDashboardData));
+    }
 
-        HseStatsDTO stats = new HseStatsDTO(totalIncidents, totalAccidents, riskAnalyses, completedTasks);
+    private HseDashboardDTO loadDashboardData() {
+        // Status counts aggregated in the database
+        Map<WorkAccident.AccidentStatus, Long> byStatus = new EnumMap<>(WorkAccident.AccidentStatus.class);
+        long totalAccidents = 0;
+        for (Object[] row : workAccidentRepository.countByStatus()) {
+            long count = (Long) row[1];
+            totalAccidents += count;
+            if (row[0] != null) byStatus.put((WorkAccident.AccidentStatus) row[0], count);
+        }
+        long totalIncidents = byStatus.getOrDefault(WorkAccident.AccidentStatus.REPORTED, 0L);
+        long riskAnalyses = byStatus.getOrDefault(WorkAccident.AccidentStatus.INVESTIGATING, 0L);
+        long completedTasks = byStatus.getOrDefault(WorkAccident.AccidentStatus.CLOSED, 0L);
 
-        // Recent alerts for last 30 days, prioritize by severity
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<WorkAccident> recentAccidents = workAccidentRepository
-                .findByAccidentDateAfterOrderByAccidentDateDesc(thirtyDaysAgo);
+        Map<String, Long> recentSeverityCounts = new LinkedHashMap<>();
+        for (WorkAccident.AccidentSeverity severity : WorkAccident.AccidentSeverity.values()) {
+            recentSeverityCounts.put(severity.name(), 0L);
+        }
+        for (Object[] row : workAccidentRepository.countBySeveritySince(thirtyDaysAgo)) {
+            String key = row[0] != null ? ((WorkAccident.AccidentSeverity) row[0]).name() : "UNKNOWN";
+            recentSeverityCounts.put(key, (Long) row[1]);
+        }
+
+        HseStatsDTO stats = new HseStatsDTO(totalIncidents, totalAccidents, riskAnalyses, completedTasks, recentSeverityCounts);
+
+        // Recent alerts for last 30 days, prioritized by severity and bounded to the list limit
+        Pageable top = PageRequest.of(0, Math.max(1, listLimit));
+        List<WorkAccident> recentAccidents = workAccidentRepository.findRecentBySeverity(thirtyDaysAgo, top);
 
         List<AlertDTO> alerts = recentAccidents.stream()
                 .map(acc -> new AlertDTO(
@@ -57,8 +85,8 @@ public class HseDashboardServiceImpl implements HseDashboardService {
                 ))
                 .collect(Collectors.toList());
 
-        // Activities for last 30 days
-        List<ActivityDTO> activities = recentAccidents.stream()
+        // Latest activities for last 30 days, employee fetched in the same query
+        List<ActivityDTO> activities = workAccidentRepository.findRecentWithEmployee(thirtyDaysAgo, top).stream()
                 .map(acc -> new ActivityDTO(
                         String.valueOf(acc.getId()),
                         "Accident déclaré",
@@ -72,7 +100,7 @@ public class HseDashboardServiceImpl implements HseDashboardService {
                 ))
                 .collect(Collectors.toList());
 
-        return new HseDashboardDTO(stats, alerts, activities);
+        return new HseDashboardDTO(stats, alerts, activities, hseKpiService.getKpis());
     }
 
     private String mapSeverity(WorkAccident.AccidentSeverity severity) {
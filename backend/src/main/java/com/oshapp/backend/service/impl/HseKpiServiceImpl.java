@@ -0,0 +1,244 @@
+package com.oshapp.backend.service.impl;
+
+import com.oshapp.backend.config.HseKpiProperties;
+import com.oshapp.backend.dto.HseKpiDTO;
+import com.oshapp.backend.model.Company;
+import com.oshapp.backend.repository.EmployeeRepository;
+import com.oshapp.backend.repository.WorkAccidentRepository;
+import com.oshapp.backend.service.CompanyService;
+import com.oshapp.backend.service.HseKpiService;
+import com.oshapp.backend.model.listener.AccidentRollupEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Moteur des indicateurs HSE. Agrégats mensuels par département (accidents, jours d'arrêt, accidents graves)
+ * conservés en mémoire sur la fenêtre de tendance + 11 mois ; un accident écrit ne fait recalculer que ses
+ * mois (ancienne et nouvelle date) et les accidents ouverts, puis l'instantané servi est reconstruit en mémoire.
+ * Effectifs et dénominateurs sont relus au démarrage, chaque nuit et au changement de mois.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class HseKpiServiceImpl implements HseKpiService {
+
+    private static final int ROLLING_MONTHS = 12;
+
+    private final WorkAccidentRepository workAccidentRepository;
+    private final EmployeeRepository employeeRepository;
+    private final CompanyService companyService;
+    private final HseKpiProperties properties;
+
+    // Mois -> département ('' si absent) -> {accidents, jours d'arrêt, accidents graves}
+    private Map<YearMonth, Map<String, long[]>> monthly = new TreeMap<>();
+    private Map<String, Long> headcounts = new HashMap<>();
+    private Map<String, Long> openAccidents = new HashMap<>();
+    private Long companyHeadcount;
+    private volatile YearMonth currentMonth;
+    private volatile HseKpiDTO snapshot;
+
+    @Override
+    public HseKpiDTO getKpis() {
+        HseKpiDTO kpis = snapshot;
+        if (kpis == null || !YearMonth.now().equals(currentMonth)) {
+            try {
+                return rebuild();
+            } catch (Exception e) {
+                // Tableau de bord servi avec le dernier instantané (ou sans indicateurs) plutôt qu'en erreur
+                log.warn("HSE KPI rebuild failed, serving {}: {}",
+                        kpis != null ? "last snapshot" : "empty KPIs", e.getMessage());
+                return kpis != null ? kpis : new HseKpiDTO();
+            }
+        }
+        return kpis;
+    }
+
+    @Override
+    public synchronized HseKpiDTO rebuild() {
+        long start = System.currentTimeMillis();
+        currentMonth = YearMonth.now();
+        headcounts = toCounts(employeeRepository.countByDepartment());
+        companyHeadcount = companyService.getCompanyProfile()
+                .map(Company::getHeadcount)
+                .filter(headcount -> headcount > 0)
+                .map(Integer::longValue)
+                .orElse(null);
+        openAccidents = toCounts(workAccidentRepository.countOpenByDepartment(true, List.of("")));
+        monthly = new TreeMap<>();
+        loadMonths(firstMonth(), currentMonth);
+        snapshot = buildSnapshot();
+        log.info("HSE KPIs rebuilt in {} ms", System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onAccidentChanged(AccidentRollupEvent event) {
+        if (snapshot == null || !YearMonth.now().equals(currentMonth)) return; // recalcul complet à la prochaine lecture
+        try {
+            YearMonth first = firstMonth();
+            Set<YearMonth> months = new TreeSet<>();
+            for (LocalDate date : event.getDates()) {
+                YearMonth month = YearMonth.from(date);
+                if (!month.isBefore(first) && !month.isAfter(currentMonth)) months.add(month);
+            }
+            for (YearMonth month : months) {
+                monthly.remove(month);
+                loadMonths(month, month);
+            }
+            // Clôture ou réouverture : compteur global, peu coûteux
+            openAccidents = toCounts(workAccidentRepository.countOpenByDepartment(true, List.of("")));
+            snapshot = buildSnapshot();
+        } catch (Exception e) {
+            snapshot = null;
+            log.warn("Failed to update HSE KPIs, full rebuild on next read: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.hse.kpi.refresh-cron:0 20 2 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("HSE KPI rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        scheduledRebuild();
+    }
+
+    private YearMonth firstMonth() {
+        return currentMonth.minusMonths(Math.max(1, properties.getTrendMonths()) + ROLLING_MONTHS - 2L);
+    }
+
+    private void loadMonths(YearMonth from, YearMonth to) {
+        List<Object[]> rows = workAccidentRepository.sumByMonthAndDepartment(
+                from.atDay(1).atStartOfDay(), to.plusMonths(1).atDay(1).atStartOfDay());
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.from(toLocalDate(row[0]));
+            String department = row[1] != null ? (String) row[1] : "";
+            monthly.computeIfAbsent(month, m -> new HashMap<>())
+                    .put(department, new long[]{toLong(row[2]), toLong(row[3]), toLong(row[4]), toLong(row[5])});
+        }
+    }
+
+    private HseKpiDTO buildSnapshot() {
+        Set<String> departments = new TreeSet<>(headcounts.keySet());
+        monthly.values().forEach(byDepartment -> departments.addAll(byDepartment.keySet()));
+        departments.addAll(openAccidents.keySet());
+
+        double companyMonthlyHours = companyAnnualHours(departments) / 12.0;
+
+        HseKpiDTO kpis = new HseKpiDTO();
+        kpis.setComputedAt(LocalDateTime.now());
+        kpis.setPeriodStart(currentMonth.minusMonths(ROLLING_MONTHS - 1L).atDay(1));
+        kpis.setPeriodEnd(currentMonth.atEndOfMonth());
+        kpis.setOpenAccidents(openAccidents.values().stream().mapToLong(Long::longValue).sum());
+        kpis.setCompany(rates(sum(currentMonth, ROLLING_MONTHS, null), companyMonthlyHours * ROLLING_MONTHS));
+
+        List<HseKpiDTO.MonthPoint> trend = new ArrayList<>();
+        for (int i = Math.max(1, properties.getTrendMonths()) - 1; i >= 0; i--) {
+            YearMonth month = currentMonth.minusMonths(i);
+            HseKpiDTO.MonthPoint point = new HseKpiDTO.MonthPoint();
+            point.setMonth(month.atDay(1));
+            point.setMonthly(rates(sum(month, 1, null), companyMonthlyHours));
+            point.setRolling12Months(rates(sum(month, ROLLING_MONTHS, null), companyMonthlyHours * ROLLING_MONTHS));
+            trend.add(point);
+        }
+        kpis.setTrend(trend);
+
+        List<HseKpiDTO.DepartmentRates> rows = new ArrayList<>();
+        for (String department : departments) {
+            HseKpiDTO.DepartmentRates row = new HseKpiDTO.DepartmentRates();
+            row.setDepartment(department.isEmpty() ? null : department);
+            row.setHeadcount(headcounts.getOrDefault(department, 0L));
+            row.setOpenAccidents(openAccidents.getOrDefault(department, 0L));
+            row.setRolling12Months(rates(sum(currentMonth, ROLLING_MONTHS, department), departmentAnnualHours(department)));
+            rows.add(row);
+        }
+        kpis.setDepartments(rows);
+        return kpis;
+    }
+
+    // Cumul {accidents, jours d'arrêt, graves, accidents avec jours d'arrêt renseignés} des `months` mois
+    // se terminant à `end` (department null : tous)
+    private long[] sum(YearMonth end, int months, String department) {
+        long[] total = new long[4];
+        for (int i = 0; i < months; i++) {
+            Map<String, long[]> byDepartment = monthly.get(end.minusMonths(i));
+            if (byDepartment == null) continue;
+            for (Map.Entry<String, long[]> entry : byDepartment.entrySet()) {
+                if (department != null && !department.equals(entry.getKey())) continue;
+                for (int k = 0; k < total.length; k++) total[k] += entry.getValue()[k];
+            }
+        }
+        return total;
+    }
+
+    private HseKpiDTO.Rates rates(long[] totals, double hoursWorked) {
+        HseKpiDTO.Rates rates = new HseKpiDTO.Rates();
+        rates.setAccidents(totals[0]);
+        // Aucun jour d'arrêt renseigné (ou saisie non disponible) : gravité inconnue plutôt qu'un taux nul
+        boolean lostDaysRecorded = properties.isSeverityRateEnabled() && totals[3] > 0;
+        rates.setLostWorkDays(lostDaysRecorded ? totals[1] : null);
+        rates.setSevereAccidents(totals[2]);
+        rates.setHoursWorked(Math.round(hoursWorked));
+        rates.setFrequencyRate(hoursWorked > 0 ? round(totals[0] * 1_000_000.0 / hoursWorked) : null);
+        rates.setSeverityRate(hoursWorked > 0 && lostDaysRecorded ? round(totals[1] * 1_000.0 / hoursWorked) : null);
+        return rates;
+    }
+
+    private double companyAnnualHours(Set<String> departments) {
+        if (properties.getAnnualHoursWorked() != null) return properties.getAnnualHoursWorked();
+        if (companyHeadcount != null) return companyHeadcount * properties.getAnnualHoursPerEmployee();
+        double hours = 0;
+        for (String department : departments) hours += departmentAnnualHours(department);
+        return hours;
+    }
+
+    private double departmentAnnualHours(String department) {
+        HseKpiProperties.Denominator denominator = properties.getDepartments().get(department);
+        if (denominator != null && denominator.getAnnualHoursWorked() != null) return denominator.getAnnualHoursWorked();
+        double perEmployee = denominator != null && denominator.getAnnualHoursPerEmployee() != null
+                ? denominator.getAnnualHoursPerEmployee() : properties.getAnnualHoursPerEmployee();
+        return headcounts.getOrDefault(department, 0L) * perEmployee;
+    }
+
+    private static Map<String, Long> toCounts(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(row[0] != null ? (String) row[0] : "", toLong(row[1]));
+        }
+        return counts;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static Double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
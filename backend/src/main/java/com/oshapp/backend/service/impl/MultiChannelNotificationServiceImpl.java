@@ -3,12 +3,17 @@ package com.oshapp.backend.service.impl;
 import com.oshapp.backend.model.Appointment;
 import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.NotificationType;
+import com.oshapp.backend.model.enums.Priority;
 import com.oshapp.backend.model.enums.RoleName;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.MultiChannelNotificationService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.SmsService;
 import com.oshapp.backend.service.UserService;
+import com.oshapp.backend.service.notifications.NotificationMessageCatalog;
 import com.oshapp.backend.service.notifications.NotificationScenario;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
+import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
 import com.oshapp.backend.service.notifications.strategy.NotificationStrategy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,25 +21,52 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.oshapp.backend.service.notifications.NotificationActor;
-import com.oshapp.backend.service.notifications.strategy.ActorAwareNotificationStrategy;
+import jakarta.annotation.PostConstruct;
 
 
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class MultiChannelNotificationServiceImpl implements MultiChannelNotificationService {
 
+    private static final String CHANNEL_EMAIL = "EMAIL";
+    private static final String CHANNEL_SMS = "SMS";
+
     private final NotificationService notificationService;
     private final EmailService emailService;
     private final UserService userService;
+    private final NotificationVisibilityPolicy visibilityPolicy;
+    private final SmsService smsService;
+    private final NotificationMessageCatalog messageCatalog;
 
     @Autowired(required = false)
     private List<NotificationStrategy> notificationStrategies = Collections.emptyList();
+
+    // Index scénario -> stratégie construit une seule fois au démarrage
+    private final Map<NotificationScenario, NotificationStrategy> strategyRegistry = new EnumMap<>(NotificationScenario.class);
+
+    @PostConstruct
+    void indexStrategies() {
+        if (notificationStrategies == null) return;
+        for (NotificationScenario scenario : NotificationScenario.values()) {
+            for (NotificationStrategy strategy : notificationStrategies) {
+                if (strategy != null && strategy.supports(scenario)) {
+                    // Première stratégie compatible, comme lors du parcours de la liste
+                    strategyRegistry.putIfAbsent(scenario, strategy);
+                }
+            }
+        }
+        log.info("Indexed {} notification strategies for scenarios {}", notificationStrategies.size(), strategyRegistry.keySet());
+    }
     
     @Value("${app.frontend.base-url:http://localhost:3000}")
     private String frontendBaseUrl;
@@ -109,9 +141,44 @@ public class MultiChannelNotificationServiceImpl implements MultiChannelNotifica
     @Override
     public void notifyUsersWithChannels(Set<User> users, String title, String message, List<String> channels) {
         if (users == null || users.isEmpty()) return;
-        for (User user : users) {
+        List<User> recipients = users.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        for (User user : recipients) {
             notificationService.sendGeneralNotification(user, title, message, NotificationType.APPOINTMENT, null, null, null);
-            emailService.sendAppointmentNotification(Collections.singletonList(user), null, title, "generic-notification-template");
+        }
+        // Sans canal précisé : application + email, comme avant
+        if (channels == null || channels.isEmpty() || hasChannel(channels, CHANNEL_EMAIL)) {
+            // Les destinataires au contenu identique sont regroupés en copie cachée par le rendu
+            emailService.sendAppointmentNotification(recipients, null, title, "generic-notification-template");
+        }
+        if (hasChannel(channels, CHANNEL_SMS)) {
+            String text = message != null && !message.isBlank() ? title + " : " + message : title;
+            for (User user : recipients) {
+                queueSms(user, "OSHapp – " + text, false);
+            }
+        }
+    }
+
+    private boolean hasChannel(List<String> channels, String channel) {
+        return channels != null && channels.stream().anyMatch(c -> c != null && channel.equalsIgnoreCase(c.trim()));
+    }
+
+    // Canal SMS demandé sur le rendez-vous : file SMS dédiée, indépendante de la file email
+    private void notifyBySms(List<User> recipients, Appointment appointment) {
+        if (appointment == null || !hasChannel(appointment.getNotificationChannels(), CHANNEL_SMS)) return;
+        boolean urgent = appointment.isUrgent() || appointment.getPriority() == Priority.URGENT;
+        String text = (urgent ? "URGENT – " : "") + enrichSubject("OSHapp : rendez-vous médical mis à jour", appointment)
+                + ". Détails dans l'application.";
+        for (User user : recipients) {
+            queueSms(user, text, urgent);
+        }
+    }
+
+    // Un échec de mise en file pour un destinataire n'interrompt pas les autres
+    private void queueSms(User user, String text, boolean urgent) {
+        try {
+            smsService.send(user, text, urgent);
+        } catch (Exception e) {
+            log.error("Failed to queue SMS for user {}: {}", user.getId(), e.getMessage());
         }
     }
 
@@ -141,11 +208,10 @@ public class MultiChannelNotificationServiceImpl implements MultiChannelNotifica
 
     @Override
     public void sendObligatoryAppointmentNotification(User user, Appointment appointment) {
-        notificationService.sendGeneralNotification(user,
-                "Visite médicale obligatoire",
-                "Une visite médicale obligatoire a été programmée pour vous. Veuillez confirmer votre disponibilité.",
+        notificationService.sendTemplatedNotification(user,
+                NotificationMessage.of("appointment.obligatory"),
                 NotificationType.APPOINTMENT,
-                buildAppointmentActionLink(appointment, "confirm"),
+                "confirm",
                 "APPOINTMENT",
                 appointment.getId());
 
@@ -172,25 +238,26 @@ public class MultiChannelNotificationServiceImpl implements MultiChannelNotifica
 
     @Override
     public void notifyManagersOfProposal(Appointment appointment, List<User> managers) {
-        String message = String.format("Un créneau médical a été proposé pour %s %s. Vous pouvez signaler une indisponibilité si nécessaire.",
+        NotificationMessage message = NotificationMessage.of("manager.proposal",
                 appointment.getEmployee().getFirstName(), appointment.getEmployee().getLastName());
-        notifyManagers(managers, appointment, "Proposition de créneau médical", message, "appointment-proposal-template", NotificationType.VALIDATION);
+        notifyManagers(managers, appointment, message, "appointment-proposal-template", NotificationType.VALIDATION);
     }
 
     @Override
     public void notifyConfirmation(Appointment appointment, User employee, List<User> managers) {
         if (employee != null) sendAppointmentStatusNotification(employee, appointment);
-        String message = String.format("Le rendez-vous médical de %s %s a été confirmé.",
+        NotificationMessage message = NotificationMessage.of("manager.confirmation",
                 appointment.getEmployee().getFirstName(), appointment.getEmployee().getLastName());
-        notifyManagers(managers, appointment, "Rendez-vous médical confirmé", message, "appointment-confirmation-template", NotificationType.APPOINTMENT);
+        notifyManagers(managers, appointment, message, "appointment-confirmation-template", NotificationType.APPOINTMENT);
     }
 
-    private void notifyManagers(List<User> managers, Appointment appointment, String title, String message, String emailTemplate, NotificationType notificationType) {
+    private void notifyManagers(List<User> managers, Appointment appointment, NotificationMessage message, String emailTemplate, NotificationType notificationType) {
         if (managers == null) return;
+        String title = messageCatalog.renderTitle(message.getKey());
         for (User manager : managers) {
             if (manager != null) {
-                notificationService.sendGeneralNotification(manager, title, message, notificationType,
-                        buildAppointmentActionLink(appointment, "view"), "APPOINTMENT", appointment.getId());
+                notificationService.sendTemplatedNotification(manager, message, notificationType,
+                        "view", "APPOINTMENT", appointment.getId());
                 emailService.sendAppointmentNotification(Collections.singletonList(manager), appointment,
                         enrichSubject(title, appointment), emailTemplate != null ? emailTemplate : "appointment-generic");
             }
@@ -199,82 +266,65 @@ public class MultiChannelNotificationServiceImpl implements MultiChannelNotifica
 
     @Override
     public void notifyUsers(List<User> users, Appointment appointment, String scenario, String extraMessage) {
-        if (users == null || users.isEmpty()) return;
-        for (User user : users) {
-            if (user == null) continue;
-            try {
-                if (delegateToStrategyWithActor(user, appointment, scenario, extraMessage, null)) continue;
-            } catch (Exception e) {
-                log.error("Strategy handler failed for scenario {} and user {}. Error: {}", scenario, user.getId(), e.getMessage());
-            }
-            // Minimal legacy fallback only
-            switch (scenario) {
-                case "CREATION":
-                    sendAppointmentNotification(user, appointment);
-                    break;
-                case "STATUS_UPDATE":
-                    sendAppointmentStatusNotification(user, appointment);
-                    break;
-                case "OBLIGATORY":
-                    sendObligatoryAppointmentNotification(user, appointment);
-                    break;
-                default:
-                    log.warn("Unknown notification scenario (legacy fallback): {}", scenario);
-            }
-        }
+        notifyUsers(users, appointment, scenario, extraMessage, null);
     }
 
     @Override
     public void notifyUsers(List<User> users, Appointment appointment, String scenario, String extraMessage, NotificationActor actor) {
         if (users == null || users.isEmpty()) return;
-        for (User user : users) {
-            if (user == null) continue;
-            try {
-                if (delegateToStrategyWithActor(user, appointment, scenario, extraMessage, actor)) continue;
-            } catch (Exception e) {
-                log.error("Strategy handler (actor-aware) failed for scenario {} and user {}. Error: {}", scenario, user.getId(), e.getMessage());
-            }
-            // Minimal legacy fallback only
-            switch (scenario) {
-                case "CREATION":
-                    sendAppointmentNotification(user, appointment);
-                    break;
-                case "STATUS_UPDATE":
-                    sendAppointmentStatusNotification(user, appointment);
-                    break;
-                case "OBLIGATORY":
-                    sendObligatoryAppointmentNotification(user, appointment);
-                    break;
-                default:
-                    log.warn("Unknown notification scenario (legacy fallback): {}", scenario);
-            }
-        }
-    }
+        List<User> recipients = users.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        if (recipients.isEmpty()) return;
 
-    private boolean delegateToStrategyWithActor(User user, Appointment appointment, String scenarioStr, String extraMessage, NotificationActor actorOverride) {
+        // Scénario, acteur et stratégie résolus une seule fois pour tout l'événement
+        NotificationScenario resolvedScenario = NotificationScenario.fromString(scenario);
+        NotificationStrategy strategy = resolvedScenario != null ? strategyRegistry.get(resolvedScenario) : null;
+        List<User> fallbackRecipients = recipients;
+        // Profils de visibilité chargés une seule fois pour tous les destinataires
+        visibilityPolicy.prepare(recipients);
+        // Notifications in-app regroupées : un contenu commun à tout un rôle est stocké une seule fois
+        notificationService.beginFanOut();
+        // Emails de l'événement rendus ensemble : un contenu identique part en un seul envoi en copie cachée
+        emailService.beginBatch();
         try {
-            NotificationScenario scenario = NotificationScenario.fromString(scenarioStr);
-            if (scenario == null || notificationStrategies == null || notificationStrategies.isEmpty()) return false;
-            NotificationActor actor = actorOverride != null ? actorOverride : NotificationScenario.extractActor(scenarioStr);
-            for (NotificationStrategy strategy : notificationStrategies) {
+            if (strategy != null) {
+                NotificationActor resolvedActor = actor != null ? actor : NotificationScenario.extractActor(scenario);
                 try {
-                    if (strategy != null && strategy.supports(scenario)) {
-                        if (strategy instanceof ActorAwareNotificationStrategy) {
-                            ((ActorAwareNotificationStrategy) strategy)
-                                .notify(user, appointment, extraMessage, actor);
-                        } else {
-                            strategy.notify(user, appointment, extraMessage);
-                        }
-                        return true;
-                    }
-                } catch (Exception ex) {
-                    log.error("Strategy {} failed for scenario {} and user {}: {}", strategy != null ? strategy.getClass().getSimpleName() : "null", scenarioStr, user.getId(), ex.getMessage());
+                    fallbackRecipients = strategy.notifyRecipients(recipients, appointment, extraMessage, resolvedActor);
+                } catch (Exception e) {
+                    log.error("Strategy {} failed for scenario {}: {}", strategy.getClass().getSimpleName(), scenario, e.getMessage());
                 }
             }
-        } catch (Exception e) {
-            log.error("Delegate to strategy (actor-aware) failed for scenario {}: {}", scenarioStr, e.getMessage());
+            for (User user : fallbackRecipients) {
+                legacyFallback(user, appointment, scenario);
+            }
+            notifyBySms(recipients, appointment);
+        } finally {
+            try {
+                emailService.endBatch();
+            } finally {
+                if (!notificationService.endFanOut()) {
+                    log.warn("In-app notifications for scenario {} (appointment {}) are still being written after the fan-out timeout",
+                            scenario, appointment != null ? appointment.getId() : null);
+                }
+            }
+        }
+    }
+
+    private void legacyFallback(User user, Appointment appointment, String scenario) {
+        // Minimal legacy fallback only
+        switch (scenario) {
+            case "CREATION":
+                sendAppointmentNotification(user, appointment);
+                break;
+            case "STATUS_UPDATE":
+                sendAppointmentStatusNotification(user, appointment);
+                break;
+            case "OBLIGATORY":
+                sendObligatoryAppointmentNotification(user, appointment);
+                break;
+            default:
+                log.warn("Unknown notification scenario (legacy fallback): {}", scenario);
         }
-        return false;
     }
 
     @Override
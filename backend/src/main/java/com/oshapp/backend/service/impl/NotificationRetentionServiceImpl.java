@@ -0,0 +1,129 @@
+package com.oshapp.backend.service.impl;
+
+import com.oshapp.backend.config.NotificationRetentionProperties;
+import com.oshapp.backend.dto.NotificationRetentionReportDTO;
+import com.oshapp.backend.model.enums.NotificationType;
+import com.oshapp.backend.repository.BroadcastNotificationRepository;
+import com.oshapp.backend.repository.NotificationRepository;
+import com.oshapp.backend.service.NotificationRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationRetentionServiceImpl implements NotificationRetentionService {
+
+    private final NotificationRepository notificationRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final NotificationRetentionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong totalDeletedSinceStartup = new AtomicLong();
+    private final AtomicInteger runsSinceStartup = new AtomicInteger();
+    private volatile NotificationRetentionReportDTO lastReport;
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledRetention() {
+        if (!properties.isEnabled()) return;
+        runRetention();
+    }
+
+    @Override
+    public NotificationRetentionReportDTO runRetention() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Notification retention already running, skipping this trigger");
+            return lastReport;
+        }
+        try {
+            NotificationRetentionReportDTO report = new NotificationRetentionReportDTO();
+            report.setStartedAt(LocalDateTime.now());
+            int batchSize = Math.max(1, properties.getBatchSize());
+
+            for (NotificationType type : NotificationType.values()) {
+                long deleted = purge(type, true, properties.readRetentionDays(type), batchSize, report)
+                        + purge(type, false, properties.unreadRetentionDays(type), batchSize, report)
+                        + purgeBroadcasts(type, batchSize, report);
+                if (deleted > 0) report.getDeletedByType().put(type, deleted);
+                report.setTotalDeleted(report.getTotalDeleted() + deleted);
+            }
+
+            report.setFinishedAt(LocalDateTime.now());
+            report.setDurationMs(Duration.between(report.getStartedAt(), report.getFinishedAt()).toMillis());
+            report.setTotalDeletedSinceStartup(totalDeletedSinceStartup.addAndGet(report.getTotalDeleted()));
+            report.setRunsSinceStartup(runsSinceStartup.incrementAndGet());
+            lastReport = report;
+            log.info("Notification retention done: deleted={} batches={} durationMs={} byType={}",
+                    report.getTotalDeleted(), report.getBatches(), report.getDurationMs(), report.getDeletedByType());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public NotificationRetentionReportDTO getLastReport() {
+        return lastReport;
+    }
+
+    private long purge(NotificationType type, boolean read, int retentionDays, int batchSize, NotificationRetentionReportDTO report) {
+        if (retentionDays <= 0) return 0;
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long deleted = 0;
+        while (true) {
+            List<Long> ids;
+            try {
+                ids = notificationRepository.findIdsForRetention(type, read, cutoff, PageRequest.of(0, batchSize));
+            } catch (Exception ex) {
+                log.error("Failed to select notifications for retention (type={}, read={}): {}", type, read, ex.getMessage());
+                break;
+            }
+            if (ids.isEmpty()) break;
+            // Une transaction courte par lot pour ne pas garder de verrous longtemps
+            Integer count = transactionTemplate.execute(status -> notificationRepository.deleteByIdIn(ids));
+            deleted += count != null ? count : 0;
+            report.setBatches(report.getBatches() + 1);
+            if (ids.size() < batchSize) break;
+        }
+        return deleted;
+    }
+
+    // Une diffusion est lue par certains et pas par d'autres : on retient la durée la plus longue des deux politiques
+    private long purgeBroadcasts(NotificationType type, int batchSize, NotificationRetentionReportDTO report) {
+        int readDays = properties.readRetentionDays(type);
+        int unreadDays = properties.unreadRetentionDays(type);
+        if (readDays <= 0 || unreadDays <= 0) return 0;
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(Math.max(readDays, unreadDays));
+        long deleted = 0;
+        while (true) {
+            List<Long> ids;
+            try {
+                ids = broadcastNotificationRepository.findIdsForRetention(type, cutoff, PageRequest.of(0, batchSize));
+            } catch (Exception ex) {
+                log.error("Failed to select broadcast notifications for retention (type={}): {}", type, ex.getMessage());
+                break;
+            }
+            if (ids.isEmpty()) break;
+            Integer count = transactionTemplate.execute(status -> {
+                broadcastNotificationRepository.deleteReceiptsByBroadcastIdIn(ids);
+                return broadcastNotificationRepository.deleteByIdIn(ids);
+            });
+            deleted += count != null ? count : 0;
+            report.setBatches(report.getBatches() + 1);
+            if (ids.size() < batchSize) break;
+        }
+        return deleted;
+    }
+}
@@ -1,26 +1,48 @@
 package com.oshapp.backend.service.impl;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import com.oshapp.backend.dto.NotificationResponseDTO;
 import com.oshapp.backend.exception.ResourceNotFoundException;
 import com.oshapp.backend.exception.UnauthorizedException;
 import com.oshapp.backend.model.Appointment;
+import com.oshapp.backend.model.BroadcastNotification;
 import com.oshapp.backend.model.Notification;
 import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.NotificationType;
+import com.oshapp.backend.model.enums.RoleName;
+import com.oshapp.backend.repository.BroadcastNotificationRepository;
 import com.oshapp.backend.repository.NotificationRepository;
+import com.oshapp.backend.repository.UserRepository;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.model.listener.DashboardChangeEvent;
+import com.oshapp.backend.service.notifications.FanOutExecutor;
+import com.oshapp.backend.service.notifications.NotificationMessageCatalog;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
 
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +50,19 @@ import org.springframework.transaction.annotation.Transactional;
 public class NotificationServiceImpl implements NotificationService{
 
     private final NotificationRepository notificationRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final FanOutExecutor fanOutExecutor;
+    private final NotificationMessageCatalog messageCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Notifications en attente pendant une diffusion (un événement -> plusieurs destinataires) sur le thread courant
+    private static final ThreadLocal<FanOutScope> FAN_OUT = new ThreadLocal<>();
+
+    private static final String APPOINTMENT_ENTITY = "APPOINTMENT";
+    // Taille de la colonne params : au-delà, le texte est rendu et stocké tel quel
+    private static final int MAX_PARAMS_LENGTH = 1000;
 
     private String clamp(String s, int max) {
         if (s == null) return null;
@@ -37,43 +72,31 @@ public class NotificationServiceImpl implements NotificationService{
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void sendAppointmentNotification(User user, Appointment appointment) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setTitle(clamp("Nouveau rendez-vous", 255));
-        notification.setMessage(clamp("Un nouveau rendez-vous a été créé.", 255));
-        notification.setType(NotificationType.APPOINTMENT);
-        notification.setRead(false);
-        notification.setRelatedEntityType("APPOINTMENT");
-        notification.setRelatedEntityId(appointment.getId());
-        notification.setActionUrl(clamp("/appointment_action?id=" + appointment.getId() + "&action=view", 255));
-        notification.setCreatedAt(LocalDateTime.now());
-        try {
-            notificationRepository.save(notification);
-        } catch (Exception ex) {
-            // Do not propagate to business transaction
-            org.slf4j.LoggerFactory.getLogger(NotificationServiceImpl.class)
-                .error("Failed to save appointment notification: {}", ex.getMessage());
-        }
+        saveAppointmentTemplate(user, appointment, NotificationMessage.of("appointment.created"), "appointment notification");
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void sendAppointmentStatusNotification(User user, Appointment appointment) {
+        saveAppointmentTemplate(user, appointment, NotificationMessage.of("appointment.status-updated"), "status notification");
+    }
+
+    private void saveAppointmentTemplate(User user, Appointment appointment, NotificationMessage message, String what) {
         Notification notification = new Notification();
         notification.setUser(user);
-        notification.setTitle(clamp("Statut mis à jour", 255));
-        notification.setMessage(clamp("Statut mis à jour.", 255));
+        notification.setTemplateKey(message.getKey());
+        notification.setParams(messageCatalog.encode(message, "view"));
         notification.setType(NotificationType.APPOINTMENT);
         notification.setRead(false);
-        notification.setRelatedEntityType("APPOINTMENT");
+        notification.setRelatedEntityType(APPOINTMENT_ENTITY);
         notification.setRelatedEntityId(appointment.getId());
-        notification.setActionUrl(clamp("/appointment_action?id=" + appointment.getId() + "&action=view", 255));
         notification.setCreatedAt(LocalDateTime.now());
         try {
             notificationRepository.save(notification);
         } catch (Exception ex) {
+            // Do not propagate to business transaction
             org.slf4j.LoggerFactory.getLogger(NotificationServiceImpl.class)
-                .error("Failed to save status notification: {}", ex.getMessage());
+                .error("Failed to save {}: {}", what, ex.getMessage());
         }
     }
 
@@ -84,50 +107,214 @@ public class NotificationServiceImpl implements NotificationService{
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void sendGeneralNotification(User user, String title, String message, NotificationType type,
                                         String actionUrl, String relatedEntityType, Long relatedEntityId) {
-        
+        if (user == null) return;
+        PendingNotification pending = new PendingNotification(user,
+                new ContentKey(clamp(title, 255), clamp(message, 255), type, clamp(actionUrl, 255), relatedEntityType, relatedEntityId, null, null));
+        enqueue(pending);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sendTemplatedNotification(User user, NotificationMessage message, NotificationType type,
+                                          String action, String relatedEntityType, Long relatedEntityId) {
+        if (user == null || message == null) return;
+        String params = messageCatalog.encode(message, action);
+        if (!messageCatalog.exists(message.getKey()) || params.length() > MAX_PARAMS_LENGTH) {
+            // Clé inconnue ou paramètres trop volumineux (texte libre) : stockage du texte rendu
+            sendGeneralNotification(user, messageCatalog.renderTitle(message.getKey()), messageCatalog.render(message), type,
+                    messageCatalog.renderActionUrl(relatedEntityType, relatedEntityId, messageCatalog.decode(params)),
+                    relatedEntityType, relatedEntityId);
+            return;
+        }
+        enqueue(new PendingNotification(user,
+                new ContentKey(null, null, type, null, relatedEntityType, relatedEntityId, message.getKey(), params)));
+    }
+
+    private void enqueue(PendingNotification pending) {
+        FanOutScope scope = FAN_OUT.get();
+        if (scope != null) {
+            // Écriture différée jusqu'à la fin de la diffusion pour regrouper les destinataires d'un même rôle
+            scope.pending.add(pending);
+            return;
+        }
+        // Écriture isolée pour ne pas impacter la transaction métier
+        inNewTransaction(() -> savePersonal(pending.getUser().getId(), pending.getContent()), "general notification");
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void beginFanOut() {
+        FanOutScope scope = FAN_OUT.get();
+        if (scope == null) {
+            scope = new FanOutScope();
+            FAN_OUT.set(scope);
+        }
+        scope.depth++;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean endFanOut() {
+        FanOutScope scope = FAN_OUT.get();
+        if (scope == null) return true;
+        if (--scope.depth > 0) return true;
+        FAN_OUT.remove();
+        return scope.pending.isEmpty() || flushFanOut(scope.pending);
+    }
+
+    /**
+     * Décisions (regroupement, rôles) prises sur le thread appelant, écritures exécutées en parallèle :
+     * une file série par destinataire et par rôle conserve l'ordre des écritures d'une même clé.
+     * Une diffusion occupe aussi la file de chacun de ses membres, car elle supprime leurs notifications
+     * personnelles sur la même entité : elle ne peut pas effacer une écriture personnelle plus récente.
+     * Les tâches ne reçoivent que des identifiants, jamais d'entité de la session appelante.
+     */
+    private boolean flushFanOut(List<PendingNotification> pending) {
+        FanOutExecutor.Event event = fanOutExecutor.newEvent();
+        // Regroupement par contenu identique : seul un contenu commun à tout un rôle peut être diffusé
+        Map<ContentKey, Map<Long, User>> groups = new LinkedHashMap<>();
+        for (PendingNotification p : pending) {
+            groups.computeIfAbsent(p.getContent(), k -> new LinkedHashMap<>()).putIfAbsent(p.getUser().getId(), p.getUser());
+        }
+        Map<RoleName, Long> roleSizes = new EnumMap<>(RoleName.class);
+        for (Map.Entry<ContentKey, Map<Long, User>> group : groups.entrySet()) {
+            ContentKey content = group.getKey();
+            Map<Long, User> remaining = group.getValue();
+            if (remaining.size() > 1) {
+                for (RoleName role : candidateRoles(remaining.values())) {
+                    List<Long> members = remaining.values().stream()
+                            .filter(u -> hasRole(u, role))
+                            .map(User::getId)
+                            .collect(Collectors.toList());
+                    if (members.size() < 2) continue;
+                    long roleSize = roleSizes.computeIfAbsent(role, userRepository::countByRoles_Name);
+                    // Diffusion uniquement si tous les membres du rôle sont destinataires et non encore couverts
+                    if (members.size() != roleSize) continue;
+                    members.forEach(remaining::remove);
+                    List<Object> lanes = new ArrayList<>(members.size() + 1);
+                    lanes.add(role);
+                    lanes.addAll(members);
+                    event.submit(lanes, () -> {
+                        if (!inNewTransaction(() -> saveBroadcast(role, content, members), "broadcast notification")) {
+                            // Diffusion impossible : repli sur les notifications personnelles
+                            members.forEach(userId -> inNewTransaction(() -> savePersonal(userId, content), "general notification"));
+                        }
+                    });
+                }
+            }
+            for (Long userId : remaining.keySet()) {
+                event.submit(userId, () -> inNewTransaction(() -> savePersonal(userId, content), "general notification"));
+            }
+        }
+        // notifyUsers ne rend la main qu'une fois les notifications de l'événement enregistrées (ou le délai écoulé)
+        return event.await();
+    }
+
+    // Rôles présents dans le groupe, du plus représenté au moins représenté
+    private List<RoleName> candidateRoles(java.util.Collection<User> users) {
+        Map<RoleName, Integer> counts = new EnumMap<>(RoleName.class);
+        for (User user : users) {
+            if (user.getRoles() == null) continue;
+            user.getRoles().forEach(r -> {
+                if (r != null && r.getName() != null) counts.merge(r.getName(), 1, Integer::sum);
+            });
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<RoleName, Integer>comparingByValue(Comparator.reverseOrder()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private boolean hasRole(User user, RoleName role) {
+        return user.getRoles() != null && user.getRoles().stream().anyMatch(r -> r != null && r.getName() == role);
+    }
+
+    private boolean inNewTransaction(Runnable work, String what) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> work.run());
+            return true;
+        } catch (Exception ex) {
+            // Do not propagate to business transaction
+            org.slf4j.LoggerFactory.getLogger(NotificationServiceImpl.class)
+                .error("Failed to save {}: {}", what, ex.getMessage());
+            return false;
+        }
+    }
+
+    private void savePersonal(Long userId, ContentKey content) {
+        User user = userRepository.getReferenceById(userId);
         // Si c'est une notification liée à un rendez-vous, vérifier s'il existe déjà une notification pour ce rendez-vous
-        if ("APPOINTMENT".equals(relatedEntityType) && relatedEntityId != null) {
+        if (APPOINTMENT_ENTITY.equals(content.getRelatedEntityType()) && content.getRelatedEntityId() != null) {
             List<Notification> existingNotifications = notificationRepository.findByUserAndRelatedEntityTypeAndRelatedEntityId(
-                    user, relatedEntityType, relatedEntityId);
-            
+                    user, content.getRelatedEntityType(), content.getRelatedEntityId());
+
             if (!existingNotifications.isEmpty()) {
                 // Mettre à jour la notification existante la plus récente pour garantir le dynamisme
                 Notification existingNotification = existingNotifications.get(0);
-                existingNotification.setTitle(clamp(title, 255));
-                existingNotification.setMessage(clamp(message, 255));
-                existingNotification.setActionUrl(clamp(actionUrl, 255));
+                existingNotification.setTitle(content.getTitle());
+                existingNotification.setMessage(content.getMessage());
+                existingNotification.setActionUrl(content.getActionUrl());
+                existingNotification.setTemplateKey(content.getTemplateKey());
+                existingNotification.setParams(content.getParams());
                 existingNotification.setRead(false); // Marquer comme non lue pour attirer l'attention
                 existingNotification.setCreatedAt(LocalDateTime.now()); // Mettre à jour la date pour le tri
-                try {
-                    notificationRepository.save(existingNotification);
-                } catch (Exception ex) {
-                    org.slf4j.LoggerFactory.getLogger(NotificationServiceImpl.class)
-                        .error("Failed to update existing notification: {}", ex.getMessage());
-                }
+                notificationRepository.save(existingNotification);
                 return;
             }
         }
-        
+
         // Créer une nouvelle notification si aucune n'existe pour ce rendez-vous
         Notification notification = new Notification();
         notification.setUser(user);
-        notification.setTitle(clamp(title, 255));
-        notification.setMessage(clamp(message, 255));
-        notification.setType(type);
+        notification.setTitle(content.getTitle());
+        notification.setMessage(content.getMessage());
+        notification.setType(content.getType());
         notification.setRead(false);
-        notification.setRelatedEntityType(relatedEntityType);
-        notification.setRelatedEntityId(relatedEntityId);
-        notification.setActionUrl(clamp(actionUrl, 255));
+        notification.setRelatedEntityType(content.getRelatedEntityType());
+        notification.setRelatedEntityId(content.getRelatedEntityId());
+        notification.setActionUrl(content.getActionUrl());
+        notification.setTemplateKey(content.getTemplateKey());
+        notification.setParams(content.getParams());
         notification.setCreatedAt(LocalDateTime.now());
-        try {
-            notificationRepository.save(notification);
-        } catch (Exception ex) {
-            org.slf4j.LoggerFactory.getLogger(NotificationServiceImpl.class)
-                .error("Failed to save general notification: {}", ex.getMessage());
+        notificationRepository.save(notification);
+    }
+
+    private void saveBroadcast(RoleName role, ContentKey content, List<Long> members) {
+        BroadcastNotification broadcast = null;
+        if (content.getRelatedEntityType() != null && content.getRelatedEntityId() != null) {
+            // Les notifications personnelles antérieures sur la même entité sont remplacées par la diffusion
+            notificationRepository.deleteByUserIdInAndRelatedEntity(
+                    members,
+                    content.getRelatedEntityType(), content.getRelatedEntityId());
+            if (APPOINTMENT_ENTITY.equals(content.getRelatedEntityType())) {
+                List<BroadcastNotification> existing = broadcastNotificationRepository.findByTargetRoleAndRelatedEntity(
+                        role, content.getRelatedEntityType(), content.getRelatedEntityId());
+                if (!existing.isEmpty()) {
+                    // Même logique que pour les notifications personnelles : mise à jour et retour au statut non lu
+                    broadcast = existing.get(0);
+                    broadcastNotificationRepository.deleteReceiptsByBroadcastIdIn(List.of(broadcast.getId()));
+                }
+            }
         }
+        if (broadcast == null) {
+            broadcast = new BroadcastNotification();
+            broadcast.setTargetRole(role);
+            broadcast.setRelatedEntityType(content.getRelatedEntityType());
+            broadcast.setRelatedEntityId(content.getRelatedEntityId());
+        }
+        broadcast.setTitle(content.getTitle());
+        broadcast.setMessage(content.getMessage());
+        broadcast.setType(content.getType());
+        broadcast.setActionUrl(content.getActionUrl());
+        broadcast.setTemplateKey(content.getTemplateKey());
+        broadcast.setParams(content.getParams());
+        broadcast.setCreatedAt(LocalDateTime.now());
+        broadcastNotificationRepository.save(broadcast);
     }
 
     @Override
@@ -150,61 +337,178 @@ public class NotificationServiceImpl implements NotificationService{
 
     @Override
     public Page<NotificationResponseDTO> getUserNotifications(User user, Pageable pageable) {
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user, pageable).map(this::mapToResponseDTO);
+        // Tri imposé par la requête d'union (created_at DESC)
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return broadcastNotificationRepository.findFeed(user.getId(), false, page).map(this::mapFeedRow);
     }
 
     @Override
     public List<NotificationResponseDTO> getUnreadNotifications(User user) {
-        return notificationRepository.findByUserAndReadFalseOrderByCreatedAtDesc(user).stream().map(this::mapToResponseDTO).collect(Collectors.toList());
+        return broadcastNotificationRepository.findFeed(user.getId(), true)
+                .stream().map(this::mapFeedRow).collect(Collectors.toList());
     }
 
     @Override
     public Long getUnreadCount(User user) {
-        return notificationRepository.countByUserAndReadFalse(user);
+        return broadcastNotificationRepository.countFeed(user.getId(), true);
     }
 
     @Override
     public void markAsRead(Long notificationId, User user) {
+        notificationsChanged(user);
+        if (notificationRepository.markAsReadByUserAndIdIn(user, List.of(notificationId)) > 0) return;
+        // Aucune ligne modifiée : déjà lue, inexistante ou appartenant à un autre utilisateur
         Notification notification = notificationRepository.findById(notificationId).orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
         if (!notification.getUser().getId().equals(user.getId())) {
             throw new UnauthorizedException("You can only mark your own notifications as read");
         }
-        notification.setRead(true);
-        notificationRepository.save(notification);
     }
 
     @Override
-    public void markAllAsRead(User user) {
-        List<Notification> unreadNotifications = notificationRepository.findByUserAndReadFalseOrderByCreatedAtDesc(user);
-        unreadNotifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+    public void markBroadcastAsRead(Long broadcastId, User user) {
+        notificationsChanged(user);
+        if (broadcastNotificationRepository.markAsRead(user.getId(), List.of(broadcastId)) == 0) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+    }
+
+    @Override
+    public int markAsRead(List<Long> notificationIds, List<Long> broadcastIds, User user) {
+        Set<Long> personalIds = nonNullIds(notificationIds);
+        Set<Long> broadcasts = nonNullIds(broadcastIds);
+        if (personalIds.isEmpty() && broadcasts.isEmpty()) return 0;
+        notificationsChanged(user);
+        // Les ids n'appartenant pas à l'utilisateur (ou diffusions qu'il ne voit pas) sont ignorés par la clause WHERE
+        int updated = personalIds.isEmpty() ? 0 : notificationRepository.markAsReadByUserAndIdIn(user, personalIds);
+        if (!broadcasts.isEmpty()) {
+            updated += broadcastNotificationRepository.markAsRead(user.getId(), broadcasts);
+        }
+        return updated;
+    }
+
+    @Override
+    public int markAllAsRead(User user) {
+        notificationsChanged(user);
+        return notificationRepository.markAllAsReadByUser(user)
+                + broadcastNotificationRepository.markAllAsRead(user.getId());
     }
 
     @Override
     public void deleteNotification(Long notificationId, User user) {
+        notificationsChanged(user);
+        if (notificationRepository.deleteByUserAndIdIn(user, List.of(notificationId)) > 0) return;
         Notification notification = notificationRepository.findById(notificationId).orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
         if (!notification.getUser().getId().equals(user.getId())) {
             throw new UnauthorizedException("You can only delete your own notifications");
         }
-        notificationRepository.delete(notification);
+    }
+
+    @Override
+    public void dismissBroadcast(Long broadcastId, User user) {
+        notificationsChanged(user);
+        // Une diffusion n'est jamais supprimée pour un seul utilisateur : elle est masquée pour lui
+        if (broadcastNotificationRepository.dismiss(user.getId(), List.of(broadcastId)) == 0) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+    }
+
+    @Override
+    public int deleteNotifications(List<Long> notificationIds, List<Long> broadcastIds, User user) {
+        Set<Long> personalIds = nonNullIds(notificationIds);
+        Set<Long> broadcasts = nonNullIds(broadcastIds);
+        if (personalIds.isEmpty() && broadcasts.isEmpty()) return 0;
+        notificationsChanged(user);
+        int deleted = personalIds.isEmpty() ? 0 : notificationRepository.deleteByUserAndIdIn(user, personalIds);
+        if (!broadcasts.isEmpty()) {
+            deleted += broadcastNotificationRepository.dismiss(user.getId(), broadcasts);
+        }
+        return deleted;
+    }
+
+    // Mises à jour JPQL en masse : non vues par les callbacks JPA, signalées explicitement (traitées après commit)
+    private void notificationsChanged(User user) {
+        eventPublisher.publishEvent(DashboardChangeEvent.of(DashboardChangeEvent.Source.NOTIFICATION, List.of(user.getId())));
+    }
+
+    private Set<Long> nonNullIds(List<Long> ids) {
+        return ids == null ? Set.of() : ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private NotificationResponseDTO mapFeedRow(Object[] row) {
+        NotificationResponseDTO dto = new NotificationResponseDTO();
+        dto.setId(row[0] != null ? ((Number) row[0]).longValue() : null);
+        dto.setType(row[3] != null ? NotificationType.valueOf((String) row[3]) : null);
+        dto.setRead(Boolean.TRUE.equals(row[4]));
+        dto.setRelatedEntityType((String) row[5]);
+        dto.setRelatedEntityId(row[6] != null ? ((Number) row[6]).longValue() : null);
+        dto.setCreatedAt(toLocalDateTime(row[8]));
+        dto.setBroadcast(Boolean.TRUE.equals(row[9]));
+        applyContent(dto, (String) row[1], (String) row[2], (String) row[7], (String) row[10], (String) row[11]);
+        return dto;
+    }
+
+    // Rendu à la lecture des notifications stockées par clé ; les lignes en texte libre sont reprises telles quelles
+    private void applyContent(NotificationResponseDTO dto, String title, String message, String actionUrl,
+                              String templateKey, String params) {
+        if (templateKey == null) {
+            dto.setTitle(title);
+            dto.setMessage(message);
+            dto.setActionUrl(actionUrl);
+            return;
+        }
+        NotificationMessageCatalog.Params decoded = messageCatalog.decode(params);
+        dto.setTitle(messageCatalog.renderTitle(templateKey));
+        dto.setMessage(messageCatalog.renderMessage(templateKey, decoded));
+        dto.setActionUrl(messageCatalog.renderActionUrl(dto.getRelatedEntityType(), dto.getRelatedEntityId(), decoded));
+    }
+
+    private LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime();
+        if (value instanceof LocalDateTime dateTime) return dateTime;
+        return null;
     }
 
     private NotificationResponseDTO mapToResponseDTO(Notification notification) {
         NotificationResponseDTO dto = new NotificationResponseDTO();
         dto.setId(notification.getId());
-        dto.setTitle(notification.getTitle());
-        dto.setMessage(notification.getMessage());
         dto.setType(notification.getType());
         dto.setRead(notification.isRead());
         dto.setRelatedEntityType(notification.getRelatedEntityType());
         dto.setRelatedEntityId(notification.getRelatedEntityId());
-        dto.setActionUrl(notification.getActionUrl());
         dto.setCreatedAt(notification.getCreatedAt());
+        applyContent(dto, notification.getTitle(), notification.getMessage(), notification.getActionUrl(),
+                notification.getTemplateKey(), notification.getParams());
         return dto;
     }
 
     @Override
     public void deleteAllNotifications() {
+        eventPublisher.publishEvent(DashboardChangeEvent.global(DashboardChangeEvent.Source.NOTIFICATION));
         notificationRepository.deleteAll();
+        broadcastNotificationRepository.deleteAllReceipts();
+        broadcastNotificationRepository.deleteAll();
+    }
+
+    private static final class FanOutScope {
+        private int depth;
+        private final List<PendingNotification> pending = new ArrayList<>();
+    }
+
+    @Value
+    private static class ContentKey {
+        String title;
+        String message;
+        NotificationType type;
+        String actionUrl;
+        String relatedEntityType;
+        Long relatedEntityId;
+        String templateKey;
+        String params;
+    }
+
+    @Value
+    private static class PendingNotification {
+        User user;
+        ContentKey content;
     }
 }
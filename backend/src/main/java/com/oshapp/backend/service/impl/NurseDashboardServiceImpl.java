@@ -2,111 +2,149 @@ package com.oshapp.backend.service.impl;
 
 import com.oshapp.backend.dto.*;
 import com.oshapp.backend.mapper.AppointmentMapper;
-import com.oshapp.backend.mapper.NotificationMapper;
-import com.oshapp.backend.model.Notification;
+import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.AppointmentStatus;
 import com.oshapp.backend.model.enums.AppointmentType;
 import com.oshapp.backend.repository.AppointmentRepository;
 import com.oshapp.backend.repository.EmployeeRepository;
-import com.oshapp.backend.repository.NotificationRepository;
+import com.oshapp.backend.repository.UserRepository;
 import com.oshapp.backend.security.UserPrincipal;
+import com.oshapp.backend.service.NotificationService;
 import com.oshapp.backend.service.NurseDashboardService;
+import com.oshapp.backend.service.dashboard.DashboardCache;
+import com.oshapp.backend.service.dashboard.DashboardExecutor;
+import com.oshapp.backend.service.dashboard.DashboardType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class NurseDashboardServiceImpl implements NurseDashboardService {
 
+    // Pending should include both employee-requested and HR-initiated obligatory visits
+    private static final List<AppointmentStatus> PENDING_STATUSES = List.of(AppointmentStatus.REQUESTED_EMPLOYEE, AppointmentStatus.OBLIGATORY);
+    private static final List<AppointmentStatus> NURSE_STATUSES = List.of(
+            AppointmentStatus.PROPOSED_MEDECIN, AppointmentStatus.CONFIRMED, AppointmentStatus.COMPLETED);
+    // Visit-type distribution for incoming entries: pending + proposed (awaiting employee reply)
+    private static final List<AppointmentStatus> ENTRY_STATUSES = List.of(
+            AppointmentStatus.REQUESTED_EMPLOYEE, AppointmentStatus.OBLIGATORY, AppointmentStatus.PROPOSED_MEDECIN);
+
     private final EmployeeRepository employeeRepository;
     private final AppointmentRepository appointmentRepository;
-    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
     private final AppointmentMapper appointmentMapper;
-    private final NotificationMapper notificationMapper;
+    private final NotificationService notificationService;
+    private final DashboardExecutor dashboardExecutor;
+    private final DashboardCache dashboardCache;
+
+    @Value("${app.dashboard.list-limit:20}")
+    private int listLimit;
 
+    /**
+     * Sections chargées en parallèle (une transaction en lecture seule chacune) : compteurs agrégés
+     * et listes limitées aux premiers éléments, pour un temps de réponse indépendant du volume en attente.
+     */
     @Override
-    @Transactional(readOnly = true)
     public NurseDashboardDTO getDashboardData() {
         UserPrincipal currentUser = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = currentUser.getId();
+        return dashboardCache.get(DashboardType.NURSE, "dashboard", userId, () -> loadDashboardData(userId));
+    }
 
-                EmployeeProfileDTO employeeProfileDTO = employeeRepository.findByUserId(currentUser.getId())
+    private NurseDashboardDTO loadDashboardData(Long userId) {
+        int limit = Math.max(1, listLimit);
+
+        CompletableFuture<EmployeeProfileDTO> profile = dashboardExecutor.supply(() -> employeeRepository.findByUserId(userId)
                 .map(EmployeeProfileDTO::new)
-                .orElseThrow(() -> new RuntimeException("Employee not found for user"));
+                .orElseThrow(() -> new RuntimeException("Employee not found for user")));
 
         // Count all appointments for nurse dashboard - include unassigned pending requests
-        // Pending should include both employee-requested and HR-initiated obligatory visits
-        List<AppointmentStatus> pendingStatuses = List.of(AppointmentStatus.REQUESTED_EMPLOYEE, AppointmentStatus.OBLIGATORY);
-        long pendingCount = appointmentRepository.countByStatusIn(pendingStatuses);
-        long proposedCount = appointmentRepository.countByNurseIdAndStatusIn(currentUser.getId(), List.of(AppointmentStatus.PROPOSED_MEDECIN));
-        long confirmedCount = appointmentRepository.countByNurseIdAndStatusIn(currentUser.getId(), List.of(AppointmentStatus.CONFIRMED));
-        long completedCount = appointmentRepository.countByNurseIdAndStatusIn(currentUser.getId(), List.of(AppointmentStatus.COMPLETED));
-
-        StatsDTO statsDTO = new StatsDTO(pendingCount, proposedCount, confirmedCount, completedCount);
-
-        List<AppointmentResponseDTO> pendingAppointments = appointmentRepository
-                .findByStatusIn(pendingStatuses, org.springframework.data.domain.Pageable.unpaged())
-                .getContent()
+        CompletableFuture<StatsDTO> stats = dashboardExecutor.supply(() -> {
+            Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+            for (Object[] row : appointmentRepository.countByStatusForNurse(userId, NURSE_STATUSES)) {
+                byStatus.put((AppointmentStatus) row[0], (Long) row[1]);
+            }
+            return new StatsDTO(appointmentRepository.countByStatusIn(PENDING_STATUSES),
+                    byStatus.getOrDefault(AppointmentStatus.PROPOSED_MEDECIN, 0L),
+                    byStatus.getOrDefault(AppointmentStatus.CONFIRMED, 0L),
+                    byStatus.getOrDefault(AppointmentStatus.COMPLETED, 0L));
+        });
+
+        // Oldest pending requests first, bounded to the list limit
+        CompletableFuture<List<AppointmentResponseDTO>> pending = dashboardExecutor.supply(() -> appointmentRepository
+                .findTopByStatusIn(PENDING_STATUSES, PageRequest.of(0, limit, Sort.by(Sort.Direction.ASC, "createdAt")))
                 .stream()
                 .map(appointmentMapper::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
 
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
         LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
-        List<AppointmentResponseDTO> todayAppointments = appointmentRepository.findByNurseIdAndStatusAndScheduledTimeBetween(currentUser.getId(), AppointmentStatus.CONFIRMED, startOfDay, endOfDay).stream()
+        CompletableFuture<List<AppointmentResponseDTO>> today = dashboardExecutor.supply(() -> appointmentRepository
+                .findByNurseIdAndStatusAndScheduledTimeBetween(userId, AppointmentStatus.CONFIRMED, startOfDay, endOfDay).stream()
                 .map(appointmentMapper::toDto)
-                .collect(Collectors.toList());
-
-        List<Notification> notifications = notificationRepository.findByUserId(currentUser.getId());
-        int unreadNotifications = (int) notifications.stream().filter(n -> !n.isRead()).count();
-        List<NotificationResponseDTO> notificationDTOs = notifications.stream()
-                .map(notificationMapper::toDto)
-                .collect(Collectors.toList());
-
-        // Compute visit-type distribution for incoming entries: pending + proposed (awaiting employee reply)
-        List<AppointmentStatus> entryStatuses = List.of(
-                AppointmentStatus.REQUESTED_EMPLOYEE,
-                AppointmentStatus.OBLIGATORY,
-                AppointmentStatus.PROPOSED_MEDECIN
-        );
-        List<Object[]> typeRows = appointmentRepository.countByTypeForStatuses(entryStatuses);
-        Map<String, Long> visitTypeCounts = new HashMap<>();
-        // Initialize known keys to 0 for frontend stability
-        visitTypeCounts.put("reprise", 0L);
-        visitTypeCounts.put("embauche", 0L);
-        visitTypeCounts.put("spontane", 0L);
-        visitTypeCounts.put("periodique", 0L);
-        visitTypeCounts.put("surveillance", 0L);
-        visitTypeCounts.put("appel_medecin", 0L);
-        for (Object[] row : typeRows) {
-            if (row == null || row.length < 2) continue;
-            AppointmentType type = (AppointmentType) row[0];
-            Long cnt = (Long) row[1];
-            String key = mapTypeKey(type);
-            if (key != null) {
-                visitTypeCounts.put(key, cnt);
+                .collect(Collectors.toList()));
+
+        // Latest notifications from the merged feed (personal + role broadcasts) and exact unread count
+        CompletableFuture<NotificationSection> notifications = dashboardExecutor.supply(() -> {
+            User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+            return new NotificationSection(
+                    notificationService.getUnreadCount(user),
+                    notificationService.getUserNotifications(user, PageRequest.of(0, limit)).getContent());
+        });
+
+        CompletableFuture<Map<String, Long>> visitTypes = dashboardExecutor.supply(() -> {
+            Map<String, Long> visitTypeCounts = new HashMap<>();
+            // Initialize known keys to 0 for frontend stability
+            visitTypeCounts.put("reprise", 0L);
+            visitTypeCounts.put("embauche", 0L);
+            visitTypeCounts.put("spontane", 0L);
+            visitTypeCounts.put("periodique", 0L);
+            visitTypeCounts.put("surveillance", 0L);
+            visitTypeCounts.put("appel_medecin", 0L);
+            for (Object[] row : appointmentRepository.countByTypeForStatuses(ENTRY_STATUSES)) {
+                if (row == null || row.length < 2) continue;
+                String key = mapTypeKey((AppointmentType) row[0]);
+                if (key != null) {
+                    visitTypeCounts.put(key, (Long) row[1]);
+                }
             }
-        }
+            return visitTypeCounts;
+        });
 
+        NotificationSection notificationSection = dashboardExecutor.join(notifications);
         return new NurseDashboardDTO(
-                employeeProfileDTO,
-                statsDTO,
-                pendingAppointments,
-                todayAppointments,
-                unreadNotifications,
-                notificationDTOs,
-                visitTypeCounts
+                dashboardExecutor.join(profile),
+                dashboardExecutor.join(stats),
+                dashboardExecutor.join(pending),
+                dashboardExecutor.join(today),
+                notificationSection.getUnread().intValue(),
+                notificationSection.getLatest(),
+                dashboardExecutor.join(visitTypes)
         );
     }
 
+    @Getter
+    @AllArgsConstructor
+    private static class NotificationSection {
+        private final Long unread;
+        private final List<NotificationResponseDTO> latest;
+    }
+
     private String mapTypeKey(AppointmentType type) {
         if (type == null) return null;
         switch (type) {
@@ -1,29 +1,271 @@
 package com.oshapp.backend.service.impl;
 
-import java.util.List;
-
+import com.oshapp.backend.config.SmsProperties;
+import com.oshapp.backend.dto.SmsDeliveryReportDTO;
+import com.oshapp.backend.exception.ResourceNotFoundException;
 import com.oshapp.backend.model.Appointment;
+import com.oshapp.backend.model.SmsOutboxMessage;
 import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.enums.Priority;
+import com.oshapp.backend.model.enums.SmsStatus;
+import com.oshapp.backend.repository.SmsOutboxRepository;
 import com.oshapp.backend.service.SmsService;
-
+import com.oshapp.backend.service.sms.SmsGateway;
+import com.oshapp.backend.service.sms.SmsMessage;
+import com.oshapp.backend.service.sms.SmsRateLimiter;
+import com.oshapp.backend.service.sms.SmsSubmitResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * File SMS persistante (sms_outbox) servie par un thread dédié : les SMS urgents ne passent ni par
+ * la file email ni par le planificateur partagé. Soumission par lots à la passerelle active,
+ * dans la limite de son débit, avec reprise exponentielle et accusés de réception.
+ */
 @Service
 @Slf4j
-public class SmsServiceImpl implements  SmsService{
+@RequiredArgsConstructor
+public class SmsServiceImpl implements SmsService {
 
-    // In a real application, this would integrate with an SMS gateway like Twilio.
+    private static final int MAX_TEXT_LENGTH = 1000;
+
+    private final SmsOutboxRepository outboxRepository;
+    private final SmsProperties properties;
+    private final SmsGateway gateway;
+    private final SmsRateLimiter rateLimiter;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService dispatcher;
+
+    @PostConstruct
+    void startDispatcher() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sms-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(100, properties.getPollIntervalMs());
+        dispatcher.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("SMS dispatcher started with gateway '{}' (enabled={})", gateway.getName(), properties.isEnabled());
+    }
+
+    @PreDestroy
+    void stopDispatcher() {
+        dispatcher.shutdown();
+        try {
+            if (!dispatcher.awaitTermination(10, TimeUnit.SECONDS)) {
+                // Les SMS restés en cours de soumission seront repris via staleProcessingMinutes
+                dispatcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
     public void sendAppointmentNotification(List<User> recipients, Appointment appointment, String messageTemplate) {
-        log.info("--- SMS SIMULATION ---");
+        if (recipients == null || appointment == null) return;
+        boolean urgent = appointment.isUrgent() || appointment.getPriority() == Priority.URGENT;
         for (User recipient : recipients) {
-                        if (recipient.getEmployee() != null && recipient.getEmployee().getPhoneNumber() != null && !recipient.getEmployee().getPhoneNumber().isEmpty()) {
-                                String message = String.format(messageTemplate, recipient.getEmployee().getFirstName(), appointment.getId(), appointment.getStatus());
-                                log.info("Sending SMS to {}: {}", recipient.getEmployee().getPhoneNumber(), message);
+            if (recipient == null) continue;
+            String firstName = recipient.getEmployee() != null && recipient.getEmployee().getFirstName() != null
+                    ? recipient.getEmployee().getFirstName() : recipient.getUsername();
+            send(recipient, String.format(messageTemplate, firstName, appointment.getId(), appointment.getStatus()), urgent);
+        }
+    }
+
+    @Override
+    public void send(User recipient, String text, boolean urgent) {
+        String phoneNumber = phoneNumberOf(recipient);
+        if (phoneNumber == null) {
+            log.warn("User {} has no phone number. Skipping SMS.", recipient != null ? recipient.getId() : null);
+            return;
+        }
+        if (text == null || text.isBlank()) return;
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(SmsOutboxMessage.builder()
+                .userId(recipient.getId())
+                .phoneNumber(phoneNumber)
+                .text(text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text)
+                .urgent(urgent)
+                .status(SmsStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        log.debug("SMS queued for user {} (urgent={})", recipient.getId(), urgent);
+        if (urgent) wakeUpAfterCommit();
+    }
+
+    private String phoneNumberOf(User user) {
+        if (user == null) return null;
+        String phone = user.getEmployee() != null ? user.getEmployee().getPhoneNumber() : null;
+        if (phone == null || phone.isBlank()) phone = user.getPhoneNumber();
+        return phone != null && !phone.isBlank() ? phone.trim() : null;
+    }
+
+    // Visite urgente : passage immédiat du dispatcher, une fois la ligne visible en base
+    private void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        try {
+            dispatcher.execute(this::dispatch);
+        } catch (Exception e) {
+            log.debug("SMS dispatcher wake-up skipped: {}", e.getMessage());
+        }
+    }
+
+    void dispatch() {
+        if (!properties.isEnabled()) return;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.execute(status ->
+                    outboxRepository.releaseStale(now.minusMinutes(Math.max(1, properties.getStaleProcessingMinutes()))));
+
+            int permits = rateLimiter.acquireUpTo(Math.max(1, properties.getBatchSize()));
+            if (permits <= 0) return;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> due = outboxRepository.lockDueIds(now, permits);
+                if (!due.isEmpty()) outboxRepository.markStatus(due, SmsStatus.PROCESSING, now);
+                return due;
+            });
+            int claimed = ids != null ? ids.size() : 0;
+            rateLimiter.release(permits - claimed);
+            if (claimed == 0) return;
+
+            List<SmsOutboxMessage> messages = outboxRepository.findAllById(ids);
+            int batchSize = Math.max(1, gateway.getMaxBatchSize());
+            for (int i = 0; i < messages.size(); i += batchSize) {
+                submit(messages.subList(i, Math.min(messages.size(), i + batchSize)));
+            }
+        } catch (Exception e) {
+            log.error("SMS dispatch cycle failed: {}", e.getMessage());
+        }
+    }
+
+    private void submit(List<SmsOutboxMessage> batch) {
+        List<SmsMessage> payload = batch.stream()
+                .map(m -> new SmsMessage(String.valueOf(m.getId()), m.getPhoneNumber(), m.getText()))
+                .collect(Collectors.toList());
+        Map<String, SmsSubmitResult> results;
+        try {
+            results = gateway.submit(payload).stream()
+                    .filter(r -> r.getReference() != null)
+                    .collect(Collectors.toMap(SmsSubmitResult::getReference, Function.identity(), (a, b) -> a));
+        } catch (Exception e) {
+            // Passerelle injoignable : tout le lot est à reprendre
+            log.warn("SMS gateway '{}' failed for a batch of {}: {}", gateway.getName(), batch.size(), e.getMessage());
+            results = Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (SmsOutboxMessage message : batch) {
+            SmsSubmitResult result = results.get(String.valueOf(message.getId()));
+            message.setGateway(gateway.getName());
+            message.setLockedAt(null);
+            message.setUpdatedAt(now);
+            if (result != null && result.isAccepted()) {
+                message.setStatus(SmsStatus.SENT);
+                message.setProviderMessageId(result.getProviderMessageId());
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLastError(null);
             } else {
-                log.warn("User {} has no phone number. Skipping SMS.", recipient.getId());
+                String error = result != null ? result.getError() : "No result from gateway";
+                scheduleRetry(message, error, result != null && result.isPermanent());
             }
         }
-        log.info("----------------------");
-    } 
+        try {
+            outboxRepository.saveAll(batch);
+        } catch (Exception e) {
+            // Les SMS restent PROCESSING et seront repris après staleProcessingMinutes
+            log.error("Failed to record SMS batch results: {}", e.getMessage());
+        }
+    }
+
+    private void scheduleRetry(SmsOutboxMessage message, String error, boolean permanent) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(error, 1000));
+        if (permanent || attempts >= properties.getMaxAttempts()) {
+            message.setStatus(SmsStatus.FAILED);
+            log.error("SMS {} to user {} failed after {} attempts: {}", message.getId(), message.getUserId(), attempts, error);
+        } else {
+            message.setStatus(SmsStatus.PENDING);
+            message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+            log.warn("SMS {} failed (attempt {}/{}), retry at {}: {}", message.getId(), attempts,
+                    properties.getMaxAttempts(), message.getNextAttemptAt(), error);
+        }
+    }
+
+    // Reprise exponentielle : initial, 2x, 4x... plafonnée
+    private long backoffSeconds(int attempts) {
+        long initial = Math.max(1, properties.getInitialBackoffSeconds());
+        long delay = initial << Math.min(attempts - 1, 20);
+        return Math.min(delay, Math.max(initial, properties.getMaxBackoffSeconds()));
+    }
+
+    @Override
+    public void handleDeliveryReport(SmsDeliveryReportDTO report) {
+        if (report == null || report.getMessageId() == null || report.getMessageId().isBlank()) {
+            throw new IllegalArgumentException("messageId is required");
+        }
+        String status = report.getStatus() != null ? report.getStatus().trim().toUpperCase() : "";
+        transactionTemplate.executeWithoutResult(tx -> {
+            SmsOutboxMessage message = outboxRepository.findFirstByProviderMessageId(report.getMessageId())
+                    .orElseThrow(() -> new ResourceNotFoundException("SMS not found with provider id: " + report.getMessageId()));
+            if (message.getStatus() != SmsStatus.SENT) return;
+            message.setUpdatedAt(LocalDateTime.now());
+            if ("DELIVERED".equals(status)) {
+                message.setStatus(SmsStatus.DELIVERED);
+            } else if ("FAILED".equals(status)) {
+                // Échec côté opérateur : nouvelle soumission tant que des tentatives restent
+                message.setProviderMessageId(null);
+                scheduleRetry(message, report.getError() != null ? report.getError() : "Delivery failed", false);
+            } else {
+                throw new IllegalArgumentException("Unknown delivery status: " + report.getStatus());
+            }
+            outboxRepository.save(message);
+        });
+    }
+
+    @Scheduled(cron = "${app.sms.retention-cron:0 30 3 * * *}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(Math.max(1, properties.getRetentionDays()));
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteFinishedBefore(
+                List.of(SmsStatus.SENT, SmsStatus.DELIVERED, SmsStatus.FAILED), cutoff));
+        if (deleted != null && deleted > 0) log.info("Purged {} finished SMS older than {}", deleted, cutoff);
+    }
+
+    private String truncate(String s, int max) {
+        if (s == null) return null;
+        return s.length() <= max ? s : s.substring(0, max);
+    }
 }
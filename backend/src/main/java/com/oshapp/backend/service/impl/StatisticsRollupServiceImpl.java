@@ -0,0 +1,173 @@
+package com.oshapp.backend.service.impl;
+
+import com.oshapp.backend.repository.AccidentDailyStatRepository;
+import com.oshapp.backend.repository.AppointmentDailyStatRepository;
+import com.oshapp.backend.repository.AppointmentRepository;
+import com.oshapp.backend.repository.EmployeeRepository;
+import com.oshapp.backend.repository.WorkAccidentRepository;
+import com.oshapp.backend.service.StatisticsRollupService;
+import com.oshapp.backend.model.listener.AccidentRollupEvent;
+import com.oshapp.backend.model.listener.AppointmentRollupEvent;
+import com.oshapp.backend.model.listener.AppointmentStatKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StatisticsRollupServiceImpl implements StatisticsRollupService {
+
+    private final AppointmentDailyStatRepository dailyStatRepository;
+    private final AccidentDailyStatRepository accidentDailyStatRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final EmployeeRepository employeeRepository;
+    private final WorkAccidentRepository workAccidentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.statistics.rollup.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicBoolean reconciling = new AtomicBoolean(false);
+
+    /**
+     * Delta appliqué après commit de la transaction métier, dans sa propre transaction :
+     * un échec est journalisé et corrigé par la réconciliation nocturne.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAppointmentMoved(AppointmentRollupEvent event) {
+        if (!enabled) return;
+        try {
+            inNewTransaction().executeWithoutResult(status -> {
+                AppointmentStatKey removed = event.getRemoved();
+                AppointmentStatKey added = event.getAdded();
+                Map<Long, String> departments = departments(removed, added);
+                if (removed != null) {
+                    // Retrait de la case où le rendez-vous a été compté, même si l'employé a changé de département depuis
+                    apply(removed, -1, removed.getDepartment() != null ? removed.getDepartment() : countedDepartment(removed, departments));
+                }
+                if (added != null) {
+                    String department = currentDepartment(added, departments);
+                    apply(added, 1, department);
+                    if (added.getAppointmentId() != null) dailyStatRepository.setCountedDepartment(added.getAppointmentId(), department);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to update appointment statistics rollup: {}", e.getMessage());
+        }
+    }
+
+    // Jours d'accidents recalculés entièrement (volumes faibles, recalcul idempotent)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccidentChanged(AccidentRollupEvent event) {
+        if (!enabled || event.getDates().isEmpty()) return;
+        try {
+            inNewTransaction().executeWithoutResult(status -> {
+                accidentDailyStatRepository.deleteDays(event.getDates());
+                accidentDailyStatRepository.rebuildDays(event.getDates());
+            });
+        } catch (Exception e) {
+            log.warn("Failed to update accident statistics rollup: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            log.info("Appointment statistics reconciliation already running, skipped");
+            return 0;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Integer buckets = inNewTransaction().execute(status -> {
+                dailyStatRepository.deleteAllBuckets();
+                accidentDailyStatRepository.deleteAllBuckets();
+                int rebuilt = dailyStatRepository.rebuildBuckets() + accidentDailyStatRepository.rebuildBuckets();
+                dailyStatRepository.syncCountedDepartments();
+                return rebuilt;
+            });
+            log.info("Statistics rollups rebuilt: {} buckets in {} ms", buckets, System.currentTimeMillis() - start);
+            return buckets != null ? buckets : 0;
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${app.statistics.rollup.reconcile-cron:0 15 2 * * *}")
+    public void scheduledReconcile() {
+        if (!enabled) return;
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Appointment statistics reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    // Première initialisation (agrégats vides alors que des rendez-vous ou accidents existent)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (!enabled) return;
+        try {
+            if ((dailyStatRepository.count() == 0 && appointmentRepository.count() > 0)
+                    || (accidentDailyStatRepository.count() == 0 && workAccidentRepository.count() > 0)) {
+                reconcile();
+            }
+        } catch (Exception e) {
+            log.error("Appointment statistics initialization failed: {}", e.getMessage());
+        }
+    }
+
+    private void apply(AppointmentStatKey key, long delta, String department) {
+        dailyStatRepository.addToBucket(key.getStatDate(), key.getType().name(), key.getStatus().name(),
+                department, key.getPractitionerId(), key.getVisitMode(), key.isScheduled(), delta);
+    }
+
+    private String currentDepartment(AppointmentStatKey key, Map<Long, String> departments) {
+        return key.getEmployeeId() != null ? departments.getOrDefault(key.getEmployeeId(), "") : "";
+    }
+
+    // Snapshot sans département (rendez-vous compté dans la même session) : valeur enregistrée par le delta précédent
+    private String countedDepartment(AppointmentStatKey key, Map<Long, String> departments) {
+        if (key.getAppointmentId() != null) {
+            for (Object[] row : dailyStatRepository.findCountedDepartments(List.of(key.getAppointmentId()))) {
+                if (row[1] != null) return (String) row[1];
+            }
+        }
+        return currentDepartment(key, departments);
+    }
+
+    private Map<Long, String> departments(AppointmentStatKey... keys) {
+        Set<Long> ids = new HashSet<>();
+        for (AppointmentStatKey key : keys) {
+            if (key != null && key.getEmployeeId() != null) ids.add(key.getEmployeeId());
+        }
+        Map<Long, String> departments = new HashMap<>();
+        if (ids.isEmpty()) return departments;
+        for (Object[] row : employeeRepository.findDepartmentsByIdIn(ids)) {
+            departments.put((Long) row[0], row[1] != null ? (String) row[1] : "");
+        }
+        return departments;
+    }
+
+    private TransactionTemplate inNewTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
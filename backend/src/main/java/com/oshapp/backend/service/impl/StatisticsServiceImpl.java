@@ -2,13 +2,20 @@ package com.oshapp.backend.service.impl;
 
 import com.oshapp.backend.dto.ActivityDTO;
 import com.oshapp.backend.dto.AlertDTO;
-import com.oshapp.backend.model.MedicalCertificate;
+import com.oshapp.backend.dto.StatisticsTimeSeriesDTO;
+import com.oshapp.backend.dto.enums.TimeSeriesGranularity;
 import com.oshapp.backend.model.WorkAccident;
 import com.oshapp.backend.model.enums.AppointmentStatus;
 import com.oshapp.backend.model.enums.AppointmentType;
 import com.oshapp.backend.repository.*;
 import com.oshapp.backend.service.StatisticsService;
+import com.oshapp.backend.service.dashboard.DashboardCache;
+import com.oshapp.backend.service.dashboard.DashboardType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -18,11 +25,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class StatisticsServiceImpl implements StatisticsService {
 
+    private static final int CERTIFICATE_EXPIRY_WINDOW_DAYS = 30;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -38,8 +46,27 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Autowired
     private WorkAccidentRepository workAccidentRepository;
 
+    @Autowired
+    private AppointmentDailyStatRepository appointmentDailyStatRepository;
+
+    @Autowired
+    private AccidentDailyStatRepository accidentDailyStatRepository;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Value("${app.dashboard.list-limit:20}")
+    private int listLimit;
+
+    @Value("${app.statistics.timeseries.max-points:1000}")
+    private int maxTimeSeriesPoints;
+
     @Override
     public Map<String, Object> getAdminDashboardStatistics() {
+        return dashboardCache.get(DashboardType.ADMIN, "statistics", null, this::computeAdminDashboardStatistics);
+    }
+
+    private Map<String, Object> computeAdminDashboardStatistics() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("userRoleDistribution", getUserRoleDistribution());
         stats.put("monthlyAppointmentActivity", getMonthlyAppointmentActivity());
@@ -48,36 +75,31 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public Map<String, Object> getRhDashboardStatistics() {
+        return dashboardCache.get(DashboardType.RH, "statistics", null, this::computeRhDashboardStatistics);
+    }
+
+    private Map<String, Object> computeRhDashboardStatistics() {
         Map<String, Object> stats = new HashMap<>();
-        LocalDate thirtyDaysFromNow = LocalDate.now().plusDays(30);
+        LocalDate today = LocalDate.now();
 
         stats.put("totalEmployees", employeeRepository.count());
-        stats.put("pendingRequests", appointmentRepository.countByStatus(AppointmentStatus.REQUESTED_EMPLOYEE));
-        stats.put("returnToWorkVisits", appointmentRepository.countByTypeAndStatus(AppointmentType.RETURN_TO_WORK, AppointmentStatus.CONFIRMED));
-        stats.put("expiringCertificates", medicalCertificateRepository.findByExpirationDateBeforeOrEqual(thirtyDaysFromNow).size());
-        stats.put("recentAccidents", workAccidentRepository.findByAccidentDateAfterOrderByAccidentDateDesc(LocalDateTime.now().minusDays(30)).size());
+        stats.put("pendingRequests", appointmentDailyStatRepository.sumByStatus(AppointmentStatus.REQUESTED_EMPLOYEE));
+        stats.put("returnToWorkVisits", appointmentDailyStatRepository.sumByTypeAndStatus(AppointmentType.RETURN_TO_WORK, AppointmentStatus.CONFIRMED));
+        stats.put("expiringCertificates", medicalCertificateRepository.countExpiringBetween(today, today.plusDays(CERTIFICATE_EXPIRY_WINDOW_DAYS)));
+        stats.put("recentAccidents", workAccidentRepository.countByAccidentDateAfter(LocalDateTime.now().minusDays(30)));
         return stats;
     }
 
     @Override
     public List<AlertDTO> getRhDashboardAlerts() {
+        return dashboardCache.get(DashboardType.RH, "alerts", null, this::computeRhDashboardAlerts);
+    }
+
+    private List<AlertDTO> computeRhDashboardAlerts() {
         List<AlertDTO> alerts = new ArrayList<>();
-        LocalDate thirtyDaysFromNow = LocalDate.now().plusDays(30);
-        
-        // 1. Add expiring medical certificates alerts
-        List<MedicalCertificate> expiringCertificates = medicalCertificateRepository.findByExpirationDateBeforeOrEqual(thirtyDaysFromNow);
-        alerts.addAll(expiringCertificates.stream()
-                .map(cert -> new AlertDTO(
-                        cert.getId().toString(),
-                        "Certificat arrivant à expiration",
-                        String.format("Le certificat de %s %s expire le %s.",
-                                cert.getEmployee().getFirstName(),
-                                cert.getEmployee().getLastName(),
-                                cert.getExpirationDate().format(DateTimeFormatter.ISO_LOCAL_DATE)),
-                        cert.getExpirationDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                        "WARNING",
-                        String.format("/employees/%d/certificates", cert.getEmployee().getId())))
-                .collect(Collectors.toList()));
+
+        // 1. Add expiring medical certificates alerts (soonest first, bounded to the dashboard list limit)
+        alerts.addAll(getExpiringCertificateAlerts(PageRequest.of(0, Math.max(1, listLimit))).getContent());
 
         // 2. Add recent appointment requests for RH supervision
         LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
@@ -124,6 +146,26 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public List<ActivityDTO> getRhDashboardActivities() {
+        return dashboardCache.get(DashboardType.RH, "activities", null, this::computeRhDashboardActivities);
+    }
+
+    @Override
+    public Page<AlertDTO> getExpiringCertificateAlerts(Pageable pageable) {
+        LocalDate today = LocalDate.now();
+        return medicalCertificateRepository.findExpiringBetween(today, today.plusDays(CERTIFICATE_EXPIRY_WINDOW_DAYS), pageable)
+                .map(cert -> new AlertDTO(
+                        cert.getId().toString(),
+                        "Certificat arrivant à expiration",
+                        String.format("Le certificat de %s %s expire le %s.",
+                                cert.getEmployee().getFirstName(),
+                                cert.getEmployee().getLastName(),
+                                cert.getExpirationDate().format(DateTimeFormatter.ISO_LOCAL_DATE)),
+                        cert.getExpirationDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
+                        "WARNING",
+                        String.format("/employees/%d/certificates", cert.getEmployee().getId())));
+    }
+
+    private List<ActivityDTO> computeRhDashboardActivities() {
         List<ActivityDTO> activities = new ArrayList<>();
         LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
 
@@ -169,8 +211,9 @@ public class StatisticsServiceImpl implements StatisticsService {
         return distribution;
     }
 
+    // Lu depuis les agrégats journaliers (appointment_daily_stats) plutôt que par balayage des rendez-vous
     private List<Map<String, Object>> getMonthlyAppointmentActivity() {
-        List<Object[]> rawData = appointmentRepository.countAppointmentsByMonth();
+        List<Object[]> rawData = appointmentDailyStatRepository.sumScheduledByMonth();
         List<Map<String, Object>> activity = new java.util.ArrayList<>();
         for (Object[] row : rawData) {
             Map<String, Object> monthData = new HashMap<>();
@@ -181,4 +224,52 @@ public class StatisticsServiceImpl implements StatisticsService {
         }
         return activity;
     }
+
+    @Override
+    public StatisticsTimeSeriesDTO getTimeSeries(TimeSeriesGranularity granularity, LocalDate from, LocalDate to,
+                                                 String department, AppointmentType appointmentType, Long practitionerId) {
+        TimeSeriesGranularity unit = granularity != null ? granularity : TimeSeriesGranularity.MONTH;
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = unit.truncate(from != null ? from : end.minusYears(1));
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+
+        // Périodes vides incluses pour que le graphique ait un axe continu
+        Map<LocalDate, StatisticsTimeSeriesDTO.Point> points = new java.util.LinkedHashMap<>();
+        for (LocalDate period = start; !period.isAfter(end); period = unit.next(period)) {
+            if (points.size() >= maxTimeSeriesPoints) {
+                throw new IllegalArgumentException("Plage trop longue pour la granularité " + unit
+                        + " (maximum " + maxTimeSeriesPoints + " périodes)");
+            }
+            points.put(period, new StatisticsTimeSeriesDTO.Point(period, 0, 0, 0, 0));
+        }
+
+        String typeFilter = appointmentType != null ? appointmentType.name() : null;
+        for (Object[] row : appointmentDailyStatRepository.sumSeries(unit.getSqlUnit(), start, end, department, typeFilter, practitionerId)) {
+            StatisticsTimeSeriesDTO.Point point = points.get(toLocalDate(row[0]));
+            if (point == null) continue;
+            point.setAppointments(((Number) row[1]).longValue());
+            point.setCancellations(((Number) row[2]).longValue());
+            point.setCompletions(((Number) row[3]).longValue());
+        }
+        for (Object[] row : accidentDailyStatRepository.sumSeries(unit.getSqlUnit(), start, end, department)) {
+            StatisticsTimeSeriesDTO.Point point = points.get(toLocalDate(row[0]));
+            if (point != null) point.setAccidents(((Number) row[1]).longValue());
+        }
+
+        StatisticsTimeSeriesDTO series = new StatisticsTimeSeriesDTO();
+        series.setGranularity(unit);
+        series.setFrom(start);
+        series.setTo(end);
+        series.setDepartment(department);
+        series.setAppointmentType(appointmentType);
+        series.setPractitionerId(practitionerId);
+        series.setPoints(new ArrayList<>(points.values()));
+        return series;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
 }
@@ -15,6 +15,7 @@ import com.oshapp.backend.repository.RoleRepository;
 import com.oshapp.backend.repository.UserRepository;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.UserService;
+import com.oshapp.backend.service.notifications.policy.RecipientProfileCache;
 import com.oshapp.backend.security.UserPrincipal;
 import com.oshapp.backend.exception.InvalidTokenException;
 import com.oshapp.backend.exception.UserAlreadyEnabledException;
@@ -45,8 +46,9 @@ public class UserServiceImpl implements UserService {
     private final ActivationTokenRepository activationTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final EmailService emailService;
+    private final RecipientProfileCache recipientProfileCache;
 
-    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder, ActivationTokenRepository activationTokenRepository, PasswordResetTokenRepository passwordResetTokenRepository, EmailService emailService) {
+    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder, ActivationTokenRepository activationTokenRepository, PasswordResetTokenRepository passwordResetTokenRepository, EmailService emailService, RecipientProfileCache recipientProfileCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.employeeRepository = employeeRepository;
@@ -54,6 +56,7 @@ public class UserServiceImpl implements UserService {
         this.activationTokenRepository = activationTokenRepository;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.emailService = emailService;
+        this.recipientProfileCache = recipientProfileCache;
     }
 
     @Override
@@ -155,7 +158,10 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Les rôles ont pu changer
+        recipientProfileCache.invalidate(saved.getId());
+        return saved;
     }
 
     @Override
@@ -163,6 +169,7 @@ public class UserServiceImpl implements UserService {
     public void addRolesToUser(User user, Set<String> roleNames) {
         Set<Role> roles = findRolesByNames(roleNames);
         user.setRoles(roles);
+        recipientProfileCache.invalidate(user.getId());
     }
 
     @Override
@@ -180,6 +187,7 @@ public class UserServiceImpl implements UserService {
         user.setEmail(user.getEmail() + suffix);
 
         userRepository.save(user);
+        recipientProfileCache.invalidate(user.getId());
     }
 
     @Override
@@ -204,6 +212,7 @@ public class UserServiceImpl implements UserService {
         // On force le username à être identique à l'email pour garantir la cohérence
         user.setUsername(userDetails.getEmail()); 
         user.setRoles(userDetails.getRoles());
+        recipientProfileCache.invalidate(user.getId());
         return userRepository.save(user);
     }
 
@@ -212,6 +221,8 @@ public class UserServiceImpl implements UserService {
     public void updatePassword(User user, String newPassword) {
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        // Appelé aussi après une modification des rôles (AdminController.updateUser)
+        recipientProfileCache.invalidate(user.getId());
     }
 
     @Override
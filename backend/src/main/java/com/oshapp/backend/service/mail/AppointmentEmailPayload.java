@@ -0,0 +1,130 @@
+package com.oshapp.backend.service.mail;
+
+import com.oshapp.backend.model.Appointment;
+import com.oshapp.backend.model.AppointmentComment;
+import com.oshapp.backend.model.Employee;
+import com.oshapp.backend.model.enums.AppointmentStatus;
+import com.oshapp.backend.model.enums.AppointmentType;
+import com.oshapp.backend.model.enums.Priority;
+import com.oshapp.backend.model.enums.VisitMode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copie immuable des champs d'un rendez-vous utilisés par les templates email.
+ * Construite sur le thread appelant (session JPA ouverte) : le rendu asynchrone ne touche jamais aux entités.
+ * Les noms de propriétés reprennent ceux de {@link Appointment} pour que les templates restent inchangés.
+ */
+@Getter
+public final class AppointmentEmailPayload {
+
+    private final Long id;
+    private final AppointmentType type;
+    private final AppointmentStatus status;
+    private final VisitMode visitMode;
+    private final Priority priority;
+    private final boolean obligatory;
+    private final boolean urgent;
+    private final LocalDateTime requestedDateEmployee;
+    private final LocalDateTime proposedDate;
+    private final LocalDateTime scheduledTime;
+    private final List<LocalDateTime> proposedDateSlots;
+    private final String motif;
+    private final String notes;
+    private final String reason;
+    private final String medicalInstructions;
+    private final String medicalServicePhone;
+    private final String cancellationReason;
+    private final String rescheduleReason;
+    private final EmployeeInfo employee;
+    private final List<CommentInfo> comments;
+    private final Long createdById;
+    private final Long updatedById;
+
+    private AppointmentEmailPayload(Appointment a) {
+        this.id = a.getId();
+        this.type = a.getType();
+        this.status = a.getStatus();
+        this.visitMode = a.getVisitMode();
+        this.priority = a.getPriority();
+        this.obligatory = a.isObligatory();
+        this.urgent = a.isUrgent();
+        this.requestedDateEmployee = a.getRequestedDateEmployee();
+        this.proposedDate = a.getProposedDate();
+        this.scheduledTime = a.getScheduledTime();
+        this.proposedDateSlots = a.getProposedDateSlots() != null ? List.copyOf(a.getProposedDateSlots()) : null;
+        this.motif = a.getMotif();
+        this.notes = a.getNotes();
+        this.reason = a.getReason();
+        this.medicalInstructions = a.getMedicalInstructions();
+        this.medicalServicePhone = a.getMedicalServicePhone();
+        this.cancellationReason = a.getCancellationReason();
+        this.rescheduleReason = a.getRescheduleReason();
+        this.employee = EmployeeInfo.of(a.getEmployee());
+        this.comments = CommentInfo.of(a.getComments());
+        this.createdById = a.getCreatedBy() != null ? a.getCreatedBy().getId() : null;
+        this.updatedById = a.getUpdatedBy() != null ? a.getUpdatedBy().getId() : null;
+    }
+
+    public static AppointmentEmailPayload of(Appointment appointment) {
+        return appointment != null ? new AppointmentEmailPayload(appointment) : null;
+    }
+
+    // Date affichée dans les récapitulatifs : planifiée, sinon proposée, sinon souhaitée
+    public LocalDateTime getDisplayDate() {
+        if (scheduledTime != null) return scheduledTime;
+        return proposedDate != null ? proposedDate : requestedDateEmployee;
+    }
+
+    @Getter
+    public static final class EmployeeInfo {
+        private final Long id;
+        private final String firstName;
+        private final String lastName;
+        private final UserInfo user;
+
+        private EmployeeInfo(Employee e) {
+            this.id = e.getId();
+            this.firstName = e.getFirstName();
+            this.lastName = e.getLastName();
+            this.user = e.getUser() != null ? new UserInfo(e.getUser().getId(), e.getUser().getEmail()) : null;
+        }
+
+        static EmployeeInfo of(Employee employee) {
+            return employee != null ? new EmployeeInfo(employee) : null;
+        }
+    }
+
+    @Getter
+    public static final class UserInfo {
+        private final Long id;
+        private final String email;
+
+        private UserInfo(Long id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+
+    @Getter
+    public static final class CommentInfo {
+        private final String comment;
+        private final LocalDateTime createdAt;
+
+        private CommentInfo(AppointmentComment c) {
+            this.comment = c.getComment();
+            this.createdAt = c.getCreatedAt();
+        }
+
+        static List<CommentInfo> of(List<AppointmentComment> comments) {
+            if (comments == null || comments.isEmpty()) return Collections.emptyList();
+            List<CommentInfo> copy = new ArrayList<>(comments.size());
+            comments.forEach(c -> copy.add(new CommentInfo(c)));
+            return Collections.unmodifiableList(copy);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.oshapp.backend.service.mail;
+
+import com.oshapp.backend.model.enums.EmailPriority;
+import com.oshapp.backend.model.enums.Priority;
+import com.oshapp.backend.service.EmailQueueService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendu asynchrone des notifications de rendez-vous à partir de copies immuables.
+ * N'accède à aucune entité JPA : tout ce dont les templates ont besoin est dans {@link AppointmentEmailRequest}.
+ * Un contenu identique pour plusieurs destinataires est rendu une seule fois et envoyé en copie cachée.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AppointmentEmailRenderer {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final TemplateEngine templateEngine;
+    private final EmailDigestBuffer digestBuffer;
+    private final EmailQueueService emailQueue;
+    private final EmailAddressResolver addressResolver;
+
+    /**
+     * Les destinataires de toutes les demandes reçues dont le contenu est identique (template, sujet,
+     * variables du contexte dont les liens d'action et le nom affiché) reçoivent un seul message en copie cachée.
+     */
+    @Async
+    public void renderAndQueue(List<AppointmentEmailRequest> requests) {
+        Map<ContentKey, ContentGroup> groups = new LinkedHashMap<>();
+        for (AppointmentEmailRequest request : requests) {
+            collect(request, groups);
+        }
+        for (ContentGroup group : groups.values()) {
+            queue(group);
+        }
+    }
+
+    private void collect(AppointmentEmailRequest request, Map<ContentKey, ContentGroup> groups) {
+        AppointmentEmailPayload appointment = request.getAppointment();
+        String subject = request.getSubject();
+        for (EmailRecipient recipient : request.getRecipients()) {
+            try {
+                // Skip emailing the sender (current actor) to avoid self-emails
+                if (appointment != null && isSelf(recipient, appointment)) {
+                    if (!request.isAllowPrivilegedSelf() || !recipient.isPrivileged()) {
+                        log.info("Skipping appointment email to sender (self): username={}, email={}", recipient.getUsername(), recipient.getEmail());
+                        continue;
+                    }
+                    // Allow self-email for medical staff and RH
+                    log.debug("Allowing self-email for privileged recipient: username={}", recipient.getUsername());
+                }
+                if (recipient.getEmail() == null || recipient.getEmail().isBlank()) {
+                    log.warn("Skipping email for recipient without email address: username={}", recipient.getUsername());
+                    continue;
+                }
+                if (deferToDigest(recipient, appointment, subject, request.getActionUrl(), request.getActionLabel())) {
+                    continue;
+                }
+
+                String toEmail = addressResolver.resolve(recipient.getEmail());
+                if (toEmail == null || toEmail.isBlank()) {
+                    log.warn("Skipping email for recipient with unresolved email: username={}", recipient.getUsername());
+                    continue;
+                }
+                Map<String, Object> variables = buildVariables(request, recipient.getDisplayName());
+                groups.computeIfAbsent(new ContentKey(request.getTemplate(), subject, variables), k -> new ContentGroup(request, variables))
+                        .add(toEmail);
+            } catch (Exception e) {
+                log.error("Failed to queue appointment notification to {} with subject: {}", recipient.getEmail(), subject, e);
+            }
+        }
+    }
+
+    // Un seul rendu par contenu ; la file découpe les groupes en messages de bccMaxGroupSize destinataires
+    private void queue(ContentGroup group) {
+        AppointmentEmailRequest request = group.getRequest();
+        String subject = request.getSubject();
+        EmailPriority priority = priorityFor(request.getAppointment());
+        try {
+            String htmlContent = render(request.getTemplate(), group.getVariables());
+            List<String> recipients = new ArrayList<>(group.getRecipients());
+            if (recipients.size() > 1 && !htmlContent.equals(render(request.getTemplate(), group.getVariables()))) {
+                // Rendu non reproductible (contenu hors contexte) : aucune copie cachée, un message par destinataire
+                log.warn("Template {} renders differently for identical context, sending {} emails individually", request.getTemplate(), recipients.size());
+                for (String toEmail : recipients) {
+                    emailQueue.enqueue(toEmail, subject, render(request.getTemplate(), group.getVariables()), true, priority);
+                }
+                return;
+            }
+            // Logo joint en pièce inline par le dispatcher
+            if (recipients.size() == 1) {
+                emailQueue.enqueue(recipients.get(0), subject, htmlContent, true, priority);
+                log.info("Appointment notification queued for {} with subject: {}", recipients.get(0), subject);
+            } else {
+                emailQueue.enqueueGroup(recipients, subject, htmlContent, true, priority);
+                log.info("Appointment notification queued for {} recipients with identical content, subject: {}", recipients.size(), subject);
+            }
+        } catch (Exception e) {
+            log.error("Failed to queue appointment notification ({} recipients) with subject: {}", group.getRecipients().size(), subject, e);
+        }
+    }
+
+    private String render(String template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(template, context);
+    }
+
+    private boolean isSelf(EmailRecipient recipient, AppointmentEmailPayload appointment) {
+        Long recId = recipient.getId();
+        return recId != null && (recId.equals(appointment.getUpdatedById()) || recId.equals(appointment.getCreatedById()));
+    }
+
+    private Map<String, Object> buildVariables(AppointmentEmailRequest request, String recipientName) {
+        // LinkedHashMap : certaines valeurs peuvent être nulles
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("recipientName", recipientName);
+        variables.put("appointment", request.getAppointment());
+        variables.put("subject", request.getSubject());
+        String actionUrl = request.getActionUrl();
+        if (actionUrl != null && !actionUrl.isBlank()) {
+            String actionLabel = request.getActionLabel();
+            variables.put("actionUrl", actionUrl);
+            variables.put("actionLabel", (actionLabel != null && !actionLabel.isBlank()) ? actionLabel : "Ouvrir l'application");
+        }
+        String secondaryActionUrl = request.getSecondaryActionUrl();
+        if (secondaryActionUrl != null && !secondaryActionUrl.isBlank()) {
+            String secondaryActionLabel = request.getSecondaryActionLabel();
+            variables.put("secondaryActionUrl", secondaryActionUrl);
+            variables.put("secondaryActionLabel", (secondaryActionLabel != null && !secondaryActionLabel.isBlank()) ? secondaryActionLabel : "Annuler");
+        }
+        if (request.getExtraContext() != null) {
+            for (Map.Entry<String, Object> entry : request.getExtraContext().entrySet()) {
+                if (entry.getKey() != null) {
+                    variables.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * Met l'email en attente dans le récapitulatif du destinataire si son profil le prévoit.
+     * Les rendez-vous urgents ou obligatoires sont toujours envoyés immédiatement.
+     */
+    private boolean deferToDigest(EmailRecipient recipient, AppointmentEmailPayload appointment, String subject, String actionUrl, String actionLabel) {
+        try {
+            if (!recipient.isDigestRecipient() || digestBuffer.bypassesDigest(appointment)) return false;
+            String toEmail = addressResolver.resolve(recipient.getEmail());
+            if (toEmail == null || toEmail.isBlank()) return false;
+            LocalDateTime date = appointment.getDisplayDate();
+            digestBuffer.add(toEmail, recipient.getDisplayName(), new DigestEntry(
+                    subject,
+                    getStatusLabel(appointment),
+                    date != null ? date.format(DATE_TIME) : null,
+                    (actionUrl != null && !actionUrl.isBlank()) ? actionUrl : null,
+                    (actionLabel != null && !actionLabel.isBlank()) ? actionLabel : "Ouvrir",
+                    LocalDateTime.now()));
+            log.debug("Appointment email deferred to digest for {} with subject: {}", toEmail, subject);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to defer email to digest for recipient {}: {}", recipient.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    // Les campagnes (visites obligatoires, diffusions sans rendez-vous) passent après les notifications unitaires
+    private EmailPriority priorityFor(AppointmentEmailPayload appointment) {
+        if (appointment == null) return EmailPriority.BULK;
+        if (appointment.isUrgent() || appointment.getPriority() == Priority.URGENT) return EmailPriority.NORMAL;
+        return appointment.isObligatory() ? EmailPriority.BULK : EmailPriority.NORMAL;
+    }
+
+    private String getStatusLabel(AppointmentEmailPayload appointment) {
+        if (appointment.getStatus() == null) return "";
+        switch (appointment.getStatus()) {
+            case REQUESTED_EMPLOYEE: return "En attente";
+            case PROPOSED_MEDECIN: return "Créneau proposé";
+            case PLANNED_BY_MEDICAL_STAFF: return "Planifié";
+            case CONFIRMED: return "Confirmé";
+            case COMPLETED: return "Terminé";
+            case CANCELLED: return "Annulé";
+            case OBLIGATORY: return "Obligatoire";
+            default: return appointment.getStatus().name();
+        }
+    }
+
+    // Le rendez-vous est comparé par référence : les demandes d'un même lot partagent la même copie
+    @Value
+    private static class ContentKey {
+        String template;
+        String subject;
+        Map<String, Object> variables;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class ContentGroup {
+        private final AppointmentEmailRequest request;
+        private final Map<String, Object> variables;
+        private final Set<String> recipients = new LinkedHashSet<>();
+
+        void add(String toEmail) {
+            recipients.add(toEmail);
+        }
+    }
+}
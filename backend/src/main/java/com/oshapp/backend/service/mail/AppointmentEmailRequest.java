@@ -0,0 +1,26 @@
+package com.oshapp.backend.service.mail;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Demande d'envoi d'une notification de rendez-vous, entièrement immuable, transmise au rendu asynchrone.
+ */
+@Getter
+@Builder
+public final class AppointmentEmailRequest {
+    private final List<EmailRecipient> recipients;
+    private final AppointmentEmailPayload appointment;
+    private final String subject;
+    private final String template;
+    private final String actionUrl;
+    private final String actionLabel;
+    private final String secondaryActionUrl;
+    private final String secondaryActionLabel;
+    private final Map<String, Object> extraContext;
+    // Les membres du personnel médical / RH reçoivent aussi leurs propres actions
+    private final boolean allowPrivilegedSelf;
+}
@@ -0,0 +1,21 @@
+package com.oshapp.backend.service.mail;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'un récapitulatif email. Ne contient que des valeurs déjà calculées
+ * pour pouvoir être rendue sans accéder aux entités.
+ */
+@Getter
+@AllArgsConstructor
+public class DigestEntry {
+    private final String subject;
+    private final String statusLabel;
+    private final String when;
+    private final String actionUrl;
+    private final String actionLabel;
+    private final LocalDateTime occurredAt;
+}
@@ -0,0 +1,31 @@
+package com.oshapp.backend.service.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adresse effective d'envoi : en environnement de test (app.mail.redirect.enabled=true),
+ * les adresses gmail sont redirigées vers la boîte de l'expéditeur.
+ */
+@Component
+@Slf4j
+public class EmailAddressResolver {
+
+    @Value("${spring.mail.username:}")
+    private String mailUsername;
+
+    @Value("${app.mail.redirect.enabled:false}")
+    private boolean redirectEnabled;
+
+    public String resolve(String original) {
+        if (original == null || original.isBlank()) return null;
+        if (redirectEnabled && original.toLowerCase().endsWith("@gmail.com")) {
+            if (mailUsername != null && !mailUsername.isBlank()) {
+                log.warn("[Mail Redirect] redirecting email from {} to {} (app.mail.redirect.enabled=true)", original, mailUsername);
+                return mailUsername;
+            }
+        }
+        return original;
+    }
+}
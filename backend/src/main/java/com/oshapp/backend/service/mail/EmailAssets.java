@@ -0,0 +1,39 @@
+package com.oshapp.backend.service.mail;
+
+import jakarta.activation.DataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.util.ByteArrayDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * Ressources jointes aux emails, chargées une seule fois en mémoire et partagées entre les envois.
+ */
+@Component
+@Slf4j
+public class EmailAssets {
+
+    public static final String LOGO_CONTENT_ID = "logo";
+    private static final String LOGO_PATH = "static/images/logo_ohse_capital.png";
+
+    private DataSource logo;
+
+    @PostConstruct
+    void load() {
+        try (InputStream in = new ClassPathResource(LOGO_PATH).getInputStream()) {
+            ByteArrayDataSource dataSource = new ByteArrayDataSource(in.readAllBytes(), "image/png");
+            dataSource.setName("logo_ohse_capital.png");
+            logo = dataSource;
+        } catch (Exception e) {
+            log.warn("Could not load email logo {}: {}", LOGO_PATH, e.getMessage());
+        }
+    }
+
+    // ByteArrayDataSource ouvre un nouveau flux à chaque lecture : partageable entre threads
+    public DataSource getLogo() {
+        return logo;
+    }
+}
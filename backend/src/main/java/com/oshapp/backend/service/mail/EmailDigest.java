@@ -0,0 +1,24 @@
+package com.oshapp.backend.service.mail;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Événements regroupés pour un destinataire pendant une fenêtre de récapitulatif.
+ */
+@Getter
+public class EmailDigest {
+    private final String toEmail;
+    private final String recipientName;
+    private final LocalDateTime openedAt;
+    private final List<DigestEntry> entries = new ArrayList<>();
+
+    EmailDigest(String toEmail, String recipientName, LocalDateTime openedAt) {
+        this.toEmail = toEmail;
+        this.recipientName = recipientName;
+        this.openedAt = openedAt;
+    }
+}
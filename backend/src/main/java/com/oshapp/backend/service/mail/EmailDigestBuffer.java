@@ -0,0 +1,105 @@
+package com.oshapp.backend.service.mail;
+
+import com.oshapp.backend.config.EmailDigestProperties;
+import com.oshapp.backend.model.EmailDigestEntry;
+import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.enums.Priority;
+import com.oshapp.backend.repository.EmailDigestEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Tampon persistant des emails de rendez-vous à regrouper par destinataire.
+ * Les entrées survivent à un redémarrage et ne sont supprimées qu'une fois
+ * le récapitulatif placé dans la file d'envoi, dans la même transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailDigestBuffer {
+
+    private final EmailDigestProperties properties;
+    private final EmailDigestEntryRepository entryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Indique si les emails de ce destinataire doivent être regroupés :
+     * préférence de l'utilisateur si elle est définie, sinon configuration par rôle.
+     */
+    public boolean isDigestRecipient(User user) {
+        if (!properties.isEnabled() || user == null) return false;
+        if (user.getEmailDigest() != null) return user.getEmailDigest();
+        try {
+            return user.getRoles() != null && user.getRoles().stream()
+                    .anyMatch(r -> properties.getRoles().contains(r.getName()));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Les visites urgentes et obligatoires ne sont jamais différées.
+     */
+    public boolean bypassesDigest(AppointmentEmailPayload appointment) {
+        if (appointment == null) return true;
+        return appointment.isObligatory() || appointment.isUrgent() || appointment.getPriority() == Priority.URGENT;
+    }
+
+    public void add(String toEmail, String recipientName, DigestEntry entry) {
+        entryRepository.save(EmailDigestEntry.builder()
+                .toEmail(toEmail)
+                .recipientName(recipientName)
+                .subject(entry.getSubject())
+                .statusLabel(entry.getStatusLabel())
+                .whenLabel(entry.getWhen())
+                .actionUrl(entry.getActionUrl())
+                .actionLabel(entry.getActionLabel())
+                .occurredAt(entry.getOccurredAt())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Transmet à {@code sender} les récapitulatifs dont la fenêtre est écoulée ou qui ont atteint
+     * la taille maximale. Chaque destinataire est traité dans sa propre transaction : si l'envoi
+     * échoue, les entrées sont conservées pour le passage suivant.
+     *
+     * @return nombre de récapitulatifs transmis
+     */
+    public int flushDue(LocalDateTime now, Consumer<EmailDigest> sender) {
+        LocalDateTime windowStart = now.minusMinutes(Math.max(0, properties.getWindowMinutes()));
+        int flushed = 0;
+        for (String toEmail : entryRepository.findDueRecipients(windowStart, Math.max(1, properties.getMaxEntries()))) {
+            try {
+                Boolean sent = transactionTemplate.execute(status -> {
+                    List<EmailDigestEntry> rows = entryRepository.lockByToEmail(toEmail);
+                    // Déjà traité par une autre instance
+                    if (rows.isEmpty()) return false;
+                    sender.accept(toDigest(toEmail, rows));
+                    entryRepository.deleteByIdIn(rows.stream().map(EmailDigestEntry::getId).toList());
+                    return true;
+                });
+                if (Boolean.TRUE.equals(sent)) flushed++;
+            } catch (Exception e) {
+                log.error("Failed to flush digest for {}, entries kept for next run", toEmail, e);
+            }
+        }
+        return flushed;
+    }
+
+    private static EmailDigest toDigest(String toEmail, List<EmailDigestEntry> rows) {
+        EmailDigestEntry first = rows.get(0);
+        EmailDigest digest = new EmailDigest(toEmail, first.getRecipientName(), first.getCreatedAt());
+        for (EmailDigestEntry row : rows) {
+            digest.getEntries().add(new DigestEntry(row.getSubject(), row.getStatusLabel(), row.getWhenLabel(),
+                    row.getActionUrl(), row.getActionLabel(), row.getOccurredAt()));
+        }
+        return digest;
+    }
+}
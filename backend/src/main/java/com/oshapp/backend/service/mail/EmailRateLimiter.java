@@ -0,0 +1,143 @@
+package com.oshapp.backend.service.mail;
+
+import com.oshapp.backend.config.EmailRateLimitProperties;
+import com.oshapp.backend.model.enums.EmailPriority;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Limiteur à seaux de jetons (minute + jour) placé devant le relais SMTP.
+ * Les voies NORMAL et BULK ne peuvent pas puiser dans la réserve des voies plus prioritaires :
+ * une campagne ne bloque jamais une activation ou une réinitialisation de mot de passe.
+ * Les messages non autorisés restent en file (pas d'attente active).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EmailRateLimiter {
+
+    private final EmailRateLimitProperties properties;
+
+    @Value("${spring.mail.host:}")
+    private String mailHost;
+
+    @Getter
+    private String provider;
+    private TokenBucket perMinute;
+    private TokenBucket perDay;
+
+    @PostConstruct
+    void init() {
+        EmailRateLimitProperties.Quota quota = properties.getDefaults();
+        provider = "default";
+        String host = mailHost != null ? mailHost.trim().toLowerCase() : "";
+        for (Map.Entry<String, EmailRateLimitProperties.Quota> entry : properties.getProviders().entrySet()) {
+            String suffix = entry.getValue().getHost();
+            if (suffix != null && !suffix.isBlank() && host.endsWith(suffix.toLowerCase())) {
+                quota = entry.getValue();
+                provider = entry.getKey();
+                break;
+            }
+        }
+        perMinute = new TokenBucket(Math.max(1, quota.getPerMinute()), 60_000L);
+        perDay = new TokenBucket(Math.max(1, quota.getPerDay()), 86_400_000L);
+        log.info("Email rate limit for host '{}': provider={} perMinute={} perDay={} (enabled={})",
+                mailHost, provider, quota.getPerMinute(), quota.getPerDay(), properties.isEnabled());
+    }
+
+    /**
+     * Réserve jusqu'à {@code requested} envois pour la voie donnée et retourne le nombre accordé.
+     */
+    public synchronized int acquireUpTo(EmailPriority priority, int requested) {
+        if (requested <= 0) return 0;
+        if (!properties.isEnabled()) return requested;
+        long now = System.nanoTime();
+        perMinute.refill(now);
+        perDay.refill(now);
+        int reservePercent = reservePercent(priority);
+        long granted = Math.min(requested, Math.min(
+                perMinute.availableAbove(reservePercent),
+                perDay.availableAbove(reservePercent)));
+        if (granted <= 0) return 0;
+        perMinute.take(granted);
+        perDay.take(granted);
+        return (int) granted;
+    }
+
+    /**
+     * Nombre maximal de jetons que la voie peut obtenir seaux pleins : un envoi groupé plus large
+     * ne pourrait jamais être autorisé.
+     */
+    public synchronized int maxBurst(EmailPriority priority) {
+        if (!properties.isEnabled()) return Integer.MAX_VALUE;
+        int reservePercent = reservePercent(priority);
+        return (int) Math.max(1, Math.min(perMinute.capacityAbove(reservePercent), perDay.capacityAbove(reservePercent)));
+    }
+
+    // Jetons réservés mais inutilisés (file plus courte que prévu)
+    public synchronized void release(int permits) {
+        if (permits <= 0 || !properties.isEnabled()) return;
+        perMinute.give(permits);
+        perDay.give(permits);
+    }
+
+    public synchronized long availablePerMinute() {
+        perMinute.refill(System.nanoTime());
+        return (long) perMinute.tokens;
+    }
+
+    public synchronized long availablePerDay() {
+        perDay.refill(System.nanoTime());
+        return (long) perDay.tokens;
+    }
+
+    private int reservePercent(EmailPriority priority) {
+        switch (priority) {
+            case CRITICAL: return 0;
+            case NORMAL: return properties.getCriticalReservePercent();
+            default: return properties.getCriticalReservePercent() + properties.getNormalReservePercent();
+        }
+    }
+
+    private static final class TokenBucket {
+        private final long capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        private TokenBucket(long capacity, long periodMillis) {
+            this.capacity = capacity;
+            this.tokensPerNano = (double) capacity / (periodMillis * 1_000_000d);
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+
+        private long availableAbove(int reservePercent) {
+            double floor = capacity * Math.min(100, Math.max(0, reservePercent)) / 100d;
+            return (long) Math.floor(tokens - floor);
+        }
+
+        private long capacityAbove(int reservePercent) {
+            return (long) Math.floor(capacity * (100 - Math.min(100, Math.max(0, reservePercent))) / 100d);
+        }
+
+        private void take(long n) {
+            tokens -= n;
+        }
+
+        private void give(long n) {
+            tokens = Math.min(capacity, tokens + n);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.oshapp.backend.service.mail;
+
+import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.enums.RoleName;
+import lombok.Getter;
+
+/**
+ * Copie immuable d'un destinataire : seules les informations utiles à l'envoi, sans entité JPA.
+ */
+@Getter
+public final class EmailRecipient {
+
+    private final Long id;
+    private final String email;
+    private final String username;
+    private final String displayName;
+    // Personnel médical ou RH : peut recevoir ses propres actions par email
+    private final boolean privileged;
+    private final boolean digestRecipient;
+
+    private EmailRecipient(User user, boolean digestRecipient) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.username = user.getUsername();
+        this.displayName = displayName(user);
+        this.privileged = user.getRoles() != null && user.getRoles().stream()
+                .anyMatch(r -> r.getName() == RoleName.ROLE_NURSE || r.getName() == RoleName.ROLE_DOCTOR || r.getName() == RoleName.ROLE_RH);
+        this.digestRecipient = digestRecipient;
+    }
+
+    public static EmailRecipient of(User user, boolean digestRecipient) {
+        return new EmailRecipient(user, digestRecipient);
+    }
+
+    public static String displayName(User user) {
+        if (user.getEmployee() != null && user.getEmployee().getFirstName() != null && !user.getEmployee().getFirstName().isEmpty()) {
+            return user.getEmployee().getFirstName();
+        }
+        return user.getUsername();
+    }
+}
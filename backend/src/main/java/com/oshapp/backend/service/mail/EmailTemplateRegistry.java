@@ -0,0 +1,77 @@
+package com.oshapp.backend.service.mail;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Liste des templates email présents dans classpath:templates, résolue une seule fois au démarrage.
+ * Les templates sont aussi analysés au démarrage pour remplir le cache Thymeleaf avant le premier envoi.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EmailTemplateRegistry {
+
+    private static final String LOCATION = "classpath*:templates/*.html";
+
+    private final TemplateEngine templateEngine;
+
+    private Set<String> templates = Set.of();
+
+    @PostConstruct
+    void scan() {
+        Set<String> names = new TreeSet<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String filename = resource.getFilename();
+                if (filename != null && filename.endsWith(".html")) {
+                    names.add(filename.substring(0, filename.length() - ".html".length()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not list email templates: {}", e.getMessage());
+        }
+        templates = Set.copyOf(names);
+        log.info("Registered {} email templates", templates.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int warmed = 0;
+        int failed = 0;
+        for (String template : templates) {
+            try {
+                templateEngine.process(template, new Context());
+                warmed++;
+            } catch (Exception e) {
+                // Souvent une variable absente du contexte vide ; l'erreur réelle éventuelle réapparaîtra au premier envoi
+                failed++;
+                log.debug("Email template {} failed during warm-up: {}", template, e.getMessage());
+            }
+        }
+        if (failed > 0) {
+            log.warn("Warmed {} email templates, {} failed during warm-up (details at debug level)", warmed, failed);
+        } else {
+            log.info("Warmed {} email templates", warmed);
+        }
+    }
+
+    public boolean exists(String templateName) {
+        return templateName != null && templates.contains(templateName);
+    }
+
+    public String resolve(String templateName, String fallback) {
+        return exists(templateName) ? templateName : fallback;
+    }
+}
@@ -0,0 +1,190 @@
+package com.oshapp.backend.service.notifications;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécution concurrente des écritures d'une diffusion de notifications sur un pool borné.
+ * Les tâches d'une même clé (destinataire, rôle) forment une file série : elles s'exécutent
+ * dans l'ordre de soumission, y compris d'un événement à l'autre, les clés différentes en parallèle.
+ * Une tâche peut occuper plusieurs files à la fois : elle attend alors la fin des tâches précédentes
+ * de chacune d'elles. Chaque événement suit l'achèvement de ses propres tâches ({@link Event#await()}).
+ */
+@Component
+@Slf4j
+public class FanOutExecutor {
+
+    @Value("${app.notifications.fan-out.workers:4}")
+    private int workers;
+
+    @Value("${app.notifications.fan-out.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.fan-out.await-timeout-seconds:30}")
+    private long awaitTimeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    // Tâches soumises et non terminées : le thread qui soumet attend une place (contre-pression)
+    private Semaphore slots;
+
+    // Dernière tâche soumise par clé ; retirée quand la file de la clé est vide (accès sous verrou)
+    private final Map<Object, CompletableFuture<Void>> lanes = new HashMap<>();
+
+    @PostConstruct
+    void start() {
+        int size = Math.max(1, workers);
+        AtomicInteger index = new AtomicInteger();
+        slots = new Semaphore(Math.max(1, queueCapacity));
+        // File du pool non bornée : une tâche libérée par la fin de la précédente de sa file est toujours
+        // confiée au pool, jamais exécutée sur le thread qui la libère ; le volume est borné par slots
+        executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "notification-fanout-" + index.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(awaitTimeoutSeconds, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Event newEvent() {
+        return new Event();
+    }
+
+    private CompletableFuture<Void> submit(Collection<?> keys, Runnable task) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return result;
+        }
+        Set<Object> laneKeys = new LinkedHashSet<>(keys);
+        List<CompletableFuture<Void>> previous = new ArrayList<>(laneKeys.size());
+        // Enregistrement atomique sur toutes les files : deux tâches multi-clés ne peuvent pas s'attendre mutuellement
+        synchronized (lanes) {
+            for (Object key : laneKeys) {
+                CompletableFuture<Void> last = lanes.put(key, result);
+                if (last != null && !last.isDone()) previous.add(last);
+            }
+        }
+        Runnable run = () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                // Isolation : l'échec d'un destinataire n'interrompt ni sa file ni les autres
+                log.error("Notification fan-out task failed for {}: {}", laneKeys, e.getMessage());
+            } finally {
+                finish(laneKeys, result, null);
+            }
+        };
+        if (previous.isEmpty()) {
+            dispatch(laneKeys, run, result);
+        } else {
+            // Déclenché sur le thread qui termine la dernière tâche attendue : simple remise au pool
+            CompletableFuture.allOf(previous.toArray(new CompletableFuture[0]))
+                    .whenComplete((r, e) -> dispatch(laneKeys, run, result));
+        }
+        return result;
+    }
+
+    private void dispatch(Set<Object> laneKeys, Runnable run, CompletableFuture<Void> result) {
+        try {
+            executor.execute(run);
+        } catch (RejectedExecutionException e) {
+            // Pool arrêté : la tâche ne sera pas exécutée, l'échec est signalé à ceux qui l'attendent
+            log.warn("Notification fan-out task for {} rejected: executor is shut down", laneKeys);
+            finish(laneKeys, result, e);
+        }
+    }
+
+    private void finish(Set<Object> laneKeys, CompletableFuture<Void> result, Throwable failure) {
+        slots.release();
+        synchronized (lanes) {
+            laneKeys.forEach(key -> lanes.remove(key, result));
+        }
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(null);
+        }
+    }
+
+    /**
+     * Tâches d'un événement de diffusion.
+     */
+    public final class Event {
+        private final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        public void submit(Object key, Runnable task) {
+            submit(List.of(key), task);
+        }
+
+        // Tâche occupant plusieurs files (ex. une diffusion et les files de ses membres)
+        public void submit(Collection<?> keys, Runnable task) {
+            tasks.add(FanOutExecutor.this.submit(keys, task));
+        }
+
+        /**
+         * Attend la fin des tâches de l'événement.
+         *
+         * @return {@code false} si des écritures sont encore en cours après le délai (elles se poursuivent
+         * en arrière-plan, dans l'ordre de leur file), si des tâches ont été refusées par le pool arrêté
+         * ou si l'attente est interrompue
+         */
+        public boolean await() {
+            if (tasks.isEmpty()) return true;
+            try {
+                CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).get(awaitTimeoutSeconds, TimeUnit.SECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                long pending = tasks.stream().filter(t -> !t.isDone()).count();
+                log.warn("Notification fan-out still has {} of {} writes pending after {}s", pending, tasks.size(), awaitTimeoutSeconds);
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                // Les tâches capturent leurs propres exceptions : seules les tâches refusées échouent
+                long rejected = tasks.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+                log.warn("Notification fan-out: {} of {} writes were not executed", rejected, tasks.size());
+                return false;
+            }
+        }
+    }
+}
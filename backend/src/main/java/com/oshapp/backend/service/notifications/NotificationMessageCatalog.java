@@ -0,0 +1,151 @@
+package com.oshapp.backend.service.notifications;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IllegalFormatException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catalogue des libellés de notifications (classpath:notifications/messages.properties), chargé une fois au démarrage.
+ * Les notifications stockent une clé et des paramètres ; titre, message et lien sont rendus à la lecture,
+ * ce qui permet de changer un libellé sans migrer les données.
+ * <p>
+ * Le titre d'une clé {@code a.b.c} est cherché en {@code a.b.c.title}, puis {@code a.b.title}, puis {@code a.title}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationMessageCatalog {
+
+    private static final String LOCATION = "notifications/messages.properties";
+    private static final String TITLE_SUFFIX = ".title";
+    private static final String URL_PREFIX = "url.";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.frontend.base-url:http://localhost:3000}")
+    private String frontendBaseUrl;
+
+    private Map<String, String> patterns = Collections.emptyMap();
+    // Titre résolu par clé (remontée de la hiérarchie faite une seule fois)
+    private final Map<String, String> titles = new ConcurrentHashMap<>();
+    private final Set<String> missingKeys = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void load() throws Exception {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new EncodedResource(new ClassPathResource(LOCATION), "UTF-8"));
+        Map<String, String> loaded = new HashMap<>();
+        properties.stringPropertyNames().forEach(name -> loaded.put(name, properties.getProperty(name)));
+        patterns = Collections.unmodifiableMap(loaded);
+        log.info("Loaded {} notification message patterns from {}", patterns.size(), LOCATION);
+    }
+
+    public boolean exists(String key) {
+        return key != null && patterns.containsKey(key);
+    }
+
+    public String renderTitle(String key) {
+        if (key == null) return null;
+        return titles.computeIfAbsent(key, k -> {
+            String current = k;
+            while (true) {
+                String title = patterns.get(current + TITLE_SUFFIX);
+                if (title != null) return title;
+                int dot = current.lastIndexOf('.');
+                if (dot < 0) return "Notification";
+                current = current.substring(0, dot);
+            }
+        });
+    }
+
+    public String renderMessage(String key, Params params) {
+        String pattern = patterns.get(key);
+        List<String> args = params != null && params.getA() != null ? params.getA() : List.of();
+        String text;
+        if (pattern == null) {
+            if (missingKeys.add(key)) log.warn("Unknown notification message key: {}", key);
+            text = String.join(" – ", args);
+        } else {
+            try {
+                text = String.format(pattern, args.toArray());
+            } catch (IllegalFormatException e) {
+                log.warn("Invalid arguments for notification message {}: {}", key, e.getMessage());
+                text = pattern;
+            }
+        }
+        String suffix = params != null ? params.getS() : null;
+        return suffix != null && !suffix.isBlank() ? text + " – " + suffix : text;
+    }
+
+    // Lien calculé à la lecture : url.<TYPE_ENTITE>=chemin relatif au frontend (%s = identifiant, %s = action)
+    public String renderActionUrl(String relatedEntityType, Long relatedEntityId, Params params) {
+        String action = params != null ? params.getAct() : null;
+        if (action == null || relatedEntityType == null || relatedEntityId == null) return null;
+        String pattern = patterns.get(URL_PREFIX + relatedEntityType);
+        if (pattern == null) return null;
+        String path = String.format(pattern, relatedEntityId, action);
+        String base = frontendBaseUrl.endsWith("/") ? frontendBaseUrl.substring(0, frontendBaseUrl.length() - 1) : frontendBaseUrl;
+        return base + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    // Texte complet, pour les canaux qui n'ont pas de rendu différé
+    public String render(NotificationMessage message) {
+        Params params = new Params();
+        params.setA(new ArrayList<>(message.getArgs()));
+        params.setS(message.getSuffix());
+        return renderMessage(message.getKey(), params);
+    }
+
+    public String encode(NotificationMessage message, String action) {
+        Params params = new Params();
+        params.setA(message.getArgs().isEmpty() ? null : message.getArgs());
+        params.setS(message.getSuffix());
+        params.setAct(action);
+        try {
+            return objectMapper.writeValueAsString(params);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode notification parameters", e);
+        }
+    }
+
+    public Params decode(String json) {
+        if (json == null || json.isBlank()) return new Params();
+        try {
+            return objectMapper.readValue(json, Params.class);
+        } catch (Exception e) {
+            log.warn("Invalid notification parameters: {}", e.getMessage());
+            return new Params();
+        }
+    }
+
+    /**
+     * Paramètres stockés en JSON compact : a = arguments positionnels, s = suffixe libre, act = action du lien.
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Params {
+        private List<String> a;
+        private String s;
+        private String act;
+    }
+}
@@ -0,0 +1,38 @@
+package com.oshapp.backend.service.notifications.model;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Message de notification stocké sous forme de clé du catalogue et de paramètres,
+ * rendu en texte à la lecture par {@link com.oshapp.backend.service.notifications.NotificationMessageCatalog}.
+ */
+@Getter
+public final class NotificationMessage {
+    private final String key;
+    private final List<String> args;
+    // Texte libre ajouté après le message rendu (ex: motif saisi par l'utilisateur)
+    private final String suffix;
+
+    private NotificationMessage(String key, List<String> args, String suffix) {
+        this.key = key;
+        this.args = args;
+        this.suffix = suffix;
+    }
+
+    public static NotificationMessage of(String key, Object... args) {
+        List<String> values = Arrays.stream(args)
+                .map(a -> a != null ? a.toString() : "")
+                .collect(Collectors.toList());
+        return new NotificationMessage(key, Collections.unmodifiableList(values), null);
+    }
+
+    public NotificationMessage withSuffix(String suffix) {
+        if (suffix == null || suffix.isBlank()) return this;
+        return new NotificationMessage(key, args, suffix);
+    }
+}
@@ -3,40 +3,38 @@ package com.oshapp.backend.service.notifications.policy;
 import com.oshapp.backend.model.Appointment;
 import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.RoleName;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+
 @Component
+@RequiredArgsConstructor
 public class NotificationVisibilityPolicy {
 
+    private static final int RH = RecipientProfile.bit(RoleName.ROLE_RH);
+    private static final int MEDICAL_STAFF = RecipientProfile.bit(RoleName.ROLE_NURSE) | RecipientProfile.bit(RoleName.ROLE_DOCTOR);
+
+    private final RecipientProfileCache profiles;
+
+    /**
+     * Charge en une fois les profils des destinataires d'une diffusion.
+     */
+    public void prepare(Collection<User> recipients) {
+        profiles.preload(recipients);
+    }
+
     public boolean isRh(User user) {
-        try {
-            return user != null && user.getRoles() != null && user.getRoles().stream().anyMatch(r -> r.getName() == RoleName.ROLE_RH);
-        } catch (Exception e) {
-            return false;
-        }
+        return profiles.get(user).hasAnyRole(RH);
     }
 
     public boolean isManagerForAppointment(User user, Appointment appointment) {
         if (user == null || appointment == null || appointment.getEmployee() == null) return false;
-        try {
-            return (appointment.getEmployee().getManager1() != null &&
-                    appointment.getEmployee().getManager1().getUser() != null &&
-                    user.getId() != null && user.getId().equals(appointment.getEmployee().getManager1().getUser().getId()))
-                || (appointment.getEmployee().getManager2() != null &&
-                    appointment.getEmployee().getManager2().getUser() != null &&
-                    user.getId() != null && user.getId().equals(appointment.getEmployee().getManager2().getUser().getId()));
-        } catch (Exception e) {
-            return false;
-        }
+        return profiles.get(user).manages(appointment.getEmployee().getId());
     }
 
     public boolean isMedicalStaff(User user) {
-        try {
-            return user != null && user.getRoles() != null && user.getRoles().stream()
-                    .anyMatch(r -> r.getName() == RoleName.ROLE_NURSE || r.getName() == RoleName.ROLE_DOCTOR);
-        } catch (Exception e) {
-            return false;
-        }
+        return profiles.get(user).hasAnyRole(MEDICAL_STAFF);
     }
 
     public boolean shouldHideEmailCta(User user, Appointment appointment) {
@@ -55,9 +53,9 @@ public class NotificationVisibilityPolicy {
 
     public boolean canSeeCancellationReason(User user, Appointment appointment) {
         // Employee and medical staff can see the reason; RH/managers cannot.
-        boolean isEmployeeRecipient = appointment != null && appointment.getEmployee() != null && appointment.getEmployee().getUser() != null
-                && user != null && appointment.getEmployee().getUser().getId() != null
-                && appointment.getEmployee().getUser().getId().equals(user.getId());
-        return isEmployeeRecipient || isMedicalStaff(user);
+        RecipientProfile profile = profiles.get(user);
+        boolean isEmployeeRecipient = appointment != null && appointment.getEmployee() != null
+                && profile.isEmployee(appointment.getEmployee().getId());
+        return isEmployeeRecipient || profile.hasAnyRole(MEDICAL_STAFF);
     }
 }
@@ -0,0 +1,60 @@
+package com.oshapp.backend.service.notifications.policy;
+
+import com.oshapp.backend.model.Role;
+import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.enums.RoleName;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Vue compacte et immuable d'un destinataire pour les décisions de visibilité :
+ * rôles sous forme de masque de bits, id employé et employés encadrés (manager 1 ou 2).
+ */
+@Getter
+public final class RecipientProfile {
+
+    static final RecipientProfile EMPTY = new RecipientProfile(null, 0, null, Set.of());
+
+    private final Long userId;
+    private final int roleMask;
+    private final Long employeeId;
+    private final Set<Long> managedEmployeeIds;
+
+    RecipientProfile(Long userId, int roleMask, Long employeeId, Set<Long> managedEmployeeIds) {
+        this.userId = userId;
+        this.roleMask = roleMask;
+        this.employeeId = employeeId;
+        this.managedEmployeeIds = Set.copyOf(managedEmployeeIds);
+    }
+
+    public static int bit(RoleName role) {
+        return 1 << role.ordinal();
+    }
+
+    static int roleMask(Collection<Role> roles) {
+        int mask = 0;
+        if (roles == null) return mask;
+        for (Role role : roles) {
+            if (role != null && role.getName() != null) mask |= bit(role.getName());
+        }
+        return mask;
+    }
+
+    static RecipientProfile rolesOnly(User user) {
+        return new RecipientProfile(user.getId(), roleMask(user.getRoles()), null, Set.of());
+    }
+
+    public boolean hasAnyRole(int mask) {
+        return (roleMask & mask) != 0;
+    }
+
+    public boolean isEmployee(Long employeeId) {
+        return employeeId != null && employeeId.equals(this.employeeId);
+    }
+
+    public boolean manages(Long employeeId) {
+        return employeeId != null && managedEmployeeIds.contains(employeeId);
+    }
+}
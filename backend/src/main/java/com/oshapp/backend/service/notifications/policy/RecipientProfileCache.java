@@ -0,0 +1,161 @@
+package com.oshapp.backend.service.notifications.policy;
+
+import com.oshapp.backend.model.User;
+import com.oshapp.backend.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cache borné (LRU + durée de vie) des {@link RecipientProfile}, indexé par id utilisateur.
+ * Les profils manquants d'une diffusion sont construits en deux requêtes groupées ;
+ * les services modifiant rôles, profils employé ou managers invalident les entrées concernées.
+ * Dans une transaction, l'invalidation n'a lieu qu'après le commit : un lecteur concurrent
+ * ne peut pas remettre en cache l'état antérieur, et un rollback laisse le cache intact.
+ */
+@Component
+@Slf4j
+public class RecipientProfileCache {
+
+    private final EmployeeRepository employeeRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<Long, CachedProfile> cache;
+
+    public RecipientProfileCache(EmployeeRepository employeeRepository,
+                                 @Value("${app.notifications.recipient-profile-cache.max-entries:2000}") int maxEntries,
+                                 @Value("${app.notifications.recipient-profile-cache.ttl-minutes:15}") long ttlMinutes) {
+        this.employeeRepository = employeeRepository;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = Math.max(1, ttlMinutes) * 60_000L;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedProfile> eldest) {
+                return size() > RecipientProfileCache.this.maxEntries;
+            }
+        };
+    }
+
+    public RecipientProfile get(User user) {
+        if (user == null) return RecipientProfile.EMPTY;
+        if (user.getId() == null) return RecipientProfile.rolesOnly(user);
+        RecipientProfile cached = lookup(user.getId());
+        if (cached != null) return cached;
+        return load(List.of(user)).getOrDefault(user.getId(), RecipientProfile.rolesOnly(user));
+    }
+
+    /**
+     * Précharge les profils d'une liste de destinataires : seuls les absents du cache sont chargés.
+     */
+    public void preload(Collection<User> users) {
+        if (users == null || users.isEmpty()) return;
+        List<User> missing = new ArrayList<>();
+        for (User user : users) {
+            if (user != null && user.getId() != null && lookup(user.getId()) == null) missing.add(user);
+        }
+        if (!missing.isEmpty()) load(missing);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) return;
+        afterCommit(() -> {
+            synchronized (cache) {
+                cache.remove(userId);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            synchronized (cache) {
+                cache.clear();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private RecipientProfile lookup(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedProfile entry = cache.get(userId);
+            if (entry == null) return null;
+            if (entry.expiresAt < now) {
+                cache.remove(userId);
+                return null;
+            }
+            return entry.profile;
+        }
+    }
+
+    private Map<Long, RecipientProfile> load(List<User> users) {
+        Map<Long, User> byId = new LinkedHashMap<>();
+        users.forEach(u -> byId.putIfAbsent(u.getId(), u));
+        Map<Long, Long> employeeIds = new HashMap<>();
+        Map<Long, Set<Long>> managed = new HashMap<>();
+        try {
+            for (Object[] row : employeeRepository.findEmployeeIdsByUserIdIn(byId.keySet())) {
+                employeeIds.put((Long) row[0], (Long) row[1]);
+            }
+            for (Object[] row : employeeRepository.findManagedEmployeeIdsByManagerUserIdIn(byId.keySet())) {
+                Long employeeId = (Long) row[2];
+                for (Object managerUserId : new Object[]{row[0], row[1]}) {
+                    if (managerUserId != null && byId.containsKey(managerUserId)) {
+                        managed.computeIfAbsent((Long) managerUserId, k -> new HashSet<>()).add(employeeId);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Profils partiels non mis en cache : seules les décisions basées sur les rôles restent fiables
+            log.warn("Failed to load recipient profiles for {} users: {}", byId.size(), e.getMessage());
+            Map<Long, RecipientProfile> partial = new HashMap<>();
+            byId.forEach((id, u) -> partial.put(id, RecipientProfile.rolesOnly(u)));
+            return partial;
+        }
+
+        Map<Long, RecipientProfile> loaded = new HashMap<>();
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (cache) {
+            byId.forEach((id, user) -> {
+                RecipientProfile profile = new RecipientProfile(id, RecipientProfile.roleMask(user.getRoles()),
+                        employeeIds.get(id), managed.getOrDefault(id, Set.of()));
+                loaded.put(id, profile);
+                cache.put(id, new CachedProfile(profile, expiresAt));
+            });
+        }
+        return loaded;
+    }
+
+    private static final class CachedProfile {
+        private final RecipientProfile profile;
+        private final long expiresAt;
+
+        private CachedProfile(RecipientProfile profile, long expiresAt) {
+            this.profile = Objects.requireNonNull(profile);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -4,15 +4,22 @@ import com.oshapp.backend.model.Appointment;
 import com.oshapp.backend.model.User;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
+import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Base class for appointment notification strategies.
  * Centralizes helper methods and privacy decisions via NotificationVisibilityPolicy.
  */
+@Slf4j
 public abstract class AbstractNotificationStrategy implements NotificationStrategy {
 
     protected final NotificationService notificationService;
@@ -22,14 +29,44 @@ public abstract class AbstractNotificationStrategy implements NotificationStrate
     @Value("${app.frontend.base-url:http://localhost:3000}")
     protected String frontendBaseUrl;
 
+    private final EmailTemplateRegistry templateRegistry;
+
     protected static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     protected AbstractNotificationStrategy(NotificationService notificationService,
                                            EmailService emailService,
-                                           NotificationVisibilityPolicy visibility) {
+                                           NotificationVisibilityPolicy visibility,
+                                           EmailTemplateRegistry templateRegistry) {
         this.notificationService = notificationService;
         this.emailService = emailService;
         this.visibility = visibility;
+        this.templateRegistry = templateRegistry;
+    }
+
+    @Override
+    public List<User> notifyRecipients(List<User> recipients, Appointment appointment, String extraMessage, NotificationActor actor) {
+        if (this instanceof ActorAwareNotificationStrategy actorAware) {
+            return notifyEach(recipients, user -> actorAware.notify(user, appointment, extraMessage, actor));
+        }
+        return notifyEach(recipients, user -> notify(user, appointment, extraMessage));
+    }
+
+    /**
+     * Applique l'envoi à chaque destinataire en isolant les échecs (boucle commune à toutes les stratégies).
+     *
+     * @return les destinataires pour lesquels l'envoi a échoué
+     */
+    protected List<User> notifyEach(List<User> recipients, Consumer<User> action) {
+        List<User> failed = new ArrayList<>();
+        for (User user : recipients) {
+            try {
+                action.accept(user);
+            } catch (Exception ex) {
+                log.error("Strategy {} failed for user {}: {}", getClass().getSimpleName(), user.getId(), ex.getMessage());
+                failed.add(user);
+            }
+        }
+        return failed;
     }
 
     protected String joinUrl(String base, String pathAndQuery) {
@@ -97,14 +134,8 @@ public abstract class AbstractNotificationStrategy implements NotificationStrate
     }
 
     protected String resolveTemplate(String templateName) {
-        if (templateName == null || templateName.isBlank()) return "appointment-generic";
-        try {
-            String path = "templates/" + templateName + ".html";
-            if (this.getClass().getClassLoader().getResource(path) != null) {
-                return templateName;
-            }
-        } catch (Exception ignored) {}
-        return "appointment-generic";
+        // Existence résolue une fois au démarrage, sans sonder le classpath à chaque envoi
+        return templateRegistry.resolve(templateName, "appointment-generic");
     }
 
     protected boolean isEmployeeRecipient(User user, Appointment appointment) {
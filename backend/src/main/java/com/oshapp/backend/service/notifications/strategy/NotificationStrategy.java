@@ -2,9 +2,21 @@ package com.oshapp.backend.service.notifications.strategy;
 
 import com.oshapp.backend.model.Appointment;
 import com.oshapp.backend.model.User;
+import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.NotificationScenario;
 
+import java.util.List;
+
 public interface NotificationStrategy {
     boolean supports(NotificationScenario scenario);
     void notify(User user, Appointment appointment, String extraMessage);
+
+    /**
+     * Notifie l'ensemble des destinataires d'un même événement.
+     * Les stratégies peuvent surcharger cette méthode pour calculer une seule fois
+     * les éléments de message partagés par tous les destinataires.
+     *
+     * @return les destinataires pour lesquels la notification a échoué
+     */
+    List<User> notifyRecipients(List<User> recipients, Appointment appointment, String extraMessage, NotificationActor actor);
 }
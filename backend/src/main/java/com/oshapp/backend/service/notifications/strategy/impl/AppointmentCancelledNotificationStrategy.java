@@ -6,7 +6,9 @@ import com.oshapp.backend.model.enums.NotificationType;
 import com.oshapp.backend.model.enums.VisitMode;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
 import com.oshapp.backend.service.notifications.NotificationScenario;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
 import com.oshapp.backend.service.notifications.strategy.AbstractNotificationStrategy;
 import org.springframework.stereotype.Component;
@@ -17,8 +19,9 @@ public class AppointmentCancelledNotificationStrategy extends AbstractNotificati
 
     public AppointmentCancelledNotificationStrategy(NotificationService notificationService,
                                                     EmailService emailService,
-                                                    NotificationVisibilityPolicy visibility) {
-        super(notificationService, emailService, visibility);
+                                                    NotificationVisibilityPolicy visibility,
+                                                    EmailTemplateRegistry templateRegistry) {
+        super(notificationService, emailService, visibility, templateRegistry);
     }
 
     @Override
@@ -57,42 +60,24 @@ public class AppointmentCancelledNotificationStrategy extends AbstractNotificati
         
         boolean isEmployeeInitiated = isEmployeeInitiatedVisit(appointment);
         
-        String defaultMsg;
+        NotificationMessage defaultMsg;
         if (isEmployeeRecipient) {
-            if (isEmployeeInitiated) {
-                // Employé annule sa propre demande spontanée
-                defaultMsg = String.format("Vous avez annulé votre demande de rendez-vous – Date demandée : %s – Mode : %s – Statut : Annulé.", 
+            // Employé : annulation de sa demande spontanée ou d'un RDV proposé par le service médical
+            defaultMsg = NotificationMessage.of(isEmployeeInitiated ? "appointment.cancelled.employee.request" : "appointment.cancelled.employee.planned",
                     when, getModeText(appointment));
-            } else {
-                // Employé annule un RDV proposé par le service médical
-                defaultMsg = String.format("Vous avez annulé le rendez-vous proposé par le service médical – Date proposée : %s – Mode : %s – Statut : Annulé.", 
-                    when, getModeText(appointment));
-            }
         } else if (rh || manager) {
-            if (isEmployeeInitiated) {
-                defaultMsg = String.format("L'employé %s – %s a annulé sa demande de rendez-vous – Date demandée : %s – Mode : %s – Statut : Annulé.", 
-                    employeeName, employeeEmail, when, getModeText(appointment));
-            } else {
-                defaultMsg = String.format("L'employé %s – %s a annulé le rendez-vous proposé par le service médical – Date proposée : %s – Mode : %s – Statut : Annulé.", 
+            defaultMsg = NotificationMessage.of(isEmployeeInitiated ? "appointment.cancelled.rh.request" : "appointment.cancelled.rh.planned",
                     employeeName, employeeEmail, when, getModeText(appointment));
-            }
         } else {
-            if (isEmployeeInitiated) {
-                // Service médical: employé annule sa demande spontanée
-                defaultMsg = String.format("L'employé %s – %s a annulé sa demande de rendez-vous – Statut : Annulé.", 
-                    employeeName, employeeEmail);
-            } else {
-                // Service médical: employé annule le RDV que le service médical avait proposé
-                defaultMsg = String.format("L'employé %s – %s a annulé le rendez-vous que vous aviez proposé – Statut : Annulé.", 
+            // Service médical
+            defaultMsg = NotificationMessage.of(isEmployeeInitiated ? "appointment.cancelled.medical.request" : "appointment.cancelled.medical.planned",
                     employeeName, employeeEmail);
-            }
         }
 
-        notificationService.sendGeneralNotification(user,
-                "Rendez-vous annulé",
+        notificationService.sendTemplatedNotification(user,
                 defaultMsg,
                 NotificationType.APPOINTMENT,
-                buildAppointmentActionLink(appointment, "view"),
+                "view",
                 "APPOINTMENT",
                 appointment.getId());
 
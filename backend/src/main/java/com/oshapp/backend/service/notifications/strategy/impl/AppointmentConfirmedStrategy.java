@@ -5,8 +5,10 @@ import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.NotificationType;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
 import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.NotificationScenario;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
 import com.oshapp.backend.service.notifications.strategy.AbstractNotificationStrategy;
 import com.oshapp.backend.service.notifications.strategy.ActorAwareNotificationStrategy;
@@ -22,8 +24,9 @@ public class AppointmentConfirmedStrategy extends AbstractNotificationStrategy i
 
     public AppointmentConfirmedStrategy(NotificationService notificationService,
                                         EmailService emailService,
-                                        NotificationVisibilityPolicy visibility) {
-        super(notificationService, emailService, visibility);
+                                        NotificationVisibilityPolicy visibility,
+                                        EmailTemplateRegistry templateRegistry) {
+        super(notificationService, emailService, visibility, templateRegistry);
     }
 
     @Override
@@ -56,57 +59,48 @@ public class AppointmentConfirmedStrategy extends AbstractNotificationStrategy i
         }
 
         // Build message based on actor and recipient
-        String defaultMsg = buildConfirmationMessage(user, appointment, actor, employeeName, employeeEmail, when, modePart);
-
-        notificationService.sendGeneralNotification(user,
-                "Rendez-vous confirmé",
-                extraMessage != null ? extraMessage : defaultMsg,
-                NotificationType.APPOINTMENT,
-                buildAppointmentActionLink(appointment, "view"),
-                "APPOINTMENT",
-                appointment.getId());
+        if (extraMessage != null) {
+            // Message fourni par l'appelant : stocké en texte libre
+            notificationService.sendGeneralNotification(user,
+                    "Rendez-vous confirmé",
+                    extraMessage,
+                    NotificationType.APPOINTMENT,
+                    buildAppointmentActionLink(appointment, "view"),
+                    "APPOINTMENT",
+                    appointment.getId());
+        } else {
+            notificationService.sendTemplatedNotification(user,
+                    buildConfirmationMessage(user, appointment, actor, employeeName, employeeEmail, when, modePart),
+                    NotificationType.APPOINTMENT,
+                    "view",
+                    "APPOINTMENT",
+                    appointment.getId());
+        }
 
         // Send email with appropriate template and CTA based on role
         sendConfirmationEmail(user, appointment, actor, employeeName);
     }
 
-    private String buildConfirmationMessage(User user, Appointment appointment, NotificationActor actor, 
-                                            String employeeName, String employeeEmail, String when, String modePart) {
+    private NotificationMessage buildConfirmationMessage(User user, Appointment appointment, NotificationActor actor,
+                                                         String employeeName, String employeeEmail, String when, String modePart) {
         boolean isEmployeeRecipient = isEmployeeRecipient(user, appointment);
         boolean isRh = visibility.isRh(user);
         boolean isManager = visibility.isManagerForAppointment(user, appointment);
         boolean isEmployeeInitiated = isEmployeeInitiatedVisit(appointment);
+        // request : demande initiée par l'employé ; planned : visite planifiée par le service médical
+        String origin = isEmployeeInitiated ? ".request" : ".planned";
 
         if (actor == NotificationActor.EMPLOYEE) {
             // Employee confirmed proposed slot
             if (isEmployeeRecipient) {
-                if (isEmployeeInitiated) {
-                    // Employé confirme sa propre demande après proposition du service médical
-                    return String.format("Vous avez confirmé le créneau proposé pour votre demande de rendez-vous –Date confirmée : %s – Mode : %s– Statut : Confirmé.", 
-                        when, getModeText(appointment));
-                } else {
-                    // Employé confirme un créneau proposé par le service médical (visite planifiée)
-                    return String.format("Vous avez confirmé le créneau proposé par le service médical –Date confirmée : %s – Mode : %s– Statut : Confirmé.", 
-                        when, getModeText(appointment));
-                }
+                return NotificationMessage.of("appointment.confirmed.by-employee.self" + origin, when, getModeText(appointment));
             } else if (isRh || isManager) {
-                if (isEmployeeInitiated) {
-                    return String.format("L'employé %s – %s a confirmé le créneau proposé pour sa demande de rendez-vous –Date confirmée : %s – Mode : %s– – Statut : Confirmé.", 
-                        employeeName, employeeEmail, when, getModeText(appointment));
-                } else {
-                    return String.format("L'employé %s – %s a confirmé le rendez-vous proposé par le service médical –Date confirmée : %s – Mode : %s– – Statut : Confirmé.", 
+                return NotificationMessage.of("appointment.confirmed.by-employee.rh" + origin,
                         employeeName, employeeEmail, when, getModeText(appointment));
-                }
             } else {
-                if (isEmployeeInitiated) {
-                    // Service médical: employé confirme le créneau pour sa demande
-                    return String.format("L'employé %s – %s a confirmé le créneau proposé pour sa demande – –Date confirmée : %s – Mode : %s– Statut : Confirmé.", 
+                // Service médical
+                return NotificationMessage.of("appointment.confirmed.by-employee.medical" + origin,
                         employeeName, employeeEmail, when, getModeText(appointment));
-                } else {
-                    // Service médical: employé confirme le rendez-vous que le service médical avait proposé
-                    return String.format("L'employé %s – %s a confirmé le rendez-vous que vous aviez proposé – –Date confirmée : %s – Mode : %s– Statut : Confirmé.", 
-                        employeeName, employeeEmail, when, getModeText(appointment));
-                }
             }
 
         } else if (actor == NotificationActor.MEDICAL_STAFF || actor == null) {
@@ -115,67 +109,22 @@ public class AppointmentConfirmedStrategy extends AbstractNotificationStrategy i
                 && appointment.getUpdatedBy().getId() != null
                 && user.getId().equals(appointment.getUpdatedBy().getId());
             if (isEmployeeRecipient) {
-                if (isEmployeeInitiated) {
-                    // Employé: sa demande a été confirmée par le service médical
-                    String[] parts = when.split(" ");
-                    String datePart = parts.length > 0 ? parts[0] : when;
-                    String timePart = parts.length > 1 ? parts[1] : "";
-                    return String.format("Votre demande de rendez-vous a été confirmée par le service médical – Date : %s – %s Statut : Confirmé.", 
-                        datePart, timePart);
-                } else {
-                    // Employé: visite planifiée par le service médical confirmée
-                    String[] parts = when.split(" ");
-                    String datePart = parts.length > 0 ? parts[0] : when;
-                    String timePart = parts.length > 1 ? parts[1] : "";
-                    return String.format("La visite médicale planifiée a été confirmée par le service médical – Date : %s – %s Statut : Confirmé.", 
-                        datePart, timePart);
-                }
-            } else if (isRh || isManager) {
-                if (isEmployeeInitiated) {
-                    return String.format("Le service médical a confirmé la demande de rendez-vous de l'employé %s – %s – Date validé : %s –mode: %s –– Statut : Confirmé.", 
-                        employeeName, employeeEmail, when, getModeText(appointment));
-                } else {
-                    return String.format("Le service médical a confirmé la visite planifiée pour l'employé %s – %s – Date validé : %s –mode: %s –– Statut : Confirmé.", 
-                        employeeName, employeeEmail, when, getModeText(appointment));
-                }
-            } else {
-                // Service médical: actor vs. other medical staff
-                if (isActorMedical) {
-                    if (isEmployeeInitiated) {
-                        // Acting medical staff confirme une demande employé
-                        return String.format("Vous avez confirmé la demande de rendez-vous de %s – %s – Date validé : %s  –mode: %s –Statut : Confirmé.", 
-                            employeeName, employeeEmail, when, getModeText(appointment));
-                    } else {
-                        // Acting medical staff confirme une visite qu'il avait planifiée
-                        return String.format("Vous avez confirmé la visite planifiée pour %s – %s – Date validé : %s  –mode: %s –Statut : Confirmé.", 
-                            employeeName, employeeEmail, when, getModeText(appointment));
-                    }
-                } else {
-                    if (isEmployeeInitiated) {
-                        return String.format("Le service médical a confirmé la demande de rendez-vous de l'employé %s – %s – Date validé : %s –mode: %s –– Statut : Confirmé.", 
-                            employeeName, employeeEmail, when, getModeText(appointment));
-                    } else {
-                        return String.format("Le service médical a confirmé la visite planifiée pour l'employé %s – %s – Date validé : %s –mode: %s –– Statut : Confirmé.", 
-                            employeeName, employeeEmail, when, getModeText(appointment));
-                    }
-                }
+                String[] parts = when.split(" ");
+                String datePart = parts.length > 0 ? parts[0] : when;
+                String timePart = parts.length > 1 ? parts[1] : "";
+                return NotificationMessage.of("appointment.confirmed.by-medical.self" + origin, datePart, timePart);
             }
-        } else if (actor == NotificationActor.RH) {
-            if (isEmployeeInitiated) {
-                return String.format("Le service médical a confirmé la demande de rendez-vous pour l'employé %s– %s – Date validé : %s –mode: %s  – Statut : Confirmé.", 
+            // RH, managers et autres membres du service médical reçoivent le même message ; l'auteur a le sien
+            String audience = (!isRh && !isManager && isActorMedical) ? "actor" : "observer";
+            return NotificationMessage.of("appointment.confirmed.by-medical." + audience + origin,
                     employeeName, employeeEmail, when, getModeText(appointment));
-            } else {
-                return String.format("Le service médical a confirmé la visite planifiée pour %s –%s– Date validé : %s –mode: %s –  Statut : Confirmé.", 
+        } else if (actor == NotificationActor.RH) {
+            return NotificationMessage.of("appointment.confirmed.by-rh" + origin,
                     employeeName, employeeEmail, when, getModeText(appointment));
-            }
         }
 
         // Fallback
-        if (isEmployeeInitiated) {
-            return String.format("Demande de rendez-vous confirmée pour %s le %s – Statut : Confirmé.", employeeName, when);
-        } else {
-            return String.format("Visite planifiée confirmée pour %s le %s – Statut : Confirmé.", employeeName, when);
-        }
+        return NotificationMessage.of("appointment.confirmed.fallback" + origin, employeeName, when);
     }
 
     private String getModeText(Appointment appointment) {
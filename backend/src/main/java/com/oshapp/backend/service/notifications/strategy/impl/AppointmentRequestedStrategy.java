@@ -5,11 +5,15 @@ import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.NotificationType;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
+import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.NotificationScenario;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
 import com.oshapp.backend.service.notifications.strategy.AbstractNotificationStrategy;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 
 /**
  * Strategy for appointment request notifications.
@@ -20,8 +24,9 @@ public class AppointmentRequestedStrategy extends AbstractNotificationStrategy {
 
     public AppointmentRequestedStrategy(NotificationService notificationService,
                                         EmailService emailService,
-                                        NotificationVisibilityPolicy visibility) {
-        super(notificationService, emailService, visibility);
+                                        NotificationVisibilityPolicy visibility,
+                                        EmailTemplateRegistry templateRegistry) {
+        super(notificationService, emailService, visibility, templateRegistry);
     }
 
     @Override
@@ -31,45 +36,46 @@ public class AppointmentRequestedStrategy extends AbstractNotificationStrategy {
 
     @Override
     public void notify(User user, Appointment appointment, String extraMessage) {
+        notifyRecipient(user, appointment, extraMessage, getEmployeeName(appointment), getEmployeeEmail(appointment));
+    }
+
+    @Override
+    public List<User> notifyRecipients(List<User> recipients, Appointment appointment, String extraMessage, NotificationActor actor) {
+        // Identité de l'employé résolue une seule fois pour toute la diffusion
         String employeeName = getEmployeeName(appointment);
         String employeeEmail = getEmployeeEmail(appointment);
-        
-        // Build notification message
-        String message = buildRequestMessage(user, appointment, employeeName, employeeEmail);
-        
+        return notifyEach(recipients, user -> notifyRecipient(user, appointment, extraMessage, employeeName, employeeEmail));
+    }
+
+    private void notifyRecipient(User user, Appointment appointment, String extraMessage, String employeeName, String employeeEmail) {
         // Send notification to employee who requested
         if (isEmployeeRecipient(user, appointment)) {
             String when = appointment.getRequestedDateEmployee() != null 
                 ? appointment.getRequestedDateEmployee().format(DATE_TIME) : "";
-            String employeeMessage = String.format("Votre demande de rendez-vous a été envoyée au service médical –Date souhaitée : %s– Statut : En attente.", when);
-            
-            notificationService.sendGeneralNotification(user,
-                    "Demande envoyée",
-                    (extraMessage != null && !extraMessage.isBlank()) ? employeeMessage + " – " + extraMessage : employeeMessage,
+            notificationService.sendTemplatedNotification(user,
+                    NotificationMessage.of("appointment.requested.sent", when).withSuffix(extraMessage),
                     NotificationType.APPOINTMENT,
-                    buildAppointmentActionLink(appointment, "view"),
+                    "view",
                     "APPOINTMENT",
                     appointment.getId());
             return;
         }
         
         // Send notification
-        String finalMessage = (extraMessage != null && !extraMessage.isBlank()) ? message + " – " + extraMessage : message;
-        notificationService.sendGeneralNotification(user,
-                "Nouvelle demande de rendez-vous",
-                finalMessage,
+        notificationService.sendTemplatedNotification(user,
+                buildRequestMessage(user, appointment, employeeName, employeeEmail).withSuffix(extraMessage),
                 NotificationType.APPOINTMENT,
-                buildAppointmentActionLink(appointment, "view"),
+                "view",
                 "APPOINTMENT",
                 appointment.getId());
 
         // Send email to employee, medical staff, RH and managers
         if (isEmployeeRecipient(user, appointment) || visibility.isMedicalStaff(user) || visibility.isRh(user) || visibility.isManagerForAppointment(user, appointment)) {
-            sendRequestEmail(user, appointment, employeeName);
+            sendRequestEmail(user, appointment, employeeName, employeeEmail);
         }
     }
 
-    private String buildRequestMessage(User user, Appointment appointment, String employeeName, String employeeEmail) {
+    private NotificationMessage buildRequestMessage(User user, Appointment appointment, String employeeName, String employeeEmail) {
         boolean isRh = visibility.isRh(user);
         boolean isManager = visibility.isManagerForAppointment(user, appointment);
         boolean isEmployee = isEmployeeRecipient(user, appointment);
@@ -81,32 +87,23 @@ public class AppointmentRequestedStrategy extends AbstractNotificationStrategy {
             ? appointment.getRequestedDateEmployee().format(DATE_TIME) : "";
         
         if (isEmployee) {
-            if (isObligatory) {
-                // Employé (obligatoire)
-                return String.format("Une visite médicale obligatoire (%s) a été créée – Statut : En attente.", typeText);
-            }
-            // Employé (standard)
-            return String.format("Votre demande de rendez-vous a été envoyée au service médical –Date souhaitée : %s– Statut : En attente.", when);
+            // Employé (obligatoire / standard)
+            return isObligatory
+                    ? NotificationMessage.of("appointment.requested.employee.obligatory", typeText)
+                    : NotificationMessage.of("appointment.requested.sent", when);
         } else if (isRh || isManager) {
-            if (isObligatory) {
-                // RH/Manager (obligatoire)
-                return String.format("Une visite médicale obligatoire (%s) a été créée pour l'employé %s – %s – Statut : En attente.",
-                        typeText, employeeName, employeeEmail);
-            }
-            // RH/Manager (standard)
-            return String.format("Le service médical a reçu une demande de rendez-vous pour l'employé %s – %s Date souhaitée : %s– Statut : En attente.", 
-                employeeName, employeeEmail, when);
+            // RH/Manager (obligatoire / standard)
+            return isObligatory
+                    ? NotificationMessage.of("appointment.requested.rh.obligatory", typeText, employeeName, employeeEmail)
+                    : NotificationMessage.of("appointment.requested.rh.standard", employeeName, employeeEmail, when);
         } else {
             if (isObligatory) {
                 // Service médical (obligatoire)
-                return String.format("RH a initié une visite médicale obligatoire (%s) pour %s – %s – Statut : En attente.",
-                        typeText, employeeName, employeeEmail);
+                return NotificationMessage.of("appointment.requested.medical.obligatory", typeText, employeeName, employeeEmail);
             }
             // Service médical (standard)
-            String motif = getMotifText(appointment);
-            String notes = getNotesText(appointment);
-            return String.format("Nouvelle demande de rendez-vous médical – %s – %s – Statut : En attente.Date souhaitée : %s  motif:%s notes: %s", 
-                employeeName, employeeEmail, when, motif, notes);
+            return NotificationMessage.of("appointment.requested.medical.standard",
+                    employeeName, employeeEmail, when, getMotifText(appointment), getNotesText(appointment));
         }
     }
     
@@ -125,8 +122,7 @@ public class AppointmentRequestedStrategy extends AbstractNotificationStrategy {
             ? notes.trim() : "Néant";
     }
 
-    private void sendRequestEmail(User user, Appointment appointment, String employeeName) {
-        String employeeEmail = getEmployeeEmail(appointment);
+    private void sendRequestEmail(User user, Appointment appointment, String employeeName, String employeeEmail) {
         String appointmentType = getAppointmentType(appointment);
         boolean isObligatory = false;
         try { isObligatory = appointment != null && appointment.isObligatory(); } catch (Exception ignored) {}
@@ -5,7 +5,9 @@ import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.NotificationType;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
 import com.oshapp.backend.service.notifications.NotificationScenario;
+import com.oshapp.backend.service.notifications.model.NotificationMessage;
 import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
 import com.oshapp.backend.service.notifications.strategy.AbstractNotificationStrategy;
@@ -22,8 +24,9 @@ public class AppointmentSlotProposedStrategy extends AbstractNotificationStrateg
 
     public AppointmentSlotProposedStrategy(NotificationService notificationService,
                                            EmailService emailService,
-                                           NotificationVisibilityPolicy visibility) {
-        super(notificationService, emailService, visibility);
+                                           NotificationVisibilityPolicy visibility,
+                                           EmailTemplateRegistry templateRegistry) {
+        super(notificationService, emailService, visibility, templateRegistry);
     }
 
     @Override
@@ -51,22 +54,30 @@ public class AppointmentSlotProposedStrategy extends AbstractNotificationStrateg
         // Get justification from latest comment
         String justification = getLatestJustification(appointment);
 
-        String message = buildProposalMessage(user, appointment, employeeName, employeeEmail, proposed, modeSuffix, justification, isObligatory, typeText);
-
         // Send notification
-        notificationService.sendGeneralNotification(user,
-                "Créneau proposé",
-                extraMessage != null ? extraMessage : message,
-                NotificationType.APPOINTMENT,
-                buildAppointmentActionLink(appointment, "confirm"),
-                "APPOINTMENT",
-                appointment.getId());
+        if (extraMessage != null) {
+            // Message fourni par l'appelant : stocké en texte libre
+            notificationService.sendGeneralNotification(user,
+                    "Créneau proposé",
+                    extraMessage,
+                    NotificationType.APPOINTMENT,
+                    buildAppointmentActionLink(appointment, "confirm"),
+                    "APPOINTMENT",
+                    appointment.getId());
+        } else {
+            notificationService.sendTemplatedNotification(user,
+                    buildProposalMessage(user, appointment, employeeName, employeeEmail, proposed, modeSuffix, justification, isObligatory, typeText),
+                    NotificationType.APPOINTMENT,
+                    "confirm",
+                    "APPOINTMENT",
+                    appointment.getId());
+        }
 
         // Send email
         sendProposalEmail(user, appointment, employeeName, employeeEmail, justification, isObligatory, typeText);
     }
 
-    private String buildProposalMessage(User user, Appointment appointment, String employeeName, String employeeEmail, String proposed, String modeSuffix, String justification, boolean isObligatory, String typeText) {
+    private NotificationMessage buildProposalMessage(User user, Appointment appointment, String employeeName, String employeeEmail, String proposed, String modeSuffix, String justification, boolean isObligatory, String typeText) {
         boolean isRh = visibility.isRh(user);
         boolean isManager = visibility.isManagerForAppointment(user, appointment);
         boolean isEmployee = isEmployeeRecipient(user, appointment);
@@ -84,44 +95,25 @@ public class AppointmentSlotProposedStrategy extends AbstractNotificationStrateg
         
         if (isEmployee) {
             // Employé
-            if (isObligatory) {
-                return String.format("Le service médical vous propose un nouveau créneau (Obligatoire – %s) – %s%s – Statut : Créneau proposé.", typeText, proposed, modeSuffix);
-            }
-            return String.format("Le service médical vous propose un nouveau créneau – %s%s – Statut : Créneau proposé.", proposed, modeSuffix);
-        } else if (isRh || isManager) {
-            // RH/Manager
-            if (isObligatory) {
-                return String.format("Le service médical a proposé un nouveau créneau (Obligatoire – %s) pour l'employé %s – %s – Nouvelle proposition : %s – Statut : Créneau proposé.", 
-                    typeText, employeeName, employeeEmail, proposed);
-            }
-            return String.format("Le service médical a proposé un nouveau créneau pour l'employé %s – %s –Nouvelle proposition : %s –– Statut : Créneau proposé.", 
-                employeeName, employeeEmail, proposed);
-        } else if (isMedicalStaff) {
-            // Service médical actor vs other medical staff
+            return isObligatory
+                    ? NotificationMessage.of("appointment.slot-proposed.employee.obligatory", typeText, proposed, modeSuffix)
+                    : NotificationMessage.of("appointment.slot-proposed.employee.standard", proposed, modeSuffix);
+        }
+        if (isMedicalStaff && !isRh && !isManager) {
+            // Service médical : auteur de la proposition ou autre membre
             if (isActorMedical) {
-                if (isObligatory) {
-                    return String.format("Vous avez proposé un nouveau créneau (Obligatoire – %s – Initiée par RH) pour %s – %s – Nouvelle proposition : %s – Statut : En attente de réponse.", 
-                        typeText, employeeName, employeeEmail, proposed);
-                }
-                return String.format("Vous avez proposé un nouveau créneau pour %s – %s ––Nouvelle proposition : %s – Statut : En attente de réponse.", 
-                    employeeName, employeeEmail, proposed);
-            } else {
-                if (isObligatory) {
-                    return String.format("Le service médical a proposé un nouveau créneau (Obligatoire – %s – Initiée par RH) pour l'employé %s – %s – Nouvelle proposition : %s – Statut : Créneau proposé.", 
-                        typeText, employeeName, employeeEmail, proposed);
-                }
-                return String.format("Le service médical a proposé un nouveau créneau pour l'employé %s – %s –Nouvelle proposition : %s –– Statut : Créneau proposé.", 
-                    employeeName, employeeEmail, proposed);
+                return isObligatory
+                        ? NotificationMessage.of("appointment.slot-proposed.actor.obligatory", typeText, employeeName, employeeEmail, proposed)
+                        : NotificationMessage.of("appointment.slot-proposed.actor.standard", employeeName, employeeEmail, proposed);
             }
-        } else {
-            // Fallback
             if (isObligatory) {
-                return String.format("Le service médical a proposé un nouveau créneau (Obligatoire – %s) pour l'employé %s – %s – Nouvelle proposition : %s – Statut : Créneau proposé.", 
-                    typeText, employeeName, employeeEmail, proposed);
+                return NotificationMessage.of("appointment.slot-proposed.medical.obligatory", typeText, employeeName, employeeEmail, proposed);
             }
-            return String.format("Le service médical a proposé un nouveau créneau pour l'employé %s – %s –Nouvelle proposition : %s –– Statut : Créneau proposé.", 
-                employeeName, employeeEmail, proposed);
         }
+        // RH/Manager, autres membres du service médical et repli
+        return isObligatory
+                ? NotificationMessage.of("appointment.slot-proposed.observer.obligatory", typeText, employeeName, employeeEmail, proposed)
+                : NotificationMessage.of("appointment.slot-proposed.observer.standard", employeeName, employeeEmail, proposed);
     }
 
     private void sendProposalEmail(User user, Appointment appointment, String employeeName, String employeeEmail, String justification, boolean isObligatory, String typeText) {
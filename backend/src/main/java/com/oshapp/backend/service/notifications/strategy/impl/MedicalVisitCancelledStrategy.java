@@ -6,6 +6,7 @@ import com.oshapp.backend.model.enums.NotificationType;
 import com.oshapp.backend.model.enums.VisitMode;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
 import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.NotificationScenario;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
@@ -20,8 +21,9 @@ public class MedicalVisitCancelledStrategy extends AbstractNotificationStrategy
 
     public MedicalVisitCancelledStrategy(NotificationService notificationService,
                                          EmailService emailService,
-                                         NotificationVisibilityPolicy visibility) {
-        super(notificationService, emailService, visibility);
+                                         NotificationVisibilityPolicy visibility,
+                                         EmailTemplateRegistry templateRegistry) {
+        super(notificationService, emailService, visibility, templateRegistry);
     }
 
     @Override
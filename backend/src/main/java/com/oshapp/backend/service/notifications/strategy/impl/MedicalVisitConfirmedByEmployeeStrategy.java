@@ -6,6 +6,7 @@ import com.oshapp.backend.model.enums.NotificationType;
 import com.oshapp.backend.model.enums.VisitMode;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
 import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.NotificationScenario;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
@@ -14,6 +15,7 @@ import com.oshapp.backend.service.notifications.strategy.ActorAwareNotificationS
 import org.springframework.stereotype.Component;
 
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -23,8 +25,9 @@ public class MedicalVisitConfirmedByEmployeeStrategy extends AbstractNotificatio
 
     public MedicalVisitConfirmedByEmployeeStrategy(NotificationService notificationService,
                                                    EmailService emailService,
-                                                   NotificationVisibilityPolicy visibility) {
-        super(notificationService, emailService, visibility);
+                                                   NotificationVisibilityPolicy visibility,
+                                                   EmailTemplateRegistry templateRegistry) {
+        super(notificationService, emailService, visibility, templateRegistry);
 
         // Préparation des templates par contexte
         templateMap.put(MessageContext.RH, resolveTemplate("medical-visit-confirmed-rh-template"));
@@ -44,11 +47,22 @@ public class MedicalVisitConfirmedByEmployeeStrategy extends AbstractNotificatio
 
     @Override
     public void notify(User user, Appointment appointment, String extraMessage, NotificationActor actor) {
-        String employeeName = getEmployeeName(appointment);
-        String employeeEmail = getEmployeeEmail(appointment);
-        String when = appointment.getScheduledTime() != null ? appointment.getScheduledTime().format(DATE_TIME) : "";
-        String visitTypeText = getAppointmentType(appointment);
-        String modeText = getModeText(appointment);
+        notifyRecipient(user, appointment, extraMessage, new SharedParts(appointment));
+    }
+
+    @Override
+    public List<User> notifyRecipients(List<User> recipients, Appointment appointment, String extraMessage, NotificationActor actor) {
+        // Parties communes du message calculées une seule fois pour tous les destinataires
+        SharedParts parts = new SharedParts(appointment);
+        return notifyEach(recipients, user -> notifyRecipient(user, appointment, extraMessage, parts));
+    }
+
+    private void notifyRecipient(User user, Appointment appointment, String extraMessage, SharedParts parts) {
+        String employeeName = parts.employeeName;
+        String employeeEmail = parts.employeeEmail;
+        String when = parts.when;
+        String visitTypeText = parts.visitTypeText;
+        String modeText = parts.modeText;
 
         String message = buildConfirmedMessage(user, appointment, employeeName, employeeEmail, when, visitTypeText, modeText);
 
@@ -262,6 +276,22 @@ public class MedicalVisitConfirmedByEmployeeStrategy extends AbstractNotificatio
         };
     }
 
+    private final class SharedParts {
+        private final String employeeName;
+        private final String employeeEmail;
+        private final String when;
+        private final String visitTypeText;
+        private final String modeText;
+
+        private SharedParts(Appointment appointment) {
+            this.employeeName = getEmployeeName(appointment);
+            this.employeeEmail = getEmployeeEmail(appointment);
+            this.when = appointment.getScheduledTime() != null ? appointment.getScheduledTime().format(DATE_TIME) : "";
+            this.visitTypeText = getAppointmentType(appointment);
+            this.modeText = getModeText(appointment);
+        }
+    }
+
     private enum MessageContext {
         EMPLOYEE,
         RH,
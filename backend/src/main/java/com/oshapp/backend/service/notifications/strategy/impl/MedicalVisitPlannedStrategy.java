@@ -5,6 +5,7 @@ import com.oshapp.backend.model.User;
 import com.oshapp.backend.model.enums.NotificationType;
 import com.oshapp.backend.service.EmailService;
 import com.oshapp.backend.service.NotificationService;
+import com.oshapp.backend.service.mail.EmailTemplateRegistry;
 import com.oshapp.backend.service.notifications.NotificationActor;
 import com.oshapp.backend.service.notifications.NotificationScenario;
 import com.oshapp.backend.service.notifications.policy.NotificationVisibilityPolicy;
@@ -21,8 +22,9 @@ public class MedicalVisitPlannedStrategy extends AbstractNotificationStrategy im
 
     public MedicalVisitPlannedStrategy(NotificationService notificationService,
                                        EmailService emailService,
-                                       NotificationVisibilityPolicy visibility) {
-        super(notificationService, emailService, visibility);
+                                       NotificationVisibilityPolicy visibility,
+                                       EmailTemplateRegistry templateRegistry) {
+        super(notificationService, emailService, visibility, templateRegistry);
     }
 
     @Override
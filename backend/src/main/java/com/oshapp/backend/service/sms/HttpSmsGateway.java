@@ -0,0 +1,90 @@
+package com.oshapp.backend.service.sms;
+
+import com.oshapp.backend.config.SmsProperties;
+import com.oshapp.backend.dto.SmsGatewayRequestDTO;
+import com.oshapp.backend.dto.SmsGatewayResponseDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Passerelle SMS HTTP générique : un POST JSON par lot ({@link SmsGatewayRequestDTO}),
+ * un résultat par message en réponse. Compatible avec la passerelle locale /api/v1/sms-stub.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.sms.gateway", havingValue = "http")
+public class HttpSmsGateway implements SmsGateway {
+
+    private final SmsProperties properties;
+
+    private RestClient client;
+
+    @PostConstruct
+    void init() {
+        SmsProperties.Http http = properties.getHttp();
+        if (http.getUrl() == null || http.getUrl().isBlank()) {
+            throw new IllegalStateException("app.sms.http.url is required when app.sms.gateway=http");
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(http.getConnectTimeoutMs());
+        requestFactory.setReadTimeout(http.getReadTimeoutMs());
+        RestClient.Builder builder = RestClient.builder()
+                .baseUrl(http.getUrl())
+                .requestFactory(requestFactory)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        if (http.getApiKey() != null && !http.getApiKey().isBlank()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + http.getApiKey());
+        }
+        client = builder.build();
+        log.info("HTTP SMS gateway configured for {}", http.getUrl());
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return Math.max(1, properties.getHttp().getMaxBatchSize());
+    }
+
+    @Override
+    public List<SmsSubmitResult> submit(List<SmsMessage> batch) {
+        SmsGatewayRequestDTO request = new SmsGatewayRequestDTO();
+        request.setCallbackUrl(properties.getCallbackUrl() != null && !properties.getCallbackUrl().isBlank()
+                ? properties.getCallbackUrl() : null);
+        request.setMessages(batch.stream()
+                .map(m -> new SmsGatewayRequestDTO.Message(m.getReference(), m.getTo(), m.getText()))
+                .collect(Collectors.toList()));
+        SmsGatewayResponseDTO response;
+        try {
+            response = client.post().body(request).retrieve().body(SmsGatewayResponseDTO.class);
+        } catch (HttpClientErrorException e) {
+            // 4xx sur tout le lot (hors 429) : requête invalide, inutile de réessayer
+            boolean permanent = e.getStatusCode().value() != 429;
+            String error = "HTTP " + e.getStatusCode().value();
+            return batch.stream()
+                    .map(m -> SmsSubmitResult.rejected(m.getReference(), error, permanent))
+                    .collect(Collectors.toList());
+        }
+        if (response == null || response.getResults() == null) return List.of();
+        return response.getResults().stream()
+                .map(r -> r.isAccepted()
+                        ? SmsSubmitResult.accepted(r.getReference(), r.getMessageId())
+                        : SmsSubmitResult.rejected(r.getReference(), r.getError(), r.isPermanent()))
+                .collect(Collectors.toList());
+    }
+}
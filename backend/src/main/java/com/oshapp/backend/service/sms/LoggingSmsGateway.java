@@ -0,0 +1,38 @@
+package com.oshapp.backend.service.sms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Passerelle par défaut : journalise les SMS sans les envoyer (ancien mode simulation).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.sms.gateway", havingValue = "log", matchIfMissing = true)
+public class LoggingSmsGateway implements SmsGateway {
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return 100;
+    }
+
+    @Override
+    public List<SmsSubmitResult> submit(List<SmsMessage> batch) {
+        log.info("--- SMS SIMULATION ({} messages) ---", batch.size());
+        return batch.stream()
+                .map(message -> {
+                    log.info("Sending SMS to {}: {}", message.getTo(), message.getText());
+                    return SmsSubmitResult.accepted(message.getReference(), "log-" + message.getReference());
+                })
+                .collect(Collectors.toList());
+    }
+}
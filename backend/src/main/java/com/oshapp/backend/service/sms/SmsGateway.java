@@ -0,0 +1,22 @@
+package com.oshapp.backend.service.sms;
+
+import java.util.List;
+
+/**
+ * Passerelle SMS. Une seule implémentation est active, choisie par app.sms.gateway.
+ * Les accusés de réception asynchrones arrivent sur /api/v1/sms/callback.
+ */
+public interface SmsGateway {
+
+    // Nom comparé à app.sms.gateway et utilisé pour le débit (app.sms.rate-limits)
+    String getName();
+
+    // Taille maximale d'un lot accepté par la passerelle
+    int getMaxBatchSize();
+
+    /**
+     * Soumet un lot et retourne un résultat par message (les références absentes sont traitées comme des échecs).
+     * Une exception signifie que tout le lot est à reprendre.
+     */
+    List<SmsSubmitResult> submit(List<SmsMessage> batch) throws Exception;
+}
@@ -0,0 +1,14 @@
+package com.oshapp.backend.service.sms;
+
+import lombok.Value;
+
+/**
+ * SMS soumis à une passerelle. {@code reference} est l'identifiant de la ligne sms_outbox,
+ * renvoyé par la passerelle pour rattacher chaque résultat du lot.
+ */
+@Value
+public class SmsMessage {
+    String reference;
+    String to;
+    String text;
+}
@@ -0,0 +1,60 @@
+package com.oshapp.backend.service.sms;
+
+import com.oshapp.backend.config.SmsProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seau de jetons par minute propre à la passerelle SMS active (app.sms.rate-limits).
+ * Les SMS non autorisés restent en file jusqu'au passage suivant.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SmsRateLimiter {
+
+    private final SmsProperties properties;
+    private final SmsGateway gateway;
+
+    @Getter
+    private int perMinute;
+    private double tokens;
+    private double tokensPerNano;
+    private long lastRefill;
+
+    @PostConstruct
+    void init() {
+        perMinute = Math.max(1, properties.getRateLimits().getOrDefault(gateway.getName(), properties.getDefaultRatePerMinute()));
+        tokens = perMinute;
+        tokensPerNano = perMinute / 60_000_000_000d;
+        lastRefill = System.nanoTime();
+        log.info("SMS gateway '{}' limited to {} messages per minute", gateway.getName(), perMinute);
+    }
+
+    public synchronized int acquireUpTo(int requested) {
+        if (requested <= 0) return 0;
+        refill();
+        int granted = (int) Math.min(requested, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    public synchronized void release(int permits) {
+        if (permits <= 0) return;
+        tokens = Math.min(perMinute, tokens + permits);
+    }
+
+    public synchronized long available() {
+        refill();
+        return (long) tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(perMinute, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,23 @@
+package com.oshapp.backend.service.sms;
+
+import lombok.Value;
+
+/**
+ * Résultat de soumission d'un SMS du lot. Un refus permanent (numéro invalide...) n'est pas réessayé.
+ */
+@Value
+public class SmsSubmitResult {
+    String reference;
+    boolean accepted;
+    String providerMessageId;
+    String error;
+    boolean permanent;
+
+    public static SmsSubmitResult accepted(String reference, String providerMessageId) {
+        return new SmsSubmitResult(reference, true, providerMessageId, null, false);
+    }
+
+    public static SmsSubmitResult rejected(String reference, String error, boolean permanent) {
+        return new SmsSubmitResult(reference, false, null, error, permanent);
+    }
+}
@@ -0,0 +1,21 @@
+-- Agrégats journaliers des rendez-vous (une ligne par jour / type / statut / département / mode / planifié)
+CREATE TABLE IF NOT EXISTS appointment_daily_stats (
+    id BIGSERIAL PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    department VARCHAR(255) NOT NULL DEFAULT '',
+    visit_mode VARCHAR(20) NOT NULL DEFAULT '',
+    scheduled BOOLEAN NOT NULL DEFAULT FALSE,
+    appointment_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_appointment_daily_stats_bucket
+        UNIQUE (stat_date, type, status, department, visit_mode, scheduled)
+);
+
+CREATE INDEX IF NOT EXISTS idx_appointment_daily_stats_status
+    ON appointment_daily_stats (status, type);
+
+-- Département sous lequel chaque rendez-vous est compté (retrait exact après un changement de département)
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS stat_department VARCHAR(255);
+UPDATE appointments a SET stat_department = COALESCE(e.department, '')
+    FROM employee e WHERE e.id = a.employee_id AND a.stat_department IS NULL;
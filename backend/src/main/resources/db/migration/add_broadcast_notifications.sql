@@ -0,0 +1,33 @@
+-- Notifications diffusées par rôle (stockées une seule fois) et marqueurs par utilisateur
+CREATE TABLE IF NOT EXISTS broadcast_notifications (
+    id BIGSERIAL PRIMARY KEY,
+    target_role VARCHAR(60) NOT NULL,
+    title VARCHAR(255),
+    message VARCHAR(255),
+    created_at TIMESTAMP,
+    type VARCHAR(255),
+    related_entity_type VARCHAR(255),
+    related_entity_id BIGINT,
+    action_url VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcast_role_created
+    ON broadcast_notifications (target_role, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_broadcast_role_entity
+    ON broadcast_notifications (target_role, related_entity_type, related_entity_id);
+
+CREATE TABLE IF NOT EXISTS broadcast_notification_receipts (
+    id BIGSERIAL PRIMARY KEY,
+    broadcast_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    read_at TIMESTAMP,
+    dismissed BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_broadcast_receipt_user UNIQUE (broadcast_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcast_receipt_user
+    ON broadcast_notification_receipts (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_notification_user_entity
+    ON notification (user_id, related_entity_type, related_entity_id);
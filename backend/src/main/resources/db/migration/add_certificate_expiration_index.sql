@@ -0,0 +1,3 @@
+-- Alertes d'expiration : parcours de la seule fenêtre [aujourd'hui, +30 jours]
+CREATE INDEX IF NOT EXISTS idx_medical_certificates_expiration
+    ON medical_certificates (expiration_date);
@@ -0,0 +1,6 @@
+-- Date de première confirmation d'un rendez-vous (délai demande -> confirmation)
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS confirmed_at TIMESTAMP;
+
+-- Dernière visite périodique réalisée par employé (rapport par département)
+CREATE INDEX IF NOT EXISTS idx_appointments_employee_type_status
+    ON appointments (employee_id, type, status);
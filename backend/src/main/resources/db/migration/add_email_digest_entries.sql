@@ -0,0 +1,16 @@
+-- Événements en attente de récapitulatif email (conservés en cas de redémarrage)
+CREATE TABLE IF NOT EXISTS email_digest_entries (
+    id BIGSERIAL PRIMARY KEY,
+    to_email VARCHAR(255) NOT NULL,
+    recipient_name VARCHAR(255),
+    subject VARCHAR(998),
+    status_label VARCHAR(255),
+    when_label VARCHAR(255),
+    action_url VARCHAR(1000),
+    action_label VARCHAR(255),
+    occurred_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_digest_entries_to_created
+    ON email_digest_entries (to_email, created_at);
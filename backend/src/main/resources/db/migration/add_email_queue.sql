@@ -0,0 +1,49 @@
+-- File d'envoi persistante des emails et lettres mortes
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    to_email VARCHAR(255) NOT NULL,
+    subject VARCHAR(998),
+    html_body TEXT,
+    inline_logo BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next
+    ON email_outbox (status, next_attempt_at);
+
+CREATE TABLE IF NOT EXISTS email_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    to_email VARCHAR(255) NOT NULL,
+    subject VARCHAR(998),
+    html_body TEXT,
+    inline_logo BOOLEAN NOT NULL DEFAULT FALSE,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP,
+    failed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_dead_letter_failed
+    ON email_dead_letters (failed_at);
+
+-- Voies de priorité (0 = CRITICAL, 1 = NORMAL, 2 = BULK)
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS priority INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE email_dead_letters ADD COLUMN IF NOT EXISTS priority INTEGER;
+
+DROP INDEX IF EXISTS idx_email_outbox_status_next;
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next
+    ON email_outbox (status, priority, next_attempt_at);
+
+-- Envois groupés en copie cachée (contenu identique pour plusieurs destinataires)
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS bcc_emails TEXT;
+ALTER TABLE email_dead_letters ADD COLUMN IF NOT EXISTS bcc_emails TEXT;
+
+-- Jetons du limiteur consommés par message : un par destinataire
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS recipient_count INTEGER NOT NULL DEFAULT 1;
+UPDATE email_outbox SET recipient_count = array_length(string_to_array(bcc_emails, ','), 1)
+    WHERE bcc_emails IS NOT NULL AND bcc_emails <> '';
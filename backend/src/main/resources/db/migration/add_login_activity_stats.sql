@@ -0,0 +1,9 @@
+-- Activité de connexion agrégée par heure (alimentée par LoginActivityTracker)
+CREATE TABLE IF NOT EXISTS login_activity_hourly_stats (
+    id BIGSERIAL PRIMARY KEY,
+    hour_start TIMESTAMP NOT NULL,
+    successes BIGINT NOT NULL DEFAULT 0,
+    failures BIGINT NOT NULL DEFAULT 0,
+    unique_users BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_login_activity_hour UNIQUE (hour_start)
+);
@@ -0,0 +1,7 @@
+-- Index supportant le listing/comptage des notifications par utilisateur
+-- ainsi que la purge périodique (rétention) par type
+CREATE INDEX IF NOT EXISTS idx_notification_user_read_created
+    ON notification (user_id, read, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_notification_type_read_created
+    ON notification (type, read, created_at);
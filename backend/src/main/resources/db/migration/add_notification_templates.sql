@@ -0,0 +1,7 @@
+-- Notifications stockées sous forme de clé de catalogue + paramètres JSON, rendues à la lecture.
+-- Les lignes existantes (texte libre) restent lisibles : template_key NULL.
+ALTER TABLE notification ADD COLUMN IF NOT EXISTS template_key VARCHAR(64);
+ALTER TABLE notification ADD COLUMN IF NOT EXISTS params VARCHAR(1000);
+
+ALTER TABLE broadcast_notifications ADD COLUMN IF NOT EXISTS template_key VARCHAR(64);
+ALTER TABLE broadcast_notifications ADD COLUMN IF NOT EXISTS params VARCHAR(1000);
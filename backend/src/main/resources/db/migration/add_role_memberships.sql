@@ -0,0 +1,54 @@
+-- Périodes d'appartenance aux rôles : visibilité des notifications diffusées par rôle
+CREATE TABLE IF NOT EXISTS role_memberships (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    role_name VARCHAR(60) NOT NULL,
+    granted_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_role_membership_user_role
+    ON role_memberships (user_id, role_name);
+
+-- Une seule période ouverte par utilisateur et par rôle
+CREATE UNIQUE INDEX IF NOT EXISTS uk_role_membership_open
+    ON role_memberships (user_id, role_name) WHERE revoked_at IS NULL;
+
+-- Membres actuels : période ouverte depuis toujours, ils conservent les diffusions déjà reçues
+INSERT INTO role_memberships (user_id, role_name, granted_at)
+SELECT ur.user_id, r.name, TIMESTAMP '1970-01-01 00:00:00'
+FROM user_roles ur JOIN role r ON r.id = ur.role_id
+ON CONFLICT DO NOTHING;
+
+-- Triggers différés jusqu'au commit : Hibernate remplace souvent l'ensemble des rôles (suppression puis
+-- réinsertion de toutes les lignes) ; seul l'état final de user_roles ouvre ou ferme une période
+CREATE OR REPLACE FUNCTION role_membership_granted() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO role_memberships (user_id, role_name, granted_at)
+    SELECT NEW.user_id, r.name, CURRENT_TIMESTAMP FROM role r
+    WHERE r.id = NEW.role_id
+      AND EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = NEW.user_id AND ur.role_id = NEW.role_id)
+    ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION role_membership_revoked() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE role_memberships m SET revoked_at = CURRENT_TIMESTAMP
+    FROM role r
+    WHERE r.id = OLD.role_id AND m.user_id = OLD.user_id AND m.role_name = r.name AND m.revoked_at IS NULL
+      AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = OLD.user_id AND ur.role_id = OLD.role_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_role_membership_granted ON user_roles;
+CREATE CONSTRAINT TRIGGER trg_role_membership_granted
+    AFTER INSERT ON user_roles DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION role_membership_granted();
+
+DROP TRIGGER IF EXISTS trg_role_membership_revoked ON user_roles;
+CREATE CONSTRAINT TRIGGER trg_role_membership_revoked
+    AFTER DELETE ON user_roles DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION role_membership_revoked();
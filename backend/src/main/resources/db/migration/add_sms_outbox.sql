@@ -0,0 +1,23 @@
+-- File d'envoi SMS persistante (passerelle configurable, accusés de réception)
+CREATE TABLE IF NOT EXISTS sms_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,
+    phone_number VARCHAR(32) NOT NULL,
+    text VARCHAR(1000) NOT NULL,
+    urgent BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP,
+    gateway VARCHAR(50),
+    provider_message_id VARCHAR(100),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_sms_outbox_status_next
+    ON sms_outbox (status, urgent, next_attempt_at);
+
+CREATE INDEX IF NOT EXISTS idx_sms_outbox_provider_id
+    ON sms_outbox (provider_message_id);
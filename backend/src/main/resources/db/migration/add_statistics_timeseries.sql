@@ -0,0 +1,21 @@
+-- Dimension praticien (médecin, sinon infirmier ; 0 si aucun) des agrégats de rendez-vous
+ALTER TABLE appointment_daily_stats ADD COLUMN IF NOT EXISTS practitioner_id BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE appointment_daily_stats DROP CONSTRAINT IF EXISTS uk_appointment_daily_stats_bucket;
+ALTER TABLE appointment_daily_stats ADD CONSTRAINT uk_appointment_daily_stats_bucket
+    UNIQUE (stat_date, type, status, department, practitioner_id, visit_mode, scheduled);
+
+CREATE INDEX IF NOT EXISTS idx_appointment_daily_stats_date
+    ON appointment_daily_stats (stat_date);
+
+-- Les cases existantes n'ont pas de praticien : vidées, reconstruites au démarrage
+DELETE FROM appointment_daily_stats;
+
+-- Agrégats journaliers des accidents du travail par département
+CREATE TABLE IF NOT EXISTS accident_daily_stats (
+    id BIGSERIAL PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    department VARCHAR(255) NOT NULL DEFAULT '',
+    accident_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_accident_daily_stats_bucket UNIQUE (stat_date, department)
+);
@@ -0,0 +1,5 @@
+-- Jours d'arrêt de travail par accident (taux de gravité HSE)
+ALTER TABLE work_accidents ADD COLUMN IF NOT EXISTS lost_work_days INTEGER;
+
+CREATE INDEX IF NOT EXISTS idx_work_accidents_accident_date
+    ON work_accidents (accident_date);
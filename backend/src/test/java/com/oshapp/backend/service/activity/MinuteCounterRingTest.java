@@ -0,0 +1,75 @@
+package com.oshapp.backend.service.activity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinuteCounterRingTest {
+
+    @Test
+    void countsPerMinuteAndSumsWindow() {
+        MinuteCounterRing ring = new MinuteCounterRing(60);
+
+        ring.increment(1_000);
+        ring.increment(1_000);
+        ring.increment(1_001);
+
+        assertThat(ring.get(1_000)).isEqualTo(2);
+        assertThat(ring.get(1_001)).isEqualTo(1);
+        assertThat(ring.get(1_002)).isZero();
+        assertThat(ring.sum(1_000, 1_001)).isEqualTo(3);
+    }
+
+    @Test
+    void reusedSlotIsResetForNewMinute() {
+        MinuteCounterRing ring = new MinuteCounterRing(60);
+
+        ring.increment(1_000);
+        ring.increment(1_000);
+        // Même case, une rotation plus tard
+        ring.increment(1_060);
+
+        assertThat(ring.get(1_060)).isEqualTo(1);
+        assertThat(ring.get(1_000)).isZero();
+    }
+
+    @Test
+    void sumIgnoresMinutesOlderThanRing() {
+        MinuteCounterRing ring = new MinuteCounterRing(10);
+
+        ring.increment(100);
+        ring.increment(105);
+        ring.increment(109);
+
+        assertThat(ring.sum(0, 109)).isEqualTo(3);
+        // La minute 100 est hors de l'anneau pour une fenêtre se terminant à 110
+        assertThat(ring.sum(0, 110)).isEqualTo(2);
+    }
+
+    @Test
+    void lateIncrementDoesNotOverwriteNewerMinute() {
+        MinuteCounterRing ring = new MinuteCounterRing(60);
+
+        ring.increment(1_060);
+        // Horloge revenue en arrière : la case appartient déjà à une minute plus récente
+        ring.increment(1_000);
+
+        assertThat(ring.get(1_060)).isEqualTo(1);
+        assertThat(ring.get(1_000)).isZero();
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws InterruptedException {
+        MinuteCounterRing ring = new MinuteCounterRing(60);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) ring.increment(42);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertThat(ring.get(42)).isEqualTo(40_000);
+    }
+}
@@ -0,0 +1,67 @@
+package com.oshapp.backend.service.activity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UniqueUserSketchesTest {
+
+    @Test
+    void emptyWindowEstimatesZero() {
+        UniqueUserSketches sketches = new UniqueUserSketches(12, 5);
+
+        assertThat(sketches.estimate(0, 60)).isZero();
+    }
+
+    @Test
+    void smallCardinalityIsNearlyExact() {
+        UniqueUserSketches sketches = new UniqueUserSketches(12, 5);
+        for (long userId = 1; userId <= 50; userId++) sketches.add(10, userId);
+
+        assertThat(sketches.estimate(10, 10)).isCloseTo(50L, within(3L));
+    }
+
+    @Test
+    void largeCardinalityStaysWithinTolerance() {
+        UniqueUserSketches sketches = new UniqueUserSketches(12, 5);
+        for (long userId = 1; userId <= 20_000; userId++) sketches.add(10, userId);
+
+        // Erreur type ≈ 6,5 % avec 256 registres : tolérance de 3 écarts types
+        assertThat(sketches.estimate(10, 10)).isCloseTo(20_000L, within(4_000L));
+    }
+
+    @Test
+    void repeatedLoginsAreCountedOnce() {
+        UniqueUserSketches sketches = new UniqueUserSketches(12, 5);
+        for (int round = 0; round < 20; round++) {
+            for (long userId = 1; userId <= 100; userId++) sketches.add(10 + round % 5, userId);
+        }
+
+        assertThat(sketches.estimate(10, 14)).isCloseTo(100L, within(8L));
+    }
+
+    @Test
+    void windowMergesSlotsAsUnion() {
+        UniqueUserSketches sketches = new UniqueUserSketches(12, 5);
+        for (long userId = 1; userId <= 100; userId++) sketches.add(0, userId);
+        for (long userId = 51; userId <= 150; userId++) sketches.add(5, userId);
+
+        assertThat(sketches.estimate(0, 4)).isCloseTo(100L, within(8L));
+        assertThat(sketches.estimate(0, 9)).isCloseTo(150L, within(12L));
+    }
+
+    @Test
+    void recycledSlotDropsPreviousPeriod() {
+        UniqueUserSketches sketches = new UniqueUserSketches(2, 5);
+        for (long userId = 1; userId <= 100; userId++) sketches.add(0, userId);
+        // Période 2 : même case que la période 0
+        sketches.add(10, 1_000);
+
+        assertThat(sketches.estimate(0, 4)).isZero();
+        assertThat(sketches.estimate(10, 14)).isEqualTo(1);
+        // Ajout tardif pour la période recyclée : ignoré
+        sketches.add(0, 2_000);
+        assertThat(sketches.estimate(0, 4)).isZero();
+    }
+}
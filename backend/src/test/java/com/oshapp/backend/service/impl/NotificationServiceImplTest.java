@@ -0,0 +1,177 @@
+package com.oshapp.backend.service.impl;
+
+import com.oshapp.backend.exception.ResourceNotFoundException;
+import com.oshapp.backend.exception.UnauthorizedException;
+import com.oshapp.backend.model.Notification;
+import com.oshapp.backend.model.Role;
+import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.enums.NotificationType;
+import com.oshapp.backend.model.enums.RoleName;
+import com.oshapp.backend.repository.BroadcastNotificationRepository;
+import com.oshapp.backend.repository.NotificationRepository;
+import com.oshapp.backend.repository.UserRepository;
+import com.oshapp.backend.service.notifications.FanOutExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+        user.setRoles(Set.of(new Role(RoleName.ROLE_EMPLOYEE)));
+    }
+
+    @Test
+    void markAllAsReadIssuesSetBasedUpdates() {
+        when(notificationRepository.markAllAsReadByUser(user)).thenReturn(3);
+        when(broadcastNotificationRepository.markAllAsRead(7L)).thenReturn(2);
+
+        assertThat(notificationService.markAllAsRead(user)).isEqualTo(5);
+        verify(notificationRepository, never()).findAll();
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void bulkMarkAsReadUpdatesPersonalAndBroadcastIds() {
+        when(notificationRepository.markAsReadByUserAndIdIn(user, Set.of(1L, 2L))).thenReturn(2);
+        when(broadcastNotificationRepository.markAsRead(7L, Set.of(5L))).thenReturn(1);
+
+        assertThat(notificationService.markAsRead(List.of(1L, 2L), List.of(5L), user)).isEqualTo(3);
+    }
+
+    @Test
+    void bulkMarkAsReadWithOnlyBroadcastIdsSkipsPersonalUpdate() {
+        when(broadcastNotificationRepository.markAsRead(7L, Set.of(5L))).thenReturn(1);
+
+        assertThat(notificationService.markAsRead(null, List.of(5L), user)).isEqualTo(1);
+        verify(notificationRepository, never()).markAsReadByUserAndIdIn(any(), anyCollection());
+    }
+
+    @Test
+    void bulkOperationsIgnoreEmptyIdList() {
+        assertThat(notificationService.markAsRead(List.of(), null, user)).isZero();
+        assertThat(notificationService.deleteNotifications(null, List.of(), user)).isZero();
+        verifyNoInteractions(notificationRepository, broadcastNotificationRepository, eventPublisher);
+    }
+
+    @Test
+    void bulkDeleteRemovesPersonalRowsAndDismissesBroadcasts() {
+        when(notificationRepository.deleteByUserAndIdIn(user, Set.of(1L))).thenReturn(1);
+        when(broadcastNotificationRepository.dismiss(7L, Set.of(9L))).thenReturn(1);
+
+        assertThat(notificationService.deleteNotifications(List.of(1L), List.of(9L), user)).isEqualTo(2);
+    }
+
+    @Test
+    void singleMarkAsReadDoesNotLookUpRowWhenUpdateMatched() {
+        when(notificationRepository.markAsReadByUserAndIdIn(user, List.of(1L))).thenReturn(1);
+
+        notificationService.markAsRead(1L, user);
+
+        verify(notificationRepository, never()).findById(any());
+    }
+
+    @Test
+    void singleMarkAsReadOfForeignNotificationIsRejected() {
+        User owner = new User();
+        owner.setId(8L);
+        Notification notification = new Notification();
+        notification.setUser(owner);
+        when(notificationRepository.markAsReadByUserAndIdIn(user, List.of(1L))).thenReturn(0);
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(notification));
+
+        assertThatThrownBy(() -> notificationService.markAsRead(1L, user)).isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void singleDeleteOfMissingNotificationIsNotFound() {
+        when(notificationRepository.deleteByUserAndIdIn(user, List.of(1L))).thenReturn(0);
+        when(notificationRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> notificationService.deleteNotification(1L, user)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void dismissOfBroadcastNotVisibleToUserIsNotFound() {
+        when(broadcastNotificationRepository.dismiss(7L, List.of(4L))).thenReturn(0);
+
+        assertThatThrownBy(() -> notificationService.dismissBroadcast(4L, user)).isInstanceOf(ResourceNotFoundException.class);
+        verify(notificationRepository, never()).deleteByUserAndIdIn(any(), anyCollection());
+    }
+
+    @Test
+    void fanOutWritesForDifferentRecipientsOfOneEventRunConcurrently() {
+        FanOutExecutor fanOutExecutor = new FanOutExecutor();
+        ReflectionTestUtils.setField(fanOutExecutor, "workers", 4);
+        ReflectionTestUtils.setField(fanOutExecutor, "queueCapacity", 100);
+        ReflectionTestUtils.setField(fanOutExecutor, "awaitTimeoutSeconds", 5L);
+        ReflectionTestUtils.invokeMethod(fanOutExecutor, "start");
+        NotificationServiceImpl service = new NotificationServiceImpl(notificationRepository, broadcastNotificationRepository,
+                userRepository, transactionManager, fanOutExecutor, null, eventPublisher);
+        // Chaque écriture ne se termine que si les trois destinataires sont écrits en même temps
+        CyclicBarrier barrier = new CyclicBarrier(3);
+        AtomicInteger saved = new AtomicInteger();
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
+            barrier.await(2, TimeUnit.SECONDS);
+            saved.incrementAndGet();
+            return invocation.getArgument(0);
+        });
+        try {
+            service.beginFanOut();
+            for (long userId = 1; userId <= 3; userId++) {
+                User recipient = new User();
+                recipient.setId(userId);
+                // Même rendez-vous pour tous : les écritures restent sur la file de chaque destinataire
+                service.sendGeneralNotification(recipient, "Rendez-vous", "Mis à jour", NotificationType.APPOINTMENT,
+                        null, "APPOINTMENT", 42L);
+            }
+
+            assertThat(service.endFanOut()).isTrue();
+            assertThat(saved).hasValue(3);
+        } finally {
+            ReflectionTestUtils.invokeMethod(fanOutExecutor, "stop");
+        }
+    }
+}
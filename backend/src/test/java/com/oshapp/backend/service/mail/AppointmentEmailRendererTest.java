@@ -0,0 +1,101 @@
+package com.oshapp.backend.service.mail;
+
+import com.oshapp.backend.model.User;
+import com.oshapp.backend.model.enums.EmailPriority;
+import com.oshapp.backend.service.EmailQueueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentEmailRendererTest {
+
+    @Mock
+    private TemplateEngine templateEngine;
+    @Mock
+    private EmailDigestBuffer digestBuffer;
+    @Mock
+    private EmailQueueService emailQueue;
+    @Mock
+    private EmailAddressResolver addressResolver;
+
+    @InjectMocks
+    private AppointmentEmailRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        when(addressResolver.resolve(anyString())).thenAnswer(inv -> inv.getArgument(0));
+        // Rendu factice : template et nom affiché, seule variable propre au destinataire
+        lenient().when(templateEngine.process(anyString(), any(IContext.class)))
+                .thenAnswer(inv -> inv.getArgument(0) + ":" + ((IContext) inv.getArgument(1)).getVariable("recipientName"));
+    }
+
+    private static EmailRecipient recipient(long id, String username, String email) {
+        return EmailRecipient.of(User.builder().id(id).username(username).email(email).build(), false);
+    }
+
+    private static AppointmentEmailRequest request(String template, EmailRecipient... recipients) {
+        return AppointmentEmailRequest.builder()
+                .recipients(List.of(recipients))
+                .subject("Rendez-vous")
+                .template(template)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void identicalContentAcrossRequestsIsQueuedOnceAsGroup() {
+        renderer.renderAndQueue(List.of(
+                request("rh-template", recipient(1, "rh", "rh1@example.com")),
+                request("rh-template", recipient(2, "rh", "rh2@example.com"))));
+
+        ArgumentCaptor<Collection<String>> recipients = ArgumentCaptor.forClass(Collection.class);
+        verify(emailQueue).enqueueGroup(recipients.capture(), eq("Rendez-vous"), eq("rh-template:rh"), eq(true), eq(EmailPriority.BULK));
+        assertThat(recipients.getValue()).containsExactly("rh1@example.com", "rh2@example.com");
+        verify(emailQueue, never()).enqueue(anyString(), anyString(), anyString(), anyBoolean(), any());
+    }
+
+    @Test
+    void personalizedContentIsNeverGrouped() {
+        renderer.renderAndQueue(List.of(
+                request("rh-template", recipient(1, "alice", "alice@example.com"), recipient(2, "bob", "bob@example.com")),
+                request("medical-template", recipient(3, "alice", "carol@example.com"))));
+
+        verify(emailQueue).enqueue("alice@example.com", "Rendez-vous", "rh-template:alice", true, EmailPriority.BULK);
+        verify(emailQueue).enqueue("bob@example.com", "Rendez-vous", "rh-template:bob", true, EmailPriority.BULK);
+        verify(emailQueue).enqueue("carol@example.com", "Rendez-vous", "medical-template:alice", true, EmailPriority.BULK);
+        verify(emailQueue, never()).enqueueGroup(anyCollection(), anyString(), anyString(), anyBoolean(), any());
+    }
+
+    @Test
+    void groupIsSplitWhenRenderingDiffers() {
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("a", "b", "c", "d");
+
+        renderer.renderAndQueue(List.of(request("rh-template",
+                recipient(1, "rh", "rh1@example.com"), recipient(2, "rh", "rh2@example.com"))));
+
+        verify(emailQueue).enqueue(eq("rh1@example.com"), eq("Rendez-vous"), anyString(), eq(true), eq(EmailPriority.BULK));
+        verify(emailQueue).enqueue(eq("rh2@example.com"), eq("Rendez-vous"), anyString(), eq(true), eq(EmailPriority.BULK));
+        verify(emailQueue, never()).enqueueGroup(anyCollection(), anyString(), anyString(), anyBoolean(), any());
+    }
+}
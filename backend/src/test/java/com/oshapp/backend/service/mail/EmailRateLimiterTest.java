@@ -0,0 +1,94 @@
+package com.oshapp.backend.service.mail;
+
+import com.oshapp.backend.config.EmailRateLimitProperties;
+import com.oshapp.backend.model.enums.EmailPriority;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailRateLimiterTest {
+
+    private static EmailRateLimiter limiter(int perMinute, int perDay, String mailHost) {
+        EmailRateLimitProperties properties = new EmailRateLimitProperties();
+        properties.setDefaults(new EmailRateLimitProperties.Quota(null, perMinute, perDay));
+        properties.setCriticalReservePercent(20);
+        properties.setNormalReservePercent(20);
+        EmailRateLimiter limiter = new EmailRateLimiter(properties);
+        ReflectionTestUtils.setField(limiter, "mailHost", mailHost);
+        limiter.init();
+        return limiter;
+    }
+
+    @Test
+    void lowerPriorityLanesCannotConsumeReservedTokens() {
+        EmailRateLimiter limiter = limiter(10, 10_000, "");
+
+        // BULK s'arrête au-dessus des 40 % réservés aux voies NORMAL et CRITICAL
+        assertThat(limiter.acquireUpTo(EmailPriority.BULK, 100)).isEqualTo(6);
+        assertThat(limiter.acquireUpTo(EmailPriority.BULK, 100)).isZero();
+        // NORMAL s'arrête au-dessus des 20 % réservés à CRITICAL
+        assertThat(limiter.acquireUpTo(EmailPriority.NORMAL, 100)).isEqualTo(2);
+        assertThat(limiter.acquireUpTo(EmailPriority.NORMAL, 100)).isZero();
+        // CRITICAL peut vider le seau
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 100)).isEqualTo(2);
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 100)).isZero();
+    }
+
+    @Test
+    void criticalLaneIsServedWhileBulkIsThrottled() {
+        EmailRateLimiter limiter = limiter(10, 10_000, "");
+
+        limiter.acquireUpTo(EmailPriority.BULK, 100);
+        assertThat(limiter.acquireUpTo(EmailPriority.BULK, 1)).isZero();
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void releasedTokensAreAvailableAgain() {
+        EmailRateLimiter limiter = limiter(10, 10_000, "");
+
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 10)).isEqualTo(10);
+        limiter.release(3);
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 10)).isEqualTo(3);
+    }
+
+    @Test
+    void bucketRefillsOverTime() throws InterruptedException {
+        // 60 000 jetons par minute : un jeton par milliseconde
+        EmailRateLimiter limiter = limiter(60_000, 1_000_000, "");
+
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 60_000)).isEqualTo(60_000);
+        assertThat(limiter.availablePerMinute()).isLessThan(50);
+
+        Thread.sleep(200);
+
+        assertThat(limiter.availablePerMinute()).isGreaterThanOrEqualTo(150);
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 100)).isEqualTo(100);
+    }
+
+    @Test
+    void dailyQuotaCapsGrantsEvenWhenMinuteBucketIsFull() {
+        EmailRateLimiter limiter = limiter(100, 5, "");
+
+        assertThat(limiter.acquireUpTo(EmailPriority.CRITICAL, 100)).isEqualTo(5);
+        assertThat(limiter.availablePerMinute()).isEqualTo(95);
+    }
+
+    @Test
+    void maxBurstExcludesReservesOfHigherLanes() {
+        EmailRateLimiter limiter = limiter(10, 10_000, "");
+
+        assertThat(limiter.maxBurst(EmailPriority.CRITICAL)).isEqualTo(10);
+        assertThat(limiter.maxBurst(EmailPriority.NORMAL)).isEqualTo(8);
+        assertThat(limiter.maxBurst(EmailPriority.BULK)).isEqualTo(6);
+    }
+
+    @Test
+    void providerQuotaIsSelectedFromMailHost() {
+        EmailRateLimiter limiter = limiter(60, 10_000, "smtp.gmail.com");
+
+        assertThat(limiter.getProvider()).isEqualTo("gmail");
+        assertThat(limiter.availablePerMinute()).isEqualTo(20);
+    }
+}
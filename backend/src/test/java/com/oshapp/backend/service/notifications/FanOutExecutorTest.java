@@ -0,0 +1,121 @@
+package com.oshapp.backend.service.notifications;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FanOutExecutorTest {
+
+    private FanOutExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new FanOutExecutor();
+        ReflectionTestUtils.setField(executor, "workers", 4);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 100);
+        ReflectionTestUtils.setField(executor, "awaitTimeoutSeconds", 5L);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void differentKeysRunConcurrently() {
+        CyclicBarrier barrier = new CyclicBarrier(3);
+        AtomicInteger met = new AtomicInteger();
+        FanOutExecutor.Event event = executor.newEvent();
+        for (long userId = 1; userId <= 3; userId++) {
+            // Chaque tâche ne se termine que si les trois s'exécutent en même temps
+            event.submit(userId, () -> {
+                try {
+                    barrier.await(2, TimeUnit.SECONDS);
+                    met.incrementAndGet();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        assertThat(event.await()).isTrue();
+        assertThat(met).hasValue(3);
+    }
+
+    @Test
+    void sameKeyRunsInSubmissionOrder() {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        FanOutExecutor.Event event = executor.newEvent();
+        // Chaque tâche est remise au pool par la fin de la précédente de sa file
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            event.submit("lane", () -> order.add(index));
+        }
+
+        assertThat(event.await()).isTrue();
+        assertThat(order).hasSize(50).isSorted();
+    }
+
+    @Test
+    void multiKeyTaskWaitsForEachLane() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        FanOutExecutor.Event event = executor.newEvent();
+        event.submit(1L, () -> {
+            awaitQuietly(release);
+            order.add("user-1");
+        });
+        event.submit(List.of("role", 1L, 2L), () -> order.add("broadcast"));
+        event.submit(2L, () -> order.add("user-2"));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(order).isEmpty();
+        release.countDown();
+
+        assertThat(event.await()).isTrue();
+        assertThat(order).containsExactly("user-1", "broadcast", "user-2");
+    }
+
+    @Test
+    void tasksRejectedAfterShutdownFailTheirEvent() {
+        CountDownLatch release = new CountDownLatch(1);
+        FanOutExecutor.Event event = executor.newEvent();
+        event.submit("lane", () -> awaitQuietly(release));
+        AtomicInteger ran = new AtomicInteger();
+        event.submit("lane", ran::incrementAndGet);
+
+        Thread stopper = new Thread(executor::stop);
+        stopper.start();
+        // La seconde tâche est libérée après l'arrêt du pool : refusée, son échec est signalé
+        while (stopper.isAlive() && !isShutdown()) Thread.onSpinWait();
+        release.countDown();
+
+        long start = System.nanoTime();
+        assertThat(event.await()).isFalse();
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+        assertThat(ran).hasValue(0);
+    }
+
+    private boolean isShutdown() {
+        return ((java.util.concurrent.ThreadPoolExecutor) ReflectionTestUtils.getField(executor, "executor")).isShutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -340,7 +340,8 @@ class _EmployeeDashboardScreenState extends State<EmployeeDashboardScreen>
     final notification = list[index];
     try {
       // Supprimer de la base de données via l'API
-      await _apiService.deleteNotification(notification.id);
+      await _apiService.deleteNotification(notification.id,
+          broadcast: notification.broadcast);
 
       // Supprimer localement seulement si l'API a réussi
       list.removeAt(index);
@@ -363,12 +364,16 @@ class _EmployeeDashboardScreenState extends State<EmployeeDashboardScreen>
 
   void _clearAllNotifications() async {
     try {
-      // Récupérer tous les IDs des notifications
-      final notificationIds = _notifications.map((n) => n.id).toList();
+      // Récupérer tous les IDs des notifications (personnelles / diffusions)
+      final notificationIds =
+          _notifications.where((n) => !n.broadcast).map((n) => n.id).toList();
+      final broadcastIds =
+          _notifications.where((n) => n.broadcast).map((n) => n.id).toList();
 
-      if (notificationIds.isNotEmpty) {
+      if (notificationIds.isNotEmpty || broadcastIds.isNotEmpty) {
         // Supprimer toutes les notifications via l'API
-        await _apiService.deleteNotificationsBulk(notificationIds);
+        await _apiService.deleteNotificationsBulk(notificationIds,
+            broadcastIds: broadcastIds);
       }
 
       // Vider localement seulement si l'API a réussi
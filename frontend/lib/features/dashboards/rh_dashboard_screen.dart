@@ -331,7 +331,8 @@ class _RHDashboardScreenState extends State<RHDashboardScreen> {
       }
       
       // Supprimer de la base de données via l'API
-      await _apiService.deleteNotification(notificationId);
+      await _apiService.deleteNotification(notificationId,
+          broadcast: notification.broadcast);
       
       // Supprimer localement seulement si l'API a réussi
       list.removeAt(index);
@@ -356,16 +357,18 @@ class _RHDashboardScreenState extends State<RHDashboardScreen> {
     try {
       // Récupérer tous les IDs des notifications et les convertir en int
       final notificationIds = <int>[];
+      final broadcastIds = <int>[];
       for (final notification in _notifications) {
         final id = int.tryParse(notification.id);
         if (id != null) {
-          notificationIds.add(id);
+          (notification.broadcast ? broadcastIds : notificationIds).add(id);
         }
       }
       
-      if (notificationIds.isNotEmpty) {
+      if (notificationIds.isNotEmpty || broadcastIds.isNotEmpty) {
         // Supprimer toutes les notifications via l'API
-        await _apiService.deleteNotificationsBulk(notificationIds);
+        await _apiService.deleteNotificationsBulk(notificationIds,
+            broadcastIds: broadcastIds);
       }
       
       // Vider localement seulement si l'API a réussi
@@ -427,6 +430,7 @@ class _RHDashboardScreenState extends State<RHDashboardScreen> {
               link: (n.relatedEntityType == 'APPOINTMENT' && n.relatedEntityId != null)
                   ? '/appointments/${n.relatedEntityId}'
                   : '',
+              broadcast: n.broadcast,
             ))
         .toList();
   }
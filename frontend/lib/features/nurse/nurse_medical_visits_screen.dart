@@ -1323,12 +1323,15 @@ class _ConsulterTabState extends State<_ConsulterTab> {
       final appts = await _api.getMyAppointments();
       final notifs = await _api.getMyNotifications();
       final apptIds = appts.map((a) => a.id).toList();
-      final notifIds = notifs.map((n) => n.id).toList();
+      final notifIds = notifs.where((n) => !n.broadcast).map((n) => n.id).toList();
+      final broadcastIds =
+          notifs.where((n) => n.broadcast).map((n) => n.id).toList();
 
       List<int> failedN = const [];
       List<int> failedA = const [];
-      if (notifIds.isNotEmpty) {
-        failedN = await _api.deleteNotificationsBulk(notifIds);
+      if (notifIds.isNotEmpty || broadcastIds.isNotEmpty) {
+        failedN = await _api.deleteNotificationsBulk(notifIds,
+            broadcastIds: broadcastIds);
       }
       if (apptIds.isNotEmpty) {
         failedA = await _api.deleteAppointmentsBulk(apptIds);
@@ -5,6 +5,8 @@ class Alert {
   final String date;
   final String severity;
   final String link;
+  // Notification diffusée par rôle (voir AppNotification.broadcast)
+  final bool broadcast;
 
   Alert({
     required this.id,
@@ -13,6 +15,7 @@ class Alert {
     required this.date,
     required this.severity,
     required this.link,
+    this.broadcast = false,
   });
 
   factory Alert.fromJson(Map<String, dynamic> json) {
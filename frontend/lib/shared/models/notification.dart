@@ -7,6 +7,8 @@ class AppNotification {
   final String? relatedEntityType;
   final int? relatedEntityId;
   final DateTime createdAt;
+  // Diffusion par rôle : lecture et suppression via les endpoints notifications/broadcasts
+  final bool broadcast;
 
   AppNotification({
     required this.id,
@@ -17,6 +19,7 @@ class AppNotification {
     this.relatedEntityType,
     this.relatedEntityId,
     required this.createdAt,
+    this.broadcast = false,
   });
 
   factory AppNotification.fromJson(Map<String, dynamic> json) {
@@ -46,6 +49,7 @@ class AppNotification {
       relatedEntityType: json['relatedEntityType'],
       relatedEntityId: safeParseInt(json['relatedEntityId']),
       createdAt: safeParseDateTime(json['createdAt']) ?? DateTime.now(),
+      broadcast: json['broadcast'] == true,
     );
   }
 
@@ -59,6 +63,7 @@ class AppNotification {
       'relatedEntityType': relatedEntityType,
       'relatedEntityId': relatedEntityId,
       'createdAt': createdAt.toIso8601String(),
+      'broadcast': broadcast,
     };
   }
 
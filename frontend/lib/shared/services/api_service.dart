@@ -990,29 +990,40 @@ class ApiService {
     });
   }
 
-  Future<void> markNotificationAsRead(int notificationId) async {
-    return _handleRequest(
-        () => _dio.patch('notifications/$notificationId/read'));
+  Future<void> markNotificationAsRead(int notificationId,
+      {bool broadcast = false}) async {
+    return _handleRequest(() => _dio.patch(broadcast
+        ? 'notifications/broadcasts/$notificationId/read'
+        : 'notifications/$notificationId/read'));
   }
 
   Future<void> markAllNotificationsAsRead() async {
     return _handleRequest(() => _dio.patch('notifications/read-all'));
   }
 
-  Future<void> deleteNotification(int notificationId) async {
-    return _handleRequest(() => _dio.delete('notifications/$notificationId'));
+  Future<void> deleteNotification(int notificationId,
+      {bool broadcast = false}) async {
+    return _handleRequest(() => _dio.delete(broadcast
+        ? 'notifications/broadcasts/$notificationId'
+        : 'notifications/$notificationId'));
   }
 
-  Future<List<int>> deleteNotificationsBulk(List<int> notificationIds) async {
+  Future<List<int>> deleteNotificationsBulk(List<int> notificationIds,
+      {List<int> broadcastIds = const []}) async {
     return _handleRequest(() async {
       final List<int> failed = [];
-      for (final id in notificationIds) {
+      final targets = [
+        ...notificationIds.map((id) => 'notifications/$id'),
+        ...broadcastIds.map((id) => 'notifications/broadcasts/$id'),
+      ];
+      final ids = [...notificationIds, ...broadcastIds];
+      for (var i = 0; i < targets.length; i++) {
         try {
-          await _dio.delete('notifications/$id');
+          await _dio.delete(targets[i]);
         } catch (e) {
           // Continue deleting others; collect failures to report at the end
-          failed.add(id);
-          debugPrint('Failed to delete notification $id: $e');
+          failed.add(ids[i]);
+          debugPrint('Failed to delete notification ${ids[i]}: $e');
         }
       }
       return failed;
@@ -37,18 +37,21 @@ class _NotificationListWidgetState extends State<NotificationListWidget> {
     });
   }
 
-  Future<void> _markAsRead(int notificationId) async {
+  Future<void> _markAsRead(int notificationId, {bool broadcast = false}) async {
     try {
-      await _apiService.markNotificationAsRead(notificationId);
+      await _apiService.markNotificationAsRead(notificationId,
+          broadcast: broadcast);
       _refresh();
     } catch (_) {
       // Silently ignore; marking as read is non-critical for UX here
     }
   }
 
-  Future<void> _deleteNotification(int notificationId) async {
+  Future<void> _deleteNotification(int notificationId,
+      {bool broadcast = false}) async {
     try {
-      await _apiService.deleteNotification(notificationId);
+      await _apiService.deleteNotification(notificationId,
+          broadcast: broadcast);
       _refresh();
       if (!mounted) return;
       ScaffoldMessenger.of(context).showSnackBar(
@@ -76,7 +79,7 @@ class _NotificationListWidgetState extends State<NotificationListWidget> {
       }
     } finally {
       if (!mounted) return;
-      await _markAsRead(notif.id);
+      await _markAsRead(notif.id, broadcast: notif.broadcast);
     }
   }
 
@@ -337,7 +340,8 @@ class _NotificationListWidgetState extends State<NotificationListWidget> {
                                         color: Colors.green,
                                       ),
                                       tooltip: 'Marquer comme lu',
-                                      onPressed: () => _markAsRead(notif.id),
+                                      onPressed: () => _markAsRead(notif.id,
+                                          broadcast: notif.broadcast),
                                     ),
                                   IconButton(
                                     icon: const Icon(
@@ -345,7 +349,9 @@ class _NotificationListWidgetState extends State<NotificationListWidget> {
                                       color: Colors.redAccent,
                                     ),
                                     tooltip: 'Supprimer',
-                                    onPressed: () => _deleteNotification(notif.id),
+                                    onPressed: () => _deleteNotification(
+                                        notif.id,
+                                        broadcast: notif.broadcast),
                                   ),
                                 ],
                               ),